@@ -0,0 +1,17 @@
+package com.example.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 缓存在网关的一个完整响应（状态码、响应头、响应体）；同时用于把首个请求的响应共享给合并的并发请求
+ */
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, Instant storedAt, Duration ttl) {
+
+    public long ageSeconds() {
+        return Duration.between(storedAt, Instant.now()).toSeconds();
+    }
+}
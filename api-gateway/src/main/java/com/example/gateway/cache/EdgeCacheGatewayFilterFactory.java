@@ -0,0 +1,330 @@
+package com.example.gateway.cache;
+
+import com.example.gateway.config.EdgeCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 网关层的 GET 响应缓存 + 相同请求合并，用法（config-repo/api-gateway.yml）：
+ * <pre>
+ * filters:
+ *   - EdgeCache=30s
+ * </pre>
+ * - key：后端服务 + 原始路径 + 查询串 + gateway.edge-cache.key-headers 指定的请求头
+ * - 缓存时间：上游 Cache-Control 的 s-maxage / max-age 优先，其次是路由参数，最后是 default-ttl；
+ *   no-store / private / no-cache、Set-Cookie、Vary: * 的响应不缓存也不共享
+ * - 命中时带 Age 头；请求的 If-None-Match 与缓存的 ETag 相同时直接返回 304
+ * - 同一 key 的并发未命中只有第一个请求转发到后端，其余请求等它的响应；不能共享时各自再转发
+ * - 响应体边转发边复制：超过 maximum-entry-size（或 Content-Length 已经超过）就放弃复制、照常流式转发，
+ *   大的分块响应（如 /employees/export）不会整个缓冲在网关内存里
+ * - 经过同一后端服务的成功写请求（POST/PUT/PATCH/DELETE）清掉该服务的所有缓存，以及 gateway.edge-cache.evict-on-write
+ *   里列出的依赖服务的缓存（它们的响应里组装了该服务的数据）。只对经过本网关实例的写请求成立：
+ *   其他网关实例、或不经网关直接写后端时，缓存最多陈旧一个 TTL
+ * 带 Authorization 或 Cache-Control: no-cache / no-store 的请求直接转发
+ */
+@Component
+public class EdgeCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<EdgeCacheGatewayFilterFactory.Config> {
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?:^|,)\\s*(s-maxage|max-age)\\s*=\\s*\"?(\\d+)");
+    private static final List<String> HOP_BY_HOP = List.of(HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+            HttpHeaders.CONTENT_LENGTH);
+    private static final String RATE_LIMIT_HEADER_PREFIX = "X-RateLimit-";
+
+    private final Cache<String, CachedResponse> cache;
+    private final EdgeCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Mono<Optional<CachedResponse>>> inFlight = new ConcurrentHashMap<>();
+
+    public EdgeCacheGatewayFilterFactory(Cache<String, CachedResponse> edgeResponseCache,
+                                         EdgeCacheProperties properties,
+                                         MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.cache = edgeResponseCache;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // 排在所有过滤器之前：key 用 RewritePath 之前的原始路径，且 NettyWriteResponseFilter 写的是 CapturingResponse
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config), Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String service = route == null ? "" : route.getUri().getHost();
+        String routeId = route == null ? "" : route.getId();
+
+        if (request.getMethod() != HttpMethod.GET && request.getMethod() != HttpMethod.HEAD) {
+            return chain.filter(exchange).doOnSuccess(done -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status != null && status.is2xxSuccessful()) {
+                    evictService(service);
+                    properties.getEvictOnWrite().forEach((writer, dependents) -> {
+                        if (writer.equalsIgnoreCase(service)) {
+                            dependents.forEach(EdgeCacheGatewayFilterFactory.this::evictService);
+                        }
+                    });
+                }
+            });
+        }
+        if (request.getMethod() != HttpMethod.GET || !cacheableRequest(request.getHeaders())) {
+            count(routeId, "bypass");
+            return chain.filter(exchange);
+        }
+
+        String key = key(service, request);
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            count(routeId, "hit");
+            return write(exchange, cached);
+        }
+
+        Sinks.One<Optional<CachedResponse>> sink = Sinks.one();
+        Mono<Optional<CachedResponse>> shared = sink.asMono();
+        Mono<Optional<CachedResponse>> leader = inFlight.putIfAbsent(key, shared);
+        if (leader != null) {
+            count(routeId, "coalesced");
+            return leader.flatMap(response -> response.isPresent()
+                    ? write(exchange, response.get())
+                    : chain.filter(exchange));
+        }
+
+        count(routeId, "miss");
+        Duration routeTtl = config.getTtl() != null ? config.getTtl() : properties.getDefaultTtl();
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse(), key, routeTtl, sink);
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> {
+                    // 出错、取消或没有响应体时，等待的请求各自转发
+                    sink.tryEmitValue(Optional.empty());
+                    inFlight.remove(key, shared);
+                });
+    }
+
+    // 命中：回放缓存的响应，客户端已有相同 ETag 时只返回 304
+    private Mono<Void> write(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        String etag = cached.headers().getETag();
+        if (etag != null && exchange.getRequest().getHeaders().getIfNoneMatch().contains(etag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().setETag(etag);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().setContentLength(cached.body().length);
+        response.getHeaders().set(HttpHeaders.AGE, Long.toString(cached.ageSeconds()));
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private String key(String service, ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(service).append(' ').append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        for (String header : properties.getKeyHeaders()) {
+            key.append(' ').append(request.getHeaders().getOrDefault(header, List.of()));
+        }
+        return key.toString();
+    }
+
+    private void evictService(String service) {
+        String prefix = service + " ";
+        cache.asMap().keySet().removeIf(key -> key.regionMatches(true, 0, prefix, 0, prefix.length()));
+    }
+
+    private void count(String routeId, String result) {
+        meterRegistry.counter("gateway.edge.cache", "route", routeId, "result", result).increment();
+    }
+
+    private static boolean cacheableRequest(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.AUTHORIZATION)) {
+            return false;
+        }
+        String cacheControl = cacheControl(headers);
+        return !cacheControl.contains("no-cache") && !cacheControl.contains("no-store");
+    }
+
+    // 可以共享给其他客户端的响应：200、非私有、不带 Cookie
+    private static boolean shareable(HttpStatusCode status, HttpHeaders headers) {
+        if (status == null || status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        if (headers.getVary().contains("*")) {
+            return false;
+        }
+        String cacheControl = cacheControl(headers);
+        return !cacheControl.contains("no-store") && !cacheControl.contains("private") && !cacheControl.contains("no-cache");
+    }
+
+    // s-maxage 优先于 max-age；都没有时用路由的 TTL
+    private static Duration ttl(HttpHeaders headers, Duration routeTtl) {
+        Matcher matcher = MAX_AGE.matcher(cacheControl(headers));
+        Duration maxAge = null;
+        while (matcher.find()) {
+            Duration value = Duration.ofSeconds(Long.parseLong(matcher.group(2)));
+            if (matcher.group(1).equals("s-maxage")) {
+                return value;
+            }
+            maxAge = value;
+        }
+        return maxAge != null ? maxAge : routeTtl;
+    }
+
+    private static String cacheControl(HttpHeaders headers) {
+        return String.join(",", headers.getOrDefault(HttpHeaders.CACHE_CONTROL, List.of())).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 首个请求的响应：边写给客户端边复制响应体，写完后放进缓存、交给等待的请求
+     * 复制的字节超过 maximum-entry-size 时丢掉副本、立即让等待的请求各自转发，剩下的部分照常流式写出
+     */
+    private class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Duration routeTtl;
+        private final Sinks.One<Optional<CachedResponse>> sink;
+
+        CapturingResponse(ServerHttpResponse delegate, String key, Duration routeTtl,
+                          Sinks.One<Optional<CachedResponse>> sink) {
+            super(delegate);
+            this.key = key;
+            this.routeTtl = routeTtl;
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            long maximumEntrySize = properties.getMaximumEntrySize().toBytes();
+            if (!shareable(getStatusCode(), headers) || headers.getContentLength() > maximumEntrySize) {
+                sink.tryEmitValue(Optional.empty());
+                return super.writeWith(body);
+            }
+            BodyCopy bodyCopy = new BodyCopy(maximumEntrySize);
+            Flux<DataBuffer> tee = Flux.<DataBuffer>from(body)
+                    .doOnNext(buffer -> {
+                        if (!bodyCopy.append(buffer)) {
+                            sink.tryEmitValue(Optional.empty());
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        byte[] bytes = bodyCopy.bytes();
+                        if (bytes == null) {
+                            return;
+                        }
+                        CachedResponse response = new CachedResponse(getStatusCode(), copy(headers), bytes,
+                                Instant.now(), ttl(headers, routeTtl));
+                        if (!response.ttl().isZero()) {
+                            cache.put(key, response);
+                        }
+                        sink.tryEmitValue(Optional.of(response));
+                    });
+            return super.writeWith(tee);
+        }
+
+        // 流式响应（text/event-stream 等）不缓存
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            sink.tryEmitValue(Optional.empty());
+            return super.writeAndFlushWith(body);
+        }
+
+        // 不保存逐跳头和限流头（X-RateLimit-* 是针对首个请求的客户端的）
+        private static HttpHeaders copy(HttpHeaders headers) {
+            HttpHeaders copy = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                if (HOP_BY_HOP.stream().noneMatch(name::equalsIgnoreCase)
+                        && !name.regionMatches(true, 0, RATE_LIMIT_HEADER_PREFIX, 0, RATE_LIMIT_HEADER_PREFIX.length())) {
+                    copy.put(name, List.copyOf(values));
+                }
+            });
+            return HttpHeaders.readOnlyHttpHeaders(copy);
+        }
+    }
+
+    /**
+     * 响应体的副本，不移动原 buffer 的读位置；超过上限后丢弃已复制的部分，不再复制
+     */
+    private static final class BodyCopy {
+
+        private final long limit;
+        private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        BodyCopy(long limit) {
+            this.limit = limit;
+        }
+
+        // 返回 false 表示已超过上限
+        boolean append(DataBuffer buffer) {
+            if (bytes == null) {
+                return false;
+            }
+            int readable = buffer.readableByteCount();
+            if (bytes.size() + (long) readable > limit) {
+                bytes = null;
+                return false;
+            }
+            int position = buffer.readPosition();
+            byte[] chunk = new byte[readable];
+            buffer.read(chunk);
+            buffer.readPosition(position);
+            bytes.write(chunk, 0, readable);
+            return true;
+        }
+
+        // 超过上限时为 null
+        byte[] bytes() {
+            return bytes == null ? null : bytes.toByteArray();
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+
+        // 未设置时用 gateway.edge-cache.default-ttl
+        private Duration ttl;
+    }
+}
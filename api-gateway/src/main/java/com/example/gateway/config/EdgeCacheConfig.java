@@ -0,0 +1,39 @@
+package com.example.gateway.config;
+
+import com.example.gateway.cache.CachedResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(EdgeCacheProperties.class)
+public class EdgeCacheConfig {
+
+    // 所有路由共用一个按字节计权的缓存；每个条目按自己的 TTL 过期（上游 max-age 或路由配置）
+    @Bean
+    public Cache<String, CachedResponse> edgeResponseCache(EdgeCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return response.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+}
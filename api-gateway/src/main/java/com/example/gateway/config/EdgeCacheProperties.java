@@ -0,0 +1,38 @@
+package com.example.gateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EdgeCache 路由过滤器的全局配置（gateway.edge-cache.*，见 config-repo/api-gateway.yml）
+ * 每条路由的 TTL 在过滤器参数里单独设置（EdgeCache=30s），这里是未设置时的默认值
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.edge-cache")
+public class EdgeCacheProperties {
+
+    // 所有缓存响应体的总大小上限
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+    // 单个响应体超过这个大小时不缓存，也不共享给合并的请求
+    private DataSize maximumEntrySize = DataSize.ofMegabytes(1);
+
+    // 上游没有 Cache-Control: max-age 且路由没有配置 TTL 时的缓存时间
+    private Duration defaultTtl = Duration.ofSeconds(10);
+
+    // 参与缓存 key 的请求头（同一 URL 的不同表示）
+    private List<String> keyHeaders = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+    // 写请求除了清掉本服务的缓存，还要清掉哪些服务的缓存（它们的响应里组装了本服务的数据），
+    // 例如员工写入会让 DEPARTMENT-SERVICE 的 /departments/{id}/employees 过期；服务名不区分大小写
+    private Map<String, List<String>> evictOnWrite = new HashMap<>();
+}
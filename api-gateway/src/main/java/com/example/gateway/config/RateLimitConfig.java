@@ -0,0 +1,33 @@
+package com.example.gateway.config;
+
+import com.example.gateway.ratelimit.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    // RequestRateLimiter 默认使用的限流器；Gateway 自动配置的 redisRateLimiter 只作为 redis 后端被委托
+    @Bean
+    @Primary
+    public TokenBucketRateLimiter tokenBucketRateLimiter(RateLimitProperties properties,
+                                                         ObjectProvider<RedisRateLimiter> redisRateLimiter,
+                                                         ConfigurationService configurationService,
+                                                         MeterRegistry meterRegistry) {
+        RedisRateLimiter redis = null;
+        if (properties.getBackend() == RateLimitProperties.Backend.REDIS) {
+            redis = redisRateLimiter.getIfAvailable();
+            if (redis == null) {
+                throw new IllegalStateException("gateway.rate-limit.backend=redis but no RedisRateLimiter is configured");
+            }
+        }
+        return new TokenBucketRateLimiter(properties, redis, configurationService, meterRegistry);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.gateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * RequestRateLimiter 的令牌桶配置（gateway.rate-limit.*，见 config-repo/api-gateway.yml）
+ * 每条路由的速率在过滤器参数 token-bucket.* 里设置，这里是没有设置时的默认值和存储后端
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    public enum Backend {
+        // 每个网关实例各自计数，实例数 × 速率才是总速率
+        LOCAL,
+        // 所有网关实例共用 Redis 中的令牌桶（Spring Cloud Gateway 自带的 RedisRateLimiter 脚本）
+        REDIS
+    }
+
+    private Backend backend = Backend.LOCAL;
+
+    // 可信的客户端标识请求头（由网关前面的认证层/可信代理设置并覆盖客户端自带的值），默认不使用；
+    // 客户端自己能随意设置的头不能用作限流 key：每换一个值就得到一个满的新桶
+    private String clientHeader = "";
+
+    // 网关前面可信代理的层数：0 按 TCP 对端地址限流；n > 0 时从 X-Forwarded-For 右数第 n 个地址取客户端 IP
+    private int trustedProxyHops = 0;
+
+    // 每个客户端每秒补充的令牌数和桶容量（允许的突发）
+    private int replenishRate = 100;
+
+    private int burstCapacity = 200;
+
+    // local 后端：最多保留的令牌桶个数，空闲超过 idle-timeout 的桶被清理（重新出现时是满的）
+    private long maximumBuckets = 100_000;
+
+    private Duration idleTimeout = Duration.ofMinutes(10);
+}
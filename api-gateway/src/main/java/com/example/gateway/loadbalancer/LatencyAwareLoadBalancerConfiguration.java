@@ -0,0 +1,33 @@
+package com.example.gateway.loadbalancer;
+
+import com.example.gateway.config.LatencyAwareLoadBalancerProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * 每个服务的 LoadBalancer 子上下文配置（由 LoadBalancerConfig 的 @LoadBalancerClients 注册）
+ * 不加 @Configuration：不能被组件扫描到主上下文里
+ * loadbalancer.latency-aware.services 中的服务用 PeakEwmaLoadBalancer，其他服务与默认一样用轮询
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(Environment environment,
+                                                                                   LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                                   LatencyAwareLoadBalancerProperties properties,
+                                                                                   InstanceLatencyTracker instanceLatencyTracker) {
+        String serviceId = LoadBalancerClientFactory.getName(environment);
+        if (properties.isEnabledFor(serviceId)) {
+            return new PeakEwmaLoadBalancer(
+                    loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                    instanceLatencyTracker);
+        }
+        return new RoundRobinLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId);
+    }
+}
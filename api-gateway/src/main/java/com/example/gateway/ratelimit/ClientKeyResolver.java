@@ -0,0 +1,45 @@
+package com.example.gateway.ratelimit;
+
+import com.example.gateway.config.RateLimitProperties;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * 限流的客户端标识：默认为客户端 IP（直连地址，或 trusted-proxy-hops 层可信代理写入的 X-Forwarded-For）
+ * 只有配置了 gateway.rate-limit.client-header（由可信的认证层设置）时才按该请求头区分客户端
+ */
+@Component("clientKeyResolver")
+public class ClientKeyResolver implements KeyResolver {
+
+    private final RateLimitProperties properties;
+    private final RemoteAddressResolver remoteAddressResolver;
+
+    public ClientKeyResolver(RateLimitProperties properties) {
+        this.properties = properties;
+        this.remoteAddressResolver = properties.getTrustedProxyHops() > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(properties.getTrustedProxyHops())
+                : new RemoteAddressResolver() {
+                };
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        if (StringUtils.hasText(properties.getClientHeader())) {
+            String client = exchange.getRequest().getHeaders().getFirst(properties.getClientHeader());
+            if (StringUtils.hasText(client)) {
+                return Mono.just("client:" + client);
+            }
+        }
+        InetSocketAddress address = remoteAddressResolver.resolve(exchange);
+        return address == null || address.getAddress() == null
+                ? Mono.empty()
+                : Mono.just("ip:" + address.getAddress().getHostAddress());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * 进程内的令牌桶，按时间差补充令牌（不需要定时任务）；空闲的桶由 Caffeine 过期清理
+ */
+class LocalTokenBuckets {
+
+    private final Cache<String, Bucket> buckets;
+
+    LocalTokenBuckets(long maximumBuckets, Duration idleTimeout) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumBuckets)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    /**
+     * 取 requested 个令牌；成功时返回剩余令牌数，令牌不够时返回 -1
+     */
+    long tryConsume(String key, int replenishRate, int burstCapacity, int requested) {
+        long now = System.nanoTime();
+        return buckets.get(key, k -> new Bucket(burstCapacity, now))
+                .tryConsume(replenishRate, burstCapacity, requested, now);
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+
+        synchronized long tryConsume(int replenishRate, int burstCapacity, int requested, long now) {
+            tokens = Math.min(burstCapacity, tokens + Math.max(0, now - refilledAt) / 1e9 * replenishRate);
+            refilledAt = now;
+            if (tokens < requested) {
+                return -1;
+            }
+            tokens -= requested;
+            return (long) tokens;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.gateway.ratelimit;
+
+import com.example.gateway.config.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * RequestRateLimiter 使用的令牌桶限流，路由参数（config-repo/api-gateway.yml）：
+ * <pre>
+ * - name: RequestRateLimiter
+ *   args:
+ *     token-bucket.replenish-rate: 10         # 每个客户端每秒补充的令牌
+ *     token-bucket.burst-capacity: 20         # 每个客户端的桶容量
+ *     token-bucket.route-replenish-rate: 100  # 可选：整条路由（所有客户端合计）的令牌桶
+ *     token-bucket.route-burst-capacity: 200
+ * </pre>
+ * 先扣客户端的桶，通过后再扣整条路由的桶；任一不够时 RequestRateLimiter 返回 429
+ * 后端由 gateway.rate-limit.backend 决定：local 为进程内计数，redis 复用 Spring Cloud Gateway 的 RedisRateLimiter（Redis 不可用时放行）
+ * 拒绝次数记录在 gateway.requests.rejected{route, reason=client_rate_limit|route_rate_limit}
+ */
+public class TokenBucketRateLimiter extends AbstractRateLimiter<TokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "token-bucket";
+
+    private final RateLimitProperties properties;
+    private final LocalTokenBuckets local;
+    private final RedisRateLimiter redis;
+    private final MeterRegistry meterRegistry;
+
+    public TokenBucketRateLimiter(RateLimitProperties properties,
+                                  RedisRateLimiter redis,
+                                  ConfigurationService configurationService,
+                                  MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.properties = properties;
+        this.local = new LocalTokenBuckets(properties.getMaximumBuckets(), properties.getIdleTimeout());
+        this.redis = redis;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig());
+        // 先扣客户端自己的桶：已经超限的客户端不会再消耗整条路由的令牌，挤掉其他客户端
+        return consume(routeId, routeId + ":" + id,
+                config.getReplenishRate(), config.getBurstCapacity(), config.getRequestedTokens())
+                .flatMap(clientResponse -> {
+                    if (!clientResponse.isAllowed()) {
+                        rejected(routeId, "client_rate_limit");
+                        return Mono.just(clientResponse);
+                    }
+                    if (config.getRouteReplenishRate() <= 0) {
+                        return Mono.just(clientResponse);
+                    }
+                    return consume(routeId + "#route", routeId + ":*", config.getRouteReplenishRate(),
+                            Math.max(config.getRouteBurstCapacity(), config.getRouteReplenishRate()), config.getRequestedTokens())
+                            .doOnNext(routeResponse -> {
+                                if (!routeResponse.isAllowed()) {
+                                    rejected(routeId, "route_rate_limit");
+                                }
+                            });
+                });
+    }
+
+    private Mono<Response> consume(String bucket, String key, int replenishRate, int burstCapacity, int requested) {
+        if (properties.getBackend() == RateLimitProperties.Backend.REDIS) {
+            // RedisRateLimiter 按 bucket 名查配置，按 key 存令牌
+            redis.getConfig().put(bucket, new RedisRateLimiter.Config()
+                    .setReplenishRate(replenishRate)
+                    .setBurstCapacity(burstCapacity)
+                    .setRequestedTokens(requested));
+            return redis.isAllowed(bucket, key);
+        }
+        long remaining = local.tryConsume(key, replenishRate, burstCapacity, requested);
+        return Mono.just(new Response(remaining >= 0, Map.of(
+                RedisRateLimiter.REMAINING_HEADER, Long.toString(Math.max(remaining, 0)),
+                RedisRateLimiter.REPLENISH_RATE_HEADER, Integer.toString(replenishRate),
+                RedisRateLimiter.BURST_CAPACITY_HEADER, Integer.toString(burstCapacity),
+                RedisRateLimiter.REQUESTED_TOKENS_HEADER, Integer.toString(requested))));
+    }
+
+    private Config defaultConfig() {
+        Config config = new Config();
+        config.setReplenishRate(properties.getReplenishRate());
+        config.setBurstCapacity(properties.getBurstCapacity());
+        return config;
+    }
+
+    private void rejected(String routeId, String reason) {
+        meterRegistry.counter("gateway.requests.rejected", "route", routeId, "reason", reason).increment();
+    }
+
+    @Getter
+    @Setter
+    @Validated
+    public static class Config {
+
+        @Min(1)
+        private int replenishRate = 100;
+
+        @Min(1)
+        private int burstCapacity = 200;
+
+        @Min(1)
+        private int requestedTokens = 1;
+
+        // 0 表示不限制整条路由
+        @Min(0)
+        private int routeReplenishRate = 0;
+
+        // 小于 route-replenish-rate 时按 route-replenish-rate
+        @Min(0)
+        private int routeBurstCapacity = 0;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.gateway.shed;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按后端服务做的过载保护（load shedding），用法：
+ * <pre>
+ * filters:
+ *   - LoadShed=200,2s   # 最大并发请求数, 最大平均延迟
+ * </pre>
+ * - 该服务正在处理的请求数达到 max-concurrent 时，新请求直接返回 503，不再排队等待
+ * - 该服务的平均延迟（EWMA）超过 max-latency 时按超出比例随机拒绝（最多 90%），
+ *   留一部分请求继续通过，延迟恢复后拒绝比例随之下降
+ *   平均延迟在读取时按距上次完成的时间衰减：被拒绝的请求不产生新样本，流量很少或几乎全被拒绝时
+ *   旧的高延迟也会在几十秒内淡出，不会一直卡在拒绝状态
+ * 同一服务的多条路由共用计数；拒绝的响应带 Retry-After，并记录在 gateway.requests.rejected{route, reason=concurrency|latency}
+ */
+@Component
+public class LoadShedGatewayFilterFactory extends AbstractGatewayFilterFactory<LoadShedGatewayFilterFactory.Config> {
+
+    // 每个完成的请求对平均延迟的权重
+    private static final double EWMA_ALPHA = 0.2;
+    // 没有新样本时平均延迟按 exp(-t / DECAY) 衰减（读取时计算，不改存储的值）
+    private static final long DECAY_NANOS = Duration.ofSeconds(10).toNanos();
+    private static final double MAX_LATENCY_REJECTION = 0.9;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, BackendLoad> backends = new ConcurrentHashMap<>();
+
+    public LoadShedGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxConcurrent", "maxLatency");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> filter(exchange, chain, config);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route == null ? "" : route.getId();
+        BackendLoad backend = backends.computeIfAbsent(route == null ? "" : route.getUri().getHost(), this::register);
+
+        if (config.getMaxLatency() != null
+                && ThreadLocalRandom.current().nextDouble() < backend.latencyRejection(config.getMaxLatency(), System.nanoTime())) {
+            return reject(exchange, routeId, "latency");
+        }
+        int inFlight = backend.inFlight.incrementAndGet();
+        if (config.getMaxConcurrent() > 0 && inFlight > config.getMaxConcurrent()) {
+            backend.inFlight.decrementAndGet();
+            return reject(exchange, routeId, "concurrency");
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    backend.inFlight.decrementAndGet();
+                    long now = System.nanoTime();
+                    backend.record(now - start, now);
+                });
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String routeId, String reason) {
+        meterRegistry.counter("gateway.requests.rejected", "route", routeId, "reason", reason).increment();
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return exchange.getResponse().setComplete();
+    }
+
+    private BackendLoad register(String service) {
+        BackendLoad backend = new BackendLoad();
+        Gauge.builder("gateway.backend.inflight", backend, b -> b.inFlight.get())
+                .tag("service", service)
+                .register(meterRegistry);
+        Gauge.builder("gateway.backend.latency.ewma", backend, b -> b.latencyMillis(System.nanoTime()))
+                .tag("service", service)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return backend;
+    }
+
+    static final class BackendLoad {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        // 还没有完成的请求时为 0
+        private double ewmaNanos;
+        private long sampledAt;
+
+        // 旧值的权重随距上次样本的时间衰减：持续有流量时就是普通的 EWMA，空闲之后新样本几乎完全替换旧值
+        synchronized void record(long nanos, long now) {
+            double weight = ewmaNanos == 0 ? 0 : (1 - EWMA_ALPHA) * decay(now);
+            ewmaNanos = ewmaNanos * weight + nanos * (1 - weight);
+            sampledAt = now;
+        }
+
+        synchronized double latencyMillis(long now) {
+            return decayed(now) / 1_000_000;
+        }
+
+        // 平均延迟是上限的 1.5 倍时拒绝 50%，2 倍及以上拒绝 90%
+        synchronized double latencyRejection(Duration maxLatency, long now) {
+            double over = decayed(now) / maxLatency.toNanos() - 1;
+            return over <= 0 ? 0 : Math.min(over, MAX_LATENCY_REJECTION);
+        }
+
+        private double decayed(long now) {
+            return ewmaNanos * decay(now);
+        }
+
+        private double decay(long now) {
+            return Math.exp(-(double) Math.max(0, now - sampledAt) / DECAY_NANOS);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+
+        // 0 表示不限制并发
+        private int maxConcurrent;
+
+        // 未设置时不按延迟拒绝
+        private Duration maxLatency;
+    }
+}
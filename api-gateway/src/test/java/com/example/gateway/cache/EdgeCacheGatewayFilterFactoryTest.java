@@ -0,0 +1,142 @@
+package com.example.gateway.cache;
+
+import com.example.gateway.config.EdgeCacheConfig;
+import com.example.gateway.config.EdgeCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class EdgeCacheGatewayFilterFactoryTest {
+
+    private static final Route EMPLOYEES = route("employee-service", "lb://EMPLOYEE-SERVICE");
+    private static final Route DEPARTMENTS = route("department-service", "lb://DEPARTMENT-SERVICE");
+
+    private final EdgeCacheProperties properties = new EdgeCacheProperties();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void second_identical_get_is_served_from_the_cache() {
+        GatewayFilter filter = filter();
+
+        assertThat(body(get(filter, EMPLOYEES, "/api/v2/employees/1", upstream("one")))).isEqualTo("one");
+        assertThat(body(get(filter, EMPLOYEES, "/api/v2/employees/1", upstream("two")))).isEqualTo("one");
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void chunked_body_over_the_entry_limit_is_streamed_through_and_not_cached() {
+        properties.setMaximumEntrySize(DataSize.ofBytes(8));
+        GatewayFilter filter = filter();
+        Sinks.Many<String> chunks = Sinks.many().unicast().onBackpressureBuffer();
+        List<String> received = new CopyOnWriteArrayList<>();
+
+        MockServerWebExchange exchange = exchange(EMPLOYEES, HttpMethod.GET, "/api/v2/employees/export");
+        exchange.getResponse().setWriteHandler(body -> Flux.from(body)
+                .doOnNext(buffer -> received.add(buffer.toString(StandardCharsets.UTF_8)))
+                .then());
+        Mono<Void> done = filter.filter(exchange, streamingUpstream(chunks));
+        done.subscribe();
+
+        chunks.tryEmitNext("id,name\n");
+        chunks.tryEmitNext("1,Ada\n");
+        // 上游还没结束，已经写给客户端的分块说明没有先整体缓冲
+        assertThat(received).containsExactly("id,name\n", "1,Ada\n");
+        chunks.tryEmitComplete();
+
+        get(filter, EMPLOYEES, "/api/v2/employees/export", upstream("again"));
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void write_evicts_the_service_and_its_configured_dependents() {
+        properties.setEvictOnWrite(Map.of("employee-service", List.of("DEPARTMENT-SERVICE")));
+        GatewayFilter filter = filter();
+        get(filter, DEPARTMENTS, "/api/v2/departments/1/employees", upstream("before"));
+        get(filter, EMPLOYEES, "/api/v2/employees/1", upstream("before"));
+
+        MockServerWebExchange post = exchange(EMPLOYEES, HttpMethod.POST, "/api/v2/employees");
+        filter.filter(post, upstream("created")).block();
+
+        assertThat(body(get(filter, DEPARTMENTS, "/api/v2/departments/1/employees", upstream("after")))).isEqualTo("after");
+        assertThat(body(get(filter, EMPLOYEES, "/api/v2/employees/1", upstream("after")))).isEqualTo("after");
+    }
+
+    @Test
+    void writes_leave_unrelated_services_cached() {
+        GatewayFilter filter = filter();
+        get(filter, DEPARTMENTS, "/api/v2/departments/1", upstream("before"));
+
+        filter.filter(exchange(EMPLOYEES, HttpMethod.POST, "/api/v2/employees"), upstream("created")).block();
+
+        assertThat(body(get(filter, DEPARTMENTS, "/api/v2/departments/1", upstream("after")))).isEqualTo("before");
+    }
+
+    private GatewayFilter filter() {
+        EdgeCacheGatewayFilterFactory factory = new EdgeCacheGatewayFilterFactory(
+                new EdgeCacheConfig().edgeResponseCache(properties), properties, new SimpleMeterRegistry());
+        return factory.apply(new EdgeCacheGatewayFilterFactory.Config());
+    }
+
+    private static MockServerWebExchange get(GatewayFilter filter, Route route, String path, GatewayFilterChain upstream) {
+        MockServerWebExchange exchange = exchange(route, HttpMethod.GET, path);
+        filter.filter(exchange, upstream).block();
+        return exchange;
+    }
+
+    private static MockServerWebExchange exchange(Route route, HttpMethod method, String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.method(method, path).build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private GatewayFilterChain upstream(String body) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8));
+            return exchange.getResponse().writeWith(Mono.just(buffer));
+        };
+    }
+
+    // 没有 Content-Length 的分块响应
+    private GatewayFilterChain streamingUpstream(Sinks.Many<String> chunks) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return exchange.getResponse().writeWith(chunks.asFlux()
+                    .map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static String body(MockServerWebExchange exchange) {
+        return exchange.getResponse().getBodyAsString().block();
+    }
+
+    private static Route route(String id, String uri) {
+        return Route.async().id(id).uri(uri).predicate(exchange -> true).build();
+    }
+}
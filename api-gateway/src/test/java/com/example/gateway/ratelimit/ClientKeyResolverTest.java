@@ -0,0 +1,53 @@
+package com.example.gateway.ratelimit;
+
+import com.example.gateway.config.RateLimitProperties;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ClientKeyResolverTest {
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    @Test
+    void client_supplied_header_does_not_change_the_key_by_default() {
+        ClientKeyResolver resolver = new ClientKeyResolver(properties);
+
+        assertThat(resolve(resolver, request().header("X-Client-Id", "a"))).isEqualTo("ip:203.0.113.7");
+        assertThat(resolve(resolver, request().header("X-Client-Id", "b"))).isEqualTo("ip:203.0.113.7");
+    }
+
+    @Test
+    void configured_trusted_header_identifies_the_client() {
+        properties.setClientHeader("X-Authenticated-Client");
+        ClientKeyResolver resolver = new ClientKeyResolver(properties);
+
+        assertThat(resolve(resolver, request().header("X-Authenticated-Client", "partner-1"))).isEqualTo("client:partner-1");
+        assertThat(resolve(resolver, request())).isEqualTo("ip:203.0.113.7");
+    }
+
+    @Test
+    void forwarded_for_is_only_used_behind_trusted_proxies() {
+        MockServerHttpRequest.BaseBuilder<?> forwarded = request().header("X-Forwarded-For", "198.51.100.1, 192.0.2.10");
+
+        assertThat(resolve(new ClientKeyResolver(properties), forwarded)).isEqualTo("ip:203.0.113.7");
+
+        properties.setTrustedProxyHops(1);
+        assertThat(resolve(new ClientKeyResolver(properties), forwarded)).isEqualTo("ip:192.0.2.10");
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> request() {
+        return MockServerHttpRequest.get("/api/v2/products").remoteAddress(new InetSocketAddress("203.0.113.7", 52000));
+    }
+
+    private static String resolve(ClientKeyResolver resolver, MockServerHttpRequest.BaseBuilder<?> request) {
+        return resolver.resolve(MockServerWebExchange.from(request.build())).block();
+    }
+}
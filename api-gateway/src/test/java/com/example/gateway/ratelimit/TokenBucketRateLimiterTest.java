@@ -0,0 +1,78 @@
+package com.example.gateway.ratelimit;
+
+import com.example.gateway.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class TokenBucketRateLimiterTest {
+
+    private static final String ROUTE = "product-service";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new RateLimitProperties(), null, null, meterRegistry);
+
+    @Test
+    void client_over_its_limit_does_not_drain_the_route_bucket() {
+        configure(1, 2, 1, 5);
+
+        int noisyAllowed = 0;
+        for (int i = 0; i < 50; i++) {
+            if (allowed("ip:10.0.0.1")) {
+                noisyAllowed++;
+            }
+        }
+
+        assertThat(noisyAllowed).isEqualTo(2);
+        // 路由桶只被放行的 2 个请求扣过，其他客户端仍有余量
+        assertThat(allowed("ip:10.0.0.2")).isTrue();
+        assertThat(allowed("ip:10.0.0.3")).isTrue();
+        assertThat(rejected("client_rate_limit")).isEqualTo(48);
+        assertThat(meterRegistry.find("gateway.requests.rejected").tag("reason", "route_rate_limit").counter()).isNull();
+    }
+
+    @Test
+    void route_bucket_caps_all_clients_together() {
+        configure(10, 10, 1, 3);
+
+        int allowed = 0;
+        for (int client = 0; client < 10; client++) {
+            if (allowed("ip:10.0.1." + client)) {
+                allowed++;
+            }
+        }
+
+        assertThat(allowed).isEqualTo(3);
+        assertThat(rejected("route_rate_limit")).isEqualTo(7);
+    }
+
+    @Test
+    void routes_without_a_route_bucket_only_limit_per_client() {
+        configure(1, 1, 0, 0);
+
+        assertThat(allowed("ip:10.0.0.1")).isTrue();
+        assertThat(allowed("ip:10.0.0.1")).isFalse();
+        assertThat(allowed("ip:10.0.0.2")).isTrue();
+    }
+
+    private void configure(int replenishRate, int burstCapacity, int routeReplenishRate, int routeBurstCapacity) {
+        TokenBucketRateLimiter.Config config = new TokenBucketRateLimiter.Config();
+        config.setReplenishRate(replenishRate);
+        config.setBurstCapacity(burstCapacity);
+        config.setRouteReplenishRate(routeReplenishRate);
+        config.setRouteBurstCapacity(routeBurstCapacity);
+        limiter.getConfig().put(ROUTE, config);
+    }
+
+    private boolean allowed(String client) {
+        return limiter.isAllowed(ROUTE, client).block().isAllowed();
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("gateway.requests.rejected").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.gateway.shed;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class BackendLoadTest {
+
+    private static final Duration MAX_LATENCY = Duration.ofMillis(100);
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final LoadShedGatewayFilterFactory.BackendLoad backend = new LoadShedGatewayFilterFactory.BackendLoad();
+
+    @Test
+    void slow_backend_is_shed_in_proportion_to_the_overshoot() {
+        backend.record(Duration.ofMillis(150).toNanos(), SECOND);
+
+        assertThat(backend.latencyRejection(MAX_LATENCY, SECOND)).isCloseTo(0.5, within(1e-9));
+    }
+
+    @Test
+    void rejection_fades_when_no_request_completes() {
+        backend.record(Duration.ofMillis(500).toNanos(), SECOND);
+        assertThat(backend.latencyRejection(MAX_LATENCY, SECOND)).isEqualTo(0.9);
+
+        // 全部被拒绝时没有新样本，平均延迟仍按时间衰减，之后重新放行
+        assertThat(backend.latencyRejection(MAX_LATENCY, 15 * SECOND)).isLessThan(0.9).isPositive();
+        assertThat(backend.latencyRejection(MAX_LATENCY, 31 * SECOND)).isZero();
+    }
+
+    @Test
+    void a_fast_request_after_an_idle_period_is_not_averaged_with_stale_latency() {
+        backend.record(Duration.ofMillis(500).toNanos(), SECOND);
+
+        backend.record(Duration.ofMillis(20).toNanos(), 60 * SECOND);
+
+        assertThat(backend.latencyMillis(60 * SECOND)).isCloseTo(20.0, within(2.0));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.department.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.util.ClassUtil;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Redis 缓存值的序列化：json（可读，redis-cli 里能直接看）或 binary（Smile，二进制 JSON，更小、解析更快）
+ * 缓存的都是 DTO，不要求实现 Serializable；值里带类型信息（@class），同一个缓存可以混放单个对象和列表
+ * 类型信息只加在无法从声明类型推断的地方（根对象、非 final 的项目类型），null 字段不写出
+ * 只允许反序列化本项目和 JDK 的类型
+ */
+public final class CacheValueSerializer implements RedisSerializer<Object> {
+
+    public enum Format {
+        JSON, BINARY;
+
+        public static Format of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unknown cache serializer '" + value + "', expected json or binary");
+            }
+        }
+
+        // 写进 Redis key 前缀，切换格式后不会读到另一种格式写入的旧值
+        public String prefix() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final BasicPolymorphicTypeValidator ALLOWED_TYPES = BasicPolymorphicTypeValidator.builder()
+            .allowIfSubType("com.example.")
+            .allowIfSubType("java.util.")
+            .allowIfSubType("java.lang.")
+            .allowIfSubType("java.time.")
+            .allowIfSubType("java.math.")
+            .build();
+
+    private final Format format;
+    // 根对象按 Object 读写，保证根上总是带类型（包括 List 等 JDK 类型）
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+
+    private CacheValueSerializer(Format format, ObjectMapper mapper) {
+        this.format = format;
+        this.writer = mapper.writerFor(Object.class);
+        this.reader = mapper.readerFor(Object.class);
+    }
+
+    /**
+     * 基于应用的 ObjectMapper（保留已注册的模块和配置），复制一份再打开类型信息
+     */
+    public static CacheValueSerializer of(Format format, ObjectMapper objectMapper) {
+        ObjectMapper mapper = format == Format.BINARY ? objectMapper.copyWith(new SmileFactory()) : objectMapper.copy();
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper.setDefaultTyping(new CacheTyping()
+                .init(JsonTypeInfo.Id.CLASS, null)
+                .inclusion(JsonTypeInfo.As.PROPERTY));
+        return new CacheValueSerializer(format, mapper);
+    }
+
+    public Format format() {
+        return format;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value as " + format.prefix(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return reader.readValue(bytes);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read cache value as " + format.prefix(), e);
+        }
+    }
+
+    /**
+     * 与 DefaultTyping.EVERYTHING 相比，JDK 类型（Long、String、List 字段等）按声明类型读写，不再逐个包一层类型
+     */
+    private static final class CacheTyping extends ObjectMapper.DefaultTypeResolverBuilder {
+
+        CacheTyping() {
+            super(ObjectMapper.DefaultTyping.EVERYTHING, ALLOWED_TYPES);
+        }
+
+        @Override
+        public boolean useForType(JavaType t) {
+            if (t.isJavaLangObject()) {
+                return true;
+            }
+            while (t.isArrayType() || t.isReferenceType()) {
+                t = t.getContentType();
+            }
+            if (t.isPrimitive() || t.isEnumType() || ClassUtil.isJDKClass(t.getRawClass())) {
+                return false;
+            }
+            return !t.isFinal();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.department.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 在 Redis CacheManager 前面加一层进程内 L1（见 TwoLevelCache）
+ * 写/失效通过 Redis pub/sub 广播，其他实例收到后清掉自己的 L1；
+ * 消息丢失（订阅断线等）时，L1 的 TTL 是陈旧数据的上限
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private final CacheManager remote;
+    private final RedisSerializer<Object> values;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String channel;
+    private final long l1MaximumSize;
+    private final Duration l1Ttl;
+
+    // 用来忽略自己发出的失效消息
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * 失效消息；key 为 null 表示清空整个缓存
+     */
+    record CacheInvalidation(String origin, String cache, String key) {
+    }
+
+    /**
+     * @param values L1 里存放值用的序列化器，与 L2（Redis）的值序列化器相同
+     */
+    public TwoLevelCacheManager(CacheManager remote,
+                                RedisSerializer<Object> values,
+                                StringRedisTemplate redisTemplate,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                String channel,
+                                long l1MaximumSize,
+                                Duration l1Ttl) {
+        this.remote = remote;
+        this.values = values;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.channel = channel;
+        this.l1MaximumSize = l1MaximumSize;
+        this.l1Ttl = l1Ttl;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache l2 = remote.getCache(name);
+        if (l2 == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new TwoLevelCache(n,
+                Caffeine.newBuilder()
+                        .maximumSize(l1MaximumSize)
+                        .expireAfterWrite(l1Ttl)
+                        .recordStats()
+                        .build(),
+                values,
+                l2,
+                key -> publish(n, key),
+                meterRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidation invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), CacheInvalidation.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed cache invalidation: {}", new String(message.getBody(), StandardCharsets.UTF_8));
+            return;
+        }
+        if (instanceId.equals(invalidation.origin())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(invalidation.cache());
+        if (cache == null) {
+            return; // 本实例还没用过这个缓存，L1 里不会有数据
+        }
+        if (invalidation.key() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+
+    private void publish(String cache, String key) {
+        try {
+            String payload = objectMapper.writeValueAsString(new CacheInvalidation(instanceId, cache, key));
+            redisTemplate.convertAndSend(channel, payload);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // 本地和 L2 已经更新，其他实例的 L1 最多在 TTL 后过期
+            log.warn("Failed to publish cache invalidation for {}::{}: {}", cache, key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.department.client;
+
+import com.example.department.dto.EmployeeDTO;
+import com.example.department.pagination.CursorPage;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+// 部门服务 -> 员工服务：组装 GET /api/v2/departments/{id}/employees，调用方不用再自己请求一次员工服务
+// 不配 fallback：失败/超时由 DepartmentEmployeesService 按部门标记状态（部分结果），不伪造员工数据
+@FeignClient(name = "EMPLOYEE-SERVICE", path = "/api/v2/employees")
+public interface EmployeeClient {
+
+    // 游标分页（不执行 COUNT）：GET /api/v2/employees?departmentId=1&after=&size=20
+    @GetMapping
+    CursorPage<EmployeeDTO> getEmployeesByDepartment(@RequestParam("departmentId") Long departmentId,
+                                                     @RequestParam("after") String after,
+                                                     @RequestParam("size") int size);
+
+    // 全量游标分页（EmployeeCountProjection.rebuild 用）：GET /api/v2/employees?after=&size=500
+    @GetMapping
+    CursorPage<EmployeeDTO> getEmployees(@RequestParam("after") String after,
+                                         @RequestParam("size") int size);
+}
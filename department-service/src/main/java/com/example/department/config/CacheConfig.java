@@ -1,11 +1,69 @@
 package com.example.department.config;
 
+import com.example.department.cache.CacheValueSerializer;
+import com.example.department.cache.TwoLevelCacheManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig {
-    // Redis缓存配置已通过application.yml完成
-    // 这里只需要启用缓存注解支持
+    // L2 仍按 application.yml 的 spring.cache.redis.* 配置；自定义 CacheManager 后 Boot 不再自动创建，这里手动构建
+    // L1 为进程内 Caffeine，跨实例失效走 Redis pub/sub
+    // 缓存值用 cache.serializer（json / binary）序列化，key 前缀带上格式：<cache>::<format>::<key>
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             CacheProperties cacheProperties,
+                                             StringRedisTemplate redisTemplate,
+                                             ObjectMapper objectMapper,
+                                             MeterRegistry meterRegistry,
+                                             @Value("${cache.invalidation.channel:cache-invalidation:${spring.application.name}}") String channel,
+                                             @Value("${cache.l1.maximum-size:10000}") long l1MaximumSize,
+                                             @Value("${cache.l1.ttl:30s}") Duration l1Ttl,
+                                             @Value("${cache.serializer:json}") String serializer) {
+        CacheValueSerializer values = CacheValueSerializer.of(CacheValueSerializer.Format.of(serializer), objectMapper);
+        CacheProperties.Redis redis = cacheProperties.getRedis();
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(values))
+                .computePrefixWith(name -> name + "::" + values.format().prefix() + "::");
+        if (redis.getTimeToLive() != null) {
+            config = config.entryTtl(redis.getTimeToLive());
+        }
+        if (!redis.isCacheNullValues()) {
+            config = config.disableCachingNullValues();
+        }
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(config)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+        return new TwoLevelCacheManager(redisCacheManager, values, redisTemplate, objectMapper, meterRegistry,
+                channel, l1MaximumSize, l1Ttl);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                   TwoLevelCacheManager cacheManager,
+                                                                   @Value("${cache.invalidation.channel:cache-invalidation:${spring.application.name}}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(channel));
+        return container;
+    }
 }
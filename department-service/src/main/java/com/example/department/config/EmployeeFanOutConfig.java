@@ -0,0 +1,38 @@
+package com.example.department.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class EmployeeFanOutConfig {
+
+    // 并行调用员工服务的线程池（DepartmentEmployeesService）；队列满时直接拒绝，对应的部门标记为 UNAVAILABLE，不阻塞请求线程
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor employeeFanOutExecutor(@Value("${department.employees.fan-out.threads:16}") int threads,
+                                                         @Value("${department.employees.fan-out.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("employee-fan-out-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // 部门员工数投影的重建（EmployeeCountProjection.startRebuild）：单线程，同一时间只跑一次，不占请求线程
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor employeeCountRebuildExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("employee-count-rebuild-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,9 +1,35 @@
 package com.example.department.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import java.time.Duration;
 
 @Configuration
 @EnableKafka
+@EnableConfigurationProperties(EventCodecProperties.class)
 public class KafkaConfig {
+
+    /**
+     * 监听器处理失败（抛出 BatchListenerFailedException）时：失败记录之前的记录视为已处理，
+     * 从失败记录开始重新投递并按指数退避重试；重试用完后发到 <topic>.DLT，再继续消费后面的记录
+     * Spring Boot 会把这个 bean 设置到默认的 listener container factory 上
+     */
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                                 @Value("${kafka.consumer.retry.max-retries:5}") int maxRetries,
+                                                 @Value("${kafka.consumer.retry.initial-interval:1s}") Duration initialInterval,
+                                                 @Value("${kafka.consumer.retry.max-interval:30s}") Duration maxInterval) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(maxRetries);
+        backOff.setInitialInterval(initialInterval.toMillis());
+        backOff.setMaxInterval(maxInterval.toMillis());
+        return new DefaultErrorHandler(new DeadLetterPublishingRecoverer(kafkaTemplate), backOff);
+    }
 }
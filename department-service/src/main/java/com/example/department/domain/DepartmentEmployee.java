@@ -0,0 +1,19 @@
+package com.example.department.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// employee-events 投影的一行：员工当前所属部门（见 EmployeeCountProjection）
+@Entity
+@Table(name = "department_employees")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class DepartmentEmployee {
+    @Id
+    @Column(name = "employee_id")
+    private Long employeeId;
+    // NULL: 员工已删除或不属于任何部门
+    @Column(name = "department_id")
+    private Long departmentId;
+    @Column(name = "event_time", nullable = false)
+    private long eventTime;
+}
@@ -0,0 +1,26 @@
+package com.example.department.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "outbox_events")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false, length = 120)
+    private String topic;
+    @Column(name = "event_key", length = 120)
+    private String eventKey;
+    @Column(name = "content_type", nullable = false, length = 60)
+    private String contentType;
+    @Lob
+    @Column(nullable = false, columnDefinition = "longblob")
+    private byte[] payload;
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,9 @@
+package com.example.department.dto;
+
+import java.util.List;
+
+/**
+ * 批量组装结果，results 顺序与请求的 ids 相同；partial 为 true 表示至少一个部门没有拿到员工列表
+ */
+public record BulkDepartmentEmployeesDTO(List<DepartmentEmployeesDTO> results, boolean partial) {
+}
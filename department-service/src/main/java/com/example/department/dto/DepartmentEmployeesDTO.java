@@ -0,0 +1,31 @@
+package com.example.department.dto;
+
+import com.example.department.domain.Department;
+
+import java.util.List;
+
+/**
+ * 部门 + 该部门的一页员工（游标分页，nextCursor 传回 after= 取下一页）
+ * status 不是 OK 时 employees 为空：部门存在但员工服务超时/不可用，或部门不存在（批量接口）
+ */
+public record DepartmentEmployeesDTO(Long departmentId,
+                                     Department department,
+                                     List<EmployeeDTO> employees,
+                                     boolean hasNext,
+                                     String nextCursor,
+                                     Status status) {
+
+    public enum Status {
+        OK,
+        // 部门不存在
+        NOT_FOUND,
+        // 超过组装的时间预算
+        TIMEOUT,
+        // 员工服务返回错误或无法连接
+        UNAVAILABLE
+    }
+
+    public static DepartmentEmployeesDTO missing(Long departmentId, Department department, Status status) {
+        return new DepartmentEmployeesDTO(departmentId, department, List.of(), false, null, status);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.department.dto;
+
+import lombok.*;
+
+// employee-service 返回的员工信息（GET /api/v2/employees），这里只取组装部门员工列表需要的字段
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeDTO {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private Long departmentId;
+}
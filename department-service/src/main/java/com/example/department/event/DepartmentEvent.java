@@ -0,0 +1,31 @@
+package com.example.department.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * department-events 主题上的事件
+ * JSON 中 eventType 字段即类型名，与原来 Map 格式的消息保持兼容
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "eventType")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = DepartmentCreatedEvent.class, name = DepartmentCreatedEvent.TYPE),
+        @JsonSubTypes.Type(value = DepartmentUpdatedEvent.class, name = DepartmentUpdatedEvent.TYPE),
+        @JsonSubTypes.Type(value = DepartmentDeletedEvent.class, name = DepartmentDeletedEvent.TYPE)
+})
+public sealed interface DepartmentEvent permits DepartmentCreatedEvent, DepartmentUpdatedEvent, DepartmentDeletedEvent {
+
+    Long departmentId();
+
+    String name();
+
+    String code();
+
+    String description();
+
+    long timestamp();
+
+    @JsonIgnore
+    String eventType();
+}
@@ -11,30 +11,30 @@ public class DepartmentEventListener {
     @EventListener
     public void handleDepartmentCreated(DepartmentCreatedEvent event) {
         log.info("Department created: ID={}, Name={}, Code={}",
-                event.getDepartmentId(), event.getName(), event.getCode());
+                event.departmentId(), event.name(), event.code());
 
         // 部门创建后的处理逻辑
         // 例如：初始化部门统计信息、发送通知等
-        log.info("Initializing department statistics for: {}", event.getName());
+        log.info("Initializing department statistics for: {}", event.name());
     }
 
     @EventListener
     public void handleDepartmentUpdated(DepartmentUpdatedEvent event) {
         log.info("Department updated: ID={}, Name={}, Code={}",
-                event.getDepartmentId(), event.getName(), event.getCode());
+                event.departmentId(), event.name(), event.code());
 
         // 部门更新后的处理逻辑
         // 例如：更新缓存、发送通知等
-        log.info("Updating department cache for: {}", event.getName());
+        log.info("Updating department cache for: {}", event.name());
     }
 
     @EventListener
     public void handleDepartmentDeleted(DepartmentDeletedEvent event) {
         log.info("Department deleted: ID={}, Name={}, Code={}",
-                event.getDepartmentId(), event.getName(), event.getCode());
+                event.departmentId(), event.name(), event.code());
 
         // 部门删除后的处理逻辑
         // 例如：清理相关数据、发送通知等
-        log.info("Cleaning up data for deleted department: {}", event.getName());
+        log.info("Cleaning up data for deleted department: {}", event.name());
     }
 }
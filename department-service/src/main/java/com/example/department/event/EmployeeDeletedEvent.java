@@ -0,0 +1,16 @@
+package com.example.department.event;
+
+public record EmployeeDeletedEvent(Long employeeId,
+                                   String email,
+                                   Long departmentId,
+                                   String firstName,
+                                   String lastName,
+                                   long timestamp) implements EmployeeEvent {
+
+    public static final String TYPE = "EMPLOYEE_DELETED";
+
+    @Override
+    public String eventType() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.department.event;
+
+public record EmployeeUpdatedEvent(Long employeeId,
+                                   String email,
+                                   Long oldDepartmentId,
+                                   Long newDepartmentId,
+                                   String firstName,
+                                   String lastName,
+                                   long timestamp) implements EmployeeEvent {
+
+    public static final String TYPE = "EMPLOYEE_UPDATED";
+
+    @Override
+    public String eventType() {
+        return TYPE;
+    }
+}
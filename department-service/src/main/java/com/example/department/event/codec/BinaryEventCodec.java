@@ -0,0 +1,240 @@
+package com.example.department.event.codec;
+
+import com.example.department.event.DepartmentCreatedEvent;
+import com.example.department.event.DepartmentDeletedEvent;
+import com.example.department.event.DepartmentUpdatedEvent;
+import com.example.department.event.EmployeeCreatedEvent;
+import com.example.department.event.EmployeeDeletedEvent;
+import com.example.department.event.EmployeeUpdatedEvent;
+import com.example.department.event.NotificationEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 紧凑二进制格式：版本号 + 类型标签 + 按声明顺序排列的字段，没有字段名
+ * 整数使用 varint（ZigZag），字符串为 varint 长度 + UTF-8，长度 0 表示 null
+ * 字段顺序即协议：新增字段只能追加在末尾，并同步两个服务中的副本
+ */
+public class BinaryEventCodec implements EventCodec {
+
+    public static final String CONTENT_TYPE = "application/x-event-binary";
+
+    static final byte VERSION = 1;
+
+    private static final byte EMPLOYEE_CREATED = 1;
+    private static final byte EMPLOYEE_UPDATED = 2;
+    private static final byte EMPLOYEE_DELETED = 3;
+    private static final byte DEPARTMENT_CREATED = 11;
+    private static final byte DEPARTMENT_UPDATED = 12;
+    private static final byte DEPARTMENT_DELETED = 13;
+    private static final byte NOTIFICATION = 21;
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(Object event) {
+        Writer out = new Writer();
+        out.writeByte(VERSION);
+        if (event instanceof EmployeeCreatedEvent e) {
+            out.writeByte(EMPLOYEE_CREATED);
+            out.writeNullableLong(e.employeeId());
+            out.writeString(e.email());
+            out.writeNullableLong(e.departmentId());
+            out.writeString(e.firstName());
+            out.writeString(e.lastName());
+            out.writeLong(e.timestamp());
+        } else if (event instanceof EmployeeUpdatedEvent e) {
+            out.writeByte(EMPLOYEE_UPDATED);
+            out.writeNullableLong(e.employeeId());
+            out.writeString(e.email());
+            out.writeNullableLong(e.oldDepartmentId());
+            out.writeNullableLong(e.newDepartmentId());
+            out.writeString(e.firstName());
+            out.writeString(e.lastName());
+            out.writeLong(e.timestamp());
+        } else if (event instanceof EmployeeDeletedEvent e) {
+            out.writeByte(EMPLOYEE_DELETED);
+            out.writeNullableLong(e.employeeId());
+            out.writeString(e.email());
+            out.writeNullableLong(e.departmentId());
+            out.writeString(e.firstName());
+            out.writeString(e.lastName());
+            out.writeLong(e.timestamp());
+        } else if (event instanceof DepartmentCreatedEvent e) {
+            writeDepartment(out, DEPARTMENT_CREATED, e.departmentId(), e.name(), e.code(), e.description(), e.timestamp());
+        } else if (event instanceof DepartmentUpdatedEvent e) {
+            writeDepartment(out, DEPARTMENT_UPDATED, e.departmentId(), e.name(), e.code(), e.description(), e.timestamp());
+        } else if (event instanceof DepartmentDeletedEvent e) {
+            writeDepartment(out, DEPARTMENT_DELETED, e.departmentId(), e.name(), e.code(), e.description(), e.timestamp());
+        } else if (event instanceof NotificationEvent e) {
+            out.writeByte(NOTIFICATION);
+            out.writeString(e.eventType());
+            out.writeString(e.recipient());
+            out.writeString(e.message());
+            out.writeLong(e.timestamp());
+        } else {
+            throw new IllegalArgumentException("Unsupported event type: " + event.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, Class<T> type) {
+        Reader in = new Reader(payload);
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary event version: " + version);
+        }
+        byte tag = in.readByte();
+        Object event = switch (tag) {
+            case EMPLOYEE_CREATED -> new EmployeeCreatedEvent(
+                    in.readNullableLong(), in.readString(), in.readNullableLong(), in.readString(), in.readString(), in.readLong());
+            case EMPLOYEE_UPDATED -> new EmployeeUpdatedEvent(
+                    in.readNullableLong(), in.readString(), in.readNullableLong(), in.readNullableLong(), in.readString(), in.readString(), in.readLong());
+            case EMPLOYEE_DELETED -> new EmployeeDeletedEvent(
+                    in.readNullableLong(), in.readString(), in.readNullableLong(), in.readString(), in.readString(), in.readLong());
+            case DEPARTMENT_CREATED -> new DepartmentCreatedEvent(
+                    in.readNullableLong(), in.readString(), in.readString(), in.readString(), in.readLong());
+            case DEPARTMENT_UPDATED -> new DepartmentUpdatedEvent(
+                    in.readNullableLong(), in.readString(), in.readString(), in.readString(), in.readLong());
+            case DEPARTMENT_DELETED -> new DepartmentDeletedEvent(
+                    in.readNullableLong(), in.readString(), in.readString(), in.readString(), in.readLong());
+            case NOTIFICATION -> new NotificationEvent(
+                    in.readString(), in.readString(), in.readString(), in.readLong());
+            default -> throw new IllegalArgumentException("Unknown binary event tag: " + tag);
+        };
+        if (!type.isInstance(event)) {
+            throw new IllegalArgumentException(event.getClass().getSimpleName() + " is not a " + type.getSimpleName());
+        }
+        return type.cast(event);
+    }
+
+    private static void writeDepartment(Writer out, byte tag, Long departmentId, String name, String code,
+                                        String description, long timestamp) {
+        out.writeByte(tag);
+        out.writeNullableLong(departmentId);
+        out.writeString(name);
+        out.writeString(code);
+        out.writeString(description);
+        out.writeLong(timestamp);
+    }
+
+    private static final class Writer {
+        private byte[] buf = new byte[64];
+        private int pos;
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        // 可空 Long：0 表示 null，其余为 ZigZag(value) + 1
+        void writeNullableLong(Long value) {
+            if (value == null) {
+                writeVarint(0);
+            } else {
+                writeVarint(zigZag(value) + 1);
+            }
+        }
+
+        void writeLong(long value) {
+            writeVarint(zigZag(value));
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1L);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        private void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private static long zigZag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        byte readByte() {
+            checkAvailable(1);
+            return buf[pos++];
+        }
+
+        Long readNullableLong() {
+            long raw = readVarint();
+            return raw == 0 ? null : unZigZag(raw - 1);
+        }
+
+        long readLong() {
+            return unZigZag(readVarint());
+        }
+
+        String readString() {
+            long raw = readVarint();
+            if (raw == 0) {
+                return null;
+            }
+            int length = Math.toIntExact(raw - 1);
+            checkAvailable(length);
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        private long readVarint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in binary event");
+        }
+
+        private void checkAvailable(int length) {
+            if (length < 0 || pos + length > buf.length) {
+                throw new IllegalArgumentException("Truncated binary event");
+            }
+        }
+
+        private static long unZigZag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
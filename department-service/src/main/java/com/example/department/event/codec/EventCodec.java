@@ -0,0 +1,16 @@
+package com.example.department.event.codec;
+
+/**
+ * Kafka 消息体的编解码
+ * 编码结果写入 outbox，contentType 随消息作为 header 发出，消费端据此选择解码器
+ */
+public interface EventCodec {
+
+    String CONTENT_TYPE_HEADER = "contentType";
+
+    String contentType();
+
+    byte[] encode(Object event);
+
+    <T> T decode(byte[] payload, Class<T> type);
+}
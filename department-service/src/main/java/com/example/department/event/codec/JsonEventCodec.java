@@ -0,0 +1,42 @@
+package com.example.department.event.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * JSON 格式，和原来 JsonSerializer 发出的 Map 消息字段一致，便于排查和跨语言消费
+ */
+public class JsonEventCodec implements EventCodec {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private final ObjectMapper objectMapper;
+
+    public JsonEventCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(Object event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not encode " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, Class<T> type) {
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not decode " + type.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.department.exception;
+
+/**
+ * 部门仍有员工异常
+ * 删除仍被员工引用的部门时抛出
+ */
+public class DepartmentHasEmployeesException extends RuntimeException {
+
+    private final long employeeCount;
+
+    public DepartmentHasEmployeesException(String message, long employeeCount) {
+        super(message);
+        this.employeeCount = employeeCount;
+    }
+
+    public long getEmployeeCount() {
+        return employeeCount;
+    }
+}
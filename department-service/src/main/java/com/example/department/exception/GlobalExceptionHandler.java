@@ -126,6 +126,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(problemDetail);
     }
 
+    @ExceptionHandler(InvalidRequestParameterException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidParameter(InvalidRequestParameterException ex, WebRequest request) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        problemDetail.setTitle("Invalid Parameter");
+        problemDetail.setProperty("instance", request.getDescription(false).replace("uri=", ""));
+        problemDetail.setProperty("timestamp", Instant.now().toString());
+        problemDetail.setProperty("traceId", MDC.get("traceId"));
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(problemDetail);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ProblemDetail> handleBusinessRuleViolation(IllegalArgumentException ex, WebRequest request) {
         ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
@@ -148,6 +159,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(problemDetail);
     }
 
+    @ExceptionHandler(DepartmentHasEmployeesException.class)
+    public ResponseEntity<ProblemDetail> handleDepartmentHasEmployees(DepartmentHasEmployeesException ex, WebRequest request) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+        problemDetail.setTitle("Department Has Employees");
+        problemDetail.setProperty("instance", request.getDescription(false).replace("uri=", ""));
+        problemDetail.setProperty("timestamp", Instant.now().toString());
+        problemDetail.setProperty("traceId", MDC.get("traceId"));
+        problemDetail.setProperty("employeeCount", ex.getEmployeeCount());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(problemDetail);
+    }
+
     @ExceptionHandler(DepartmentNotFoundException.class)
     public ResponseEntity<ProblemDetail> handleDepartmentNotFound(DepartmentNotFoundException ex, WebRequest request) {
         ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
@@ -0,0 +1,7 @@
+package com.example.department.exception;
+
+public class InvalidRequestParameterException extends RuntimeException {
+    public InvalidRequestParameterException(String message) {
+        super(message);
+    }
+}
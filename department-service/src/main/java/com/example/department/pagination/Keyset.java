@@ -0,0 +1,37 @@
+package com.example.department.pagination;
+
+import com.example.department.exception.InvalidRequestParameterException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * 游标内容：排序字段、方向，以及上一页最后一行的排序值和ID
+ * 对客户端是不透明的 Base64URL 字符串，下一页的排序方式由游标决定
+ */
+public record Keyset(String property, Sort.Direction direction, String value, long id) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    public static Keyset decode(String cursor) {
+        try {
+            Keyset keyset = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), Keyset.class);
+            if (keyset.property() == null || keyset.direction() == null) {
+                throw new IllegalArgumentException("incomplete cursor");
+            }
+            return keyset;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidRequestParameterException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.department.pagination;
+
+import com.example.department.exception.InvalidRequestParameterException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 一次游标分页请求（seek method）
+ * 按 (排序字段, id) 定位：WHERE col > :value OR (col = :value AND id > :id) ORDER BY col, id LIMIT size + 1
+ * 与 OFFSET 不同，扫描的行数与页码无关；多取一行用于判断是否还有下一页，不需要 COUNT
+ */
+public record KeysetRequest(String property, Sort.Direction direction, Keyset after, int size) {
+
+    public static final int MAX_SIZE = 1000;
+
+    private static final String ID = "id";
+
+    /**
+     * @param cursor   上一页返回的 nextCursor；为空表示第一页
+     * @param sort     第一页的排序（只取第一个排序字段，id 作为并列时的次序），有游标时忽略
+     * @param sortable 允许作为游标排序的字段，必须是非空列
+     */
+    public static KeysetRequest of(String cursor, Sort sort, int size, Set<String> sortable) {
+        int limit = Math.max(1, Math.min(size, MAX_SIZE));
+        if (cursor != null && !cursor.isBlank()) {
+            Keyset after = Keyset.decode(cursor);
+            if (!ID.equals(after.property()) && !sortable.contains(after.property())) {
+                throw new InvalidRequestParameterException("Invalid cursor");
+            }
+            return new KeysetRequest(after.property(), after.direction(), after, limit);
+        }
+
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc(ID));
+        if (!ID.equals(order.getProperty()) && !sortable.contains(order.getProperty())) {
+            throw new InvalidRequestParameterException("Cursor pagination cannot sort by '" + order.getProperty()
+                    + "', supported: " + sortable);
+        }
+        return new KeysetRequest(order.getProperty(), order.getDirection(), null, limit);
+    }
+
+    public Sort sort() {
+        Sort byId = Sort.by(direction, ID);
+        return ID.equals(property) ? byId : Sort.by(direction, property).and(byId);
+    }
+
+    // 第一页返回 null，可直接与其他 Specification 组合（Specification.where 会忽略 null）
+    public <T> Specification<T> afterSpecification() {
+        return after == null ? null : KeysetSpecifications.after(after);
+    }
+
+    public <T, R> CursorPage<R> toPage(Slice<T> slice, Function<T, R> mapper) {
+        List<T> rows = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !rows.isEmpty()) {
+            BeanWrapperImpl last = new BeanWrapperImpl(rows.get(rows.size() - 1));
+            Object value = ID.equals(property) ? null : last.getPropertyValue(property);
+            long id = ((Number) last.getPropertyValue(ID)).longValue();
+            nextCursor = new Keyset(property, direction, value == null ? null : value.toString(), id).encode();
+        }
+        return new CursorPage<>(rows.stream().map(mapper).toList(), size, slice.hasNext(), nextCursor);
+    }
+}
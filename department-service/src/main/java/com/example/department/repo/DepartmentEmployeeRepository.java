@@ -0,0 +1,47 @@
+package com.example.department.repo;
+
+import com.example.department.domain.DepartmentEmployee;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface DepartmentEmployeeRepository extends JpaRepository<DepartmentEmployee, Long>, DepartmentEmployeeRepositoryCustom {
+
+    // 只在事件不比已记录的旧时改部门（重复投递、乱序到达都不会让计数漂移）；
+    // MySQL 按顺序求值赋值，department_id 要在 event_time 之前比较
+    String UPSERT_IF_NEWER_SQL = """
+            INSERT INTO department_employees (employee_id, department_id, event_time)
+            VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                department_id = IF(VALUES(event_time) >= event_time, VALUES(department_id), department_id),
+                event_time = GREATEST(event_time, VALUES(event_time))
+            """;
+
+    boolean existsByDepartmentId(Long departmentId);
+
+    long countByDepartmentId(Long departmentId);
+
+    // 单条事件的写入，语句同 UPSERT_IF_NEWER_SQL
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO department_employees (employee_id, department_id, event_time)
+            VALUES (:employeeId, :departmentId, :eventTime)
+            ON DUPLICATE KEY UPDATE
+                department_id = IF(VALUES(event_time) >= event_time, VALUES(department_id), department_id),
+                event_time = GREATEST(event_time, VALUES(event_time))
+            """, nativeQuery = true)
+    int upsertIfNewer(@Param("employeeId") Long employeeId,
+                      @Param("departmentId") Long departmentId,
+                      @Param("eventTime") long eventTime);
+
+    // rebuild 收尾：快照里没有、之后也没有新事件的行改成墓碑（不删除），时间记为快照开始时间，
+    // 之后迟到的、比快照旧的 Created/Updated 事件不会把已删除的员工重新算进部门
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE department_employees SET department_id = NULL, event_time = :before WHERE event_time < :before",
+            nativeQuery = true)
+    int tombstoneOlderThan(@Param("before") long before);
+}
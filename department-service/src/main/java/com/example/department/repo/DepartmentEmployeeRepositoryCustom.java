@@ -0,0 +1,11 @@
+package com.example.department.repo;
+
+import com.example.department.domain.DepartmentEmployee;
+
+import java.util.List;
+
+// 自定义片段：rebuild 时整页写入投影（一次 JDBC batch，而不是每个员工一个事务）
+public interface DepartmentEmployeeRepositoryCustom {
+
+    void upsertAllIfNewer(List<DepartmentEmployee> rows);
+}
@@ -0,0 +1,35 @@
+package com.example.department.repo;
+
+import com.example.department.domain.DepartmentEmployee;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.List;
+
+public class DepartmentEmployeeRepositoryImpl implements DepartmentEmployeeRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DepartmentEmployeeRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 与 DepartmentEmployeeRepository.upsertIfNewer 相同的语句；rewriteBatchedStatements=true 时驱动合并为一条多行 INSERT
+    @Override
+    @Transactional
+    public void upsertAllIfNewer(List<DepartmentEmployee> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DepartmentEmployeeRepository.UPSERT_IF_NEWER_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getEmployeeId());
+            if (row.getDepartmentId() == null) {
+                ps.setNull(2, Types.BIGINT);
+            } else {
+                ps.setLong(2, row.getDepartmentId());
+            }
+            ps.setLong(3, row.getEventTime());
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.department.repo;
+
+import com.example.department.domain.Department;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+// 自定义查询片段：游标分页只取 limit + 1 行，不执行 COUNT
+public interface DepartmentRepositoryCustom {
+
+    Slice<Department> findSlice(Specification<Department> spec, Sort sort, int limit);
+}
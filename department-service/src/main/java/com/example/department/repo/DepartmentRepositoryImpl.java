@@ -0,0 +1,20 @@
+package com.example.department.repo;
+
+import com.example.department.domain.Department;
+import com.example.department.pagination.KeysetSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public class DepartmentRepositoryImpl implements DepartmentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Department> findSlice(Specification<Department> spec, Sort sort, int limit) {
+        return KeysetSpecifications.findSlice(entityManager, Department.class, spec, sort, limit);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.department.repo;
+
+import com.example.department.domain.Department;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * 部门列表的过滤条件，参数为 null 时返回 null（Specification.where/and 会忽略）
+ */
+public final class DepartmentSpecifications {
+
+    private DepartmentSpecifications() {
+    }
+
+    public static Specification<Department> filter(String name, String code) {
+        return Specification.where(containsIgnoreCase("name", name))
+                .and(containsIgnoreCase("code", code));
+    }
+
+    private static Specification<Department> containsIgnoreCase(String property, String value) {
+        return value == null ? null
+                : (root, query, cb) -> cb.like(cb.lower(root.get(property)), "%" + value.toLowerCase() + "%");
+    }
+}
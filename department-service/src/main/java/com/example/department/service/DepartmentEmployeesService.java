@@ -0,0 +1,137 @@
+package com.example.department.service;
+
+import com.example.department.client.EmployeeClient;
+import com.example.department.domain.Department;
+import com.example.department.dto.BulkDepartmentEmployeesDTO;
+import com.example.department.dto.DepartmentEmployeesDTO;
+import com.example.department.dto.DepartmentEmployeesDTO.Status;
+import com.example.department.dto.EmployeeDTO;
+import com.example.department.exception.DepartmentNotFoundException;
+import com.example.department.exception.InvalidRequestParameterException;
+import com.example.department.pagination.CursorPage;
+import com.example.department.repo.DepartmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 部门 -> 员工列表的组装（原来调用方要先查部门、再自己去员工服务查一次）
+ * - 每个部门调用一次员工服务的游标分页接口，多个部门在 employeeFanOutExecutor 上并行
+ * - 整个请求共用一个时间预算（department.employees.timeout）：到期还没返回的部门标记 TIMEOUT，
+ *   员工服务报错的标记 UNAVAILABLE，其余部门照常返回（部分结果），不会因为一个慢调用拖住整个请求
+ */
+@Slf4j
+@Service
+public class DepartmentEmployeesService {
+
+    private final DepartmentRepository repository;
+    private final EmployeeClient employeeClient;
+    private final Executor executor;
+    private final Duration timeout;
+    private final int maxDepartments;
+    private final int maxPageSize;
+
+    public DepartmentEmployeesService(DepartmentRepository repository,
+                                      EmployeeClient employeeClient,
+                                      @Qualifier("employeeFanOutExecutor") Executor employeeFanOutExecutor,
+                                      @Value("${department.employees.timeout:2s}") Duration timeout,
+                                      @Value("${department.employees.max-departments:50}") int maxDepartments,
+                                      @Value("${department.employees.max-page-size:100}") int maxPageSize) {
+        this.repository = repository;
+        this.employeeClient = employeeClient;
+        this.executor = employeeFanOutExecutor;
+        this.timeout = timeout;
+        this.maxDepartments = maxDepartments;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * 一个部门的一页员工；部门不存在时 404，员工服务超时/不可用时返回部门信息和空列表（status 标明原因）
+     */
+    public DepartmentEmployeesDTO getEmployees(Long departmentId, String after, int size) {
+        validateSize(size);
+        Department department = repository.findById(departmentId)
+                .orElseThrow(() -> new DepartmentNotFoundException("Department with id " + departmentId + " not found"));
+        long deadline = System.nanoTime() + timeout.toNanos();
+        return await(department, fetch(departmentId, after == null ? "" : after, size), deadline);
+    }
+
+    /**
+     * 多个部门各自的第一页员工，并行获取；结果顺序与 ids 相同（重复的 id 只返回一次）
+     */
+    public BulkDepartmentEmployeesDTO getEmployees(List<Long> departmentIds, int size) {
+        validateSize(size);
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(departmentIds);
+        if (ids.isEmpty() || ids.size() > maxDepartments) {
+            throw new InvalidRequestParameterException("ids must contain between 1 and " + maxDepartments + " department ids");
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Map<Long, Department> departments = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Department::getId, Function.identity()));
+
+        // 先全部发出去，再按剩余预算逐个等待
+        Map<Long, CompletableFuture<CursorPage<EmployeeDTO>>> pages = new LinkedHashMap<>();
+        for (Long id : ids) {
+            if (departments.containsKey(id)) {
+                pages.put(id, fetch(id, "", size));
+            }
+        }
+        List<DepartmentEmployeesDTO> results = ids.stream()
+                .map(id -> departments.containsKey(id)
+                        ? await(departments.get(id), pages.get(id), deadline)
+                        : DepartmentEmployeesDTO.missing(id, null, Status.NOT_FOUND))
+                .toList();
+        boolean partial = results.stream().anyMatch(result -> result.status() != Status.OK);
+        return new BulkDepartmentEmployeesDTO(results, partial);
+    }
+
+    private CompletableFuture<CursorPage<EmployeeDTO>> fetch(Long departmentId, String after, int size) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> employeeClient.getEmployeesByDepartment(departmentId, after, size), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private DepartmentEmployeesDTO await(Department department,
+                                         CompletableFuture<CursorPage<EmployeeDTO>> page,
+                                         long deadline) {
+        try {
+            CursorPage<EmployeeDTO> employees = page.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return new DepartmentEmployeesDTO(department.getId(), department, employees.content(),
+                    employees.hasNext(), employees.nextCursor(), Status.OK);
+        } catch (TimeoutException e) {
+            page.cancel(false);
+            log.warn("Employees of department {} not fetched within {}", department.getId(), timeout);
+            return DepartmentEmployeesDTO.missing(department.getId(), department, Status.TIMEOUT);
+        } catch (ExecutionException e) {
+            log.warn("Failed to fetch employees of department {}: {}", department.getId(), e.getCause().toString());
+            return DepartmentEmployeesDTO.missing(department.getId(), department, Status.UNAVAILABLE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return DepartmentEmployeesDTO.missing(department.getId(), department, Status.UNAVAILABLE);
+        }
+    }
+
+    private void validateSize(int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new InvalidRequestParameterException("size must be between 1 and " + maxPageSize);
+        }
+    }
+}
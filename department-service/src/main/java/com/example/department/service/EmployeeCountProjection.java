@@ -0,0 +1,150 @@
+package com.example.department.service;
+
+import com.example.department.client.EmployeeClient;
+import com.example.department.domain.DepartmentEmployee;
+import com.example.department.dto.EmployeeDTO;
+import com.example.department.event.EmployeeCreatedEvent;
+import com.example.department.event.EmployeeEvent;
+import com.example.department.event.EmployeeUpdatedEvent;
+import com.example.department.pagination.CursorPage;
+import com.example.department.repo.DepartmentEmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 部门员工数的本地投影（department_employees 表），让 DELETE /api/v2/departments/{id} 的 409 检查只查本地库
+ * - 由 employee-events 维护：每个员工一行记录当前部门，删除留墓碑；按事件时间只前进不后退，
+ *   所以重复投递和乱序（employee-events 按事件类型分区，同一员工的事件可能落在不同分区）都不会让计数漂移
+ * - 投影是最终一致的：员工刚创建、事件还没消费到时，删除检查看不到它
+ * - 漂移时（丢过事件、主题保留期已过、新部署）用 startRebuild() 在后台从 employee-service 全量重建
+ */
+@Slf4j
+@Service
+public class EmployeeCountProjection {
+
+    private final DepartmentEmployeeRepository repository;
+    private final EmployeeClient employeeClient;
+    private final Executor rebuildExecutor;
+    private final int rebuildPageSize;
+    private final AtomicReference<RebuildStatus> rebuild = new AtomicReference<>(RebuildStatus.NEVER_RUN);
+
+    public EmployeeCountProjection(DepartmentEmployeeRepository repository,
+                                   EmployeeClient employeeClient,
+                                   @Qualifier("employeeCountRebuildExecutor") Executor rebuildExecutor,
+                                   @Value("${department.employee-counts.rebuild-page-size:500}") int rebuildPageSize) {
+        this.repository = repository;
+        this.employeeClient = employeeClient;
+        this.rebuildExecutor = rebuildExecutor;
+        this.rebuildPageSize = rebuildPageSize;
+    }
+
+    public void apply(EmployeeEvent event) {
+        // 删除事件写墓碑（department_id = NULL）
+        Long departmentId = null;
+        if (event instanceof EmployeeCreatedEvent created) {
+            departmentId = created.departmentId();
+        } else if (event instanceof EmployeeUpdatedEvent updated) {
+            departmentId = updated.newDepartmentId();
+        }
+        repository.upsertIfNewer(event.employeeId(), departmentId, event.timestamp());
+    }
+
+    public boolean hasEmployees(Long departmentId) {
+        return repository.existsByDepartmentId(departmentId);
+    }
+
+    public long countEmployees(Long departmentId) {
+        return repository.countByDepartmentId(departmentId);
+    }
+
+    /**
+     * 在后台开始一次重建并立即返回其状态；已经有一次在运行时返回那一次的状态，不会并行重建
+     */
+    public RebuildStatus startRebuild() {
+        RebuildStatus current = rebuild.get();
+        if (current.state() == RebuildState.RUNNING) {
+            return current;
+        }
+        RebuildStatus running = RebuildStatus.running(Instant.now());
+        if (!rebuild.compareAndSet(current, running)) {
+            return rebuild.get();
+        }
+        try {
+            rebuildExecutor.execute(() -> rebuild.set(rebuild(running.startedAt())));
+        } catch (RejectedExecutionException e) {
+            rebuild.set(running.failed(0, e.toString()));
+        }
+        return running;
+    }
+
+    public RebuildStatus rebuildStatus() {
+        return rebuild.get();
+    }
+
+    /**
+     * 从 employee-service 分页读全部员工覆盖投影（每页一次批量写入），再把快照之外的旧行改成墓碑
+     * 快照行的时间记为开始时间：重建期间消费到的更新事件时间更晚，不会被快照覆盖
+     * （两个服务的时钟偏差范围内仍可能被覆盖，再执行一次即可）
+     */
+    RebuildStatus rebuild(Instant startedAt) {
+        RebuildStatus running = RebuildStatus.running(startedAt);
+        long snapshotTime = startedAt.toEpochMilli();
+        long employees = 0;
+        try {
+            String after = "";
+            CursorPage<EmployeeDTO> page;
+            do {
+                page = employeeClient.getEmployees(after, rebuildPageSize);
+                List<DepartmentEmployee> rows = new ArrayList<>(page.content().size());
+                for (EmployeeDTO employee : page.content()) {
+                    rows.add(new DepartmentEmployee(employee.getId(), employee.getDepartmentId(), snapshotTime));
+                }
+                repository.upsertAllIfNewer(rows);
+                employees += rows.size();
+                after = page.nextCursor();
+            } while (page.hasNext() && after != null);
+
+            int tombstoned = repository.tombstoneOlderThan(snapshotTime);
+            RebuildStatus done = running.completed(employees, tombstoned);
+            log.info("Rebuilt department employee projection: {} employees, {} stale rows tombstoned in {} ms",
+                    employees, tombstoned, Duration.between(startedAt, done.finishedAt()).toMillis());
+            return done;
+        } catch (RuntimeException e) {
+            // 快照没读完时不改旧行，投影保持重建前的状态
+            log.error("Department employee projection rebuild failed after {} employees", employees, e);
+            return running.failed(employees, e.toString());
+        }
+    }
+
+    public enum RebuildState {
+        NEVER_RUN, RUNNING, COMPLETED, FAILED
+    }
+
+    public record RebuildStatus(RebuildState state, Instant startedAt, Instant finishedAt,
+                                long employees, int staleRowsTombstoned, String error) {
+
+        static final RebuildStatus NEVER_RUN = new RebuildStatus(RebuildState.NEVER_RUN, null, null, 0, 0, null);
+
+        static RebuildStatus running(Instant startedAt) {
+            return new RebuildStatus(RebuildState.RUNNING, startedAt, null, 0, 0, null);
+        }
+
+        RebuildStatus completed(long employees, int staleRowsTombstoned) {
+            return new RebuildStatus(RebuildState.COMPLETED, startedAt, Instant.now(), employees, staleRowsTombstoned, null);
+        }
+
+        RebuildStatus failed(long employees, String error) {
+            return new RebuildStatus(RebuildState.FAILED, startedAt, Instant.now(), employees, 0, error);
+        }
+    }
+}
@@ -1,49 +1,111 @@
 package com.example.department.service;
 
+import com.example.department.event.EmployeeEvent;
+import com.example.department.event.NotificationEvent;
+import com.example.department.event.codec.EventCodec;
+import com.example.department.event.codec.EventCodecs;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * Kafka 事件消费（批量模式）
+ * 每次 poll 的一批记录（spring.kafka.consumer.max-poll-records）在一次调用中处理，处理完统一提交一次 offset
+ * 单条记录无法解码时记录日志并跳过；处理失败则交给 DefaultErrorHandler 重试 / 发到 DLT（见 KafkaConfig），不提交 offset
+ * 员工事件更新本地的部门员工数投影（EmployeeCountProjection）
+ */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class KafkaConsumerService {
 
+    private final EventCodecs eventCodecs;
+    private final MeterRegistry meterRegistry;
+    private final EmployeeCountProjection employeeCountProjection;
+
     /**
      * 监听员工事件
      */
     @KafkaListener(topics = "employee-events", groupId = "department-service-group")
-    public void handleEmployeeEvent(Map<String, Object> eventData) {
-        log.info("收到员工事件: {}", eventData);
-
-        String eventType = (String) eventData.get("eventType");
-        switch (eventType) {
-            case "EMPLOYEE_CREATED":
-                log.info("处理员工创建事件");
-                break;
-            case "EMPLOYEE_UPDATED":
-                log.info("处理员工更新事件");
-                break;
-            case "EMPLOYEE_DELETED":
-                log.info("处理员工删除事件");
-                break;
-            default:
-                log.warn("未知的员工事件类型: {}", eventType);
-        }
+    public void handleEmployeeEvents(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        processBatch("employee-events", records, EmployeeEvent.class, event -> {
+            log.debug("收到员工事件: {}", event);
+            employeeCountProjection.apply(event);
+        });
+        ack.acknowledge();
     }
 
     /**
      * 监听通知事件
      */
     @KafkaListener(topics = "notifications", groupId = "department-service-group")
-    public void handleNotificationEvent(Map<String, Object> eventData) {
-        log.info("收到通知事件: {}", eventData);
+    public void handleNotificationEvents(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        processBatch("notifications", records, NotificationEvent.class, event -> {
+            log.debug("处理通知: 类型={}, 接收者={}, 消息={}", event.eventType(), event.recipient(), event.message());
+        });
+        ack.acknowledge();
+    }
 
-        String eventType = (String) eventData.get("eventType");
-        String message = (String) eventData.get("message");
-        String recipient = (String) eventData.get("recipient");
+    // 解码失败的记录（格式错误、未知类型）重试也不会成功，记录日志跳过；
+    // 处理时抛出的异常（数据库、Redis 暂时不可用等）包装成 BatchListenerFailedException 抛给 DefaultErrorHandler，
+    // 由它提交之前的记录、重试失败的记录，重试用完后发到 DLT —— 这一批不会在这里被 acknowledge
+    private <T> void processBatch(String topic, List<ConsumerRecord<String, byte[]>> records,
+                                  Class<T> type, Consumer<T> handler) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int skipped = 0;
+        try {
+            for (int i = 0; i < records.size(); i++) {
+                ConsumerRecord<String, byte[]> record = records.get(i);
+                T event;
+                try {
+                    event = decode(record, type);
+                } catch (RuntimeException e) {
+                    skipped++;
+                    log.error("Skipping undecodable {} record at partition {} offset {}: {}",
+                            topic, record.partition(), record.offset(), e.getMessage());
+                    continue;
+                }
+                try {
+                    handler.accept(event);
+                } catch (RuntimeException e) {
+                    throw new BatchListenerFailedException("Failed to process " + topic + " record", e, i);
+                }
+            }
+        } finally {
+            sample.stop(Timer.builder("kafka.consumer.batch")
+                    .description("Time to process one polled batch")
+                    .tag("topic", topic)
+                    .register(meterRegistry));
+            DistributionSummary.builder("kafka.consumer.batch.size")
+                    .tag("topic", topic)
+                    .register(meterRegistry)
+                    .record(records.size());
+            if (skipped > 0) {
+                Counter.builder("kafka.consumer.records.failed")
+                        .tag("topic", topic)
+                        .register(meterRegistry)
+                        .increment(skipped);
+            }
+        }
+        log.debug("Processed {} {} records ({} skipped)", records.size(), topic, skipped);
+    }
 
-        log.info("处理通知: 类型={}, 接收者={}, 消息={}", eventType, recipient, message);
+    private <T> T decode(ConsumerRecord<String, byte[]> record, Class<T> type) {
+        Header header = record.headers().lastHeader(EventCodec.CONTENT_TYPE_HEADER);
+        String contentType = header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+        return eventCodecs.forContentType(contentType).decode(record.value(), type);
     }
 }
@@ -2,19 +2,31 @@ package com.example.department.web;
 
 import com.example.department.domain.Department;
 
+import com.example.department.event.DepartmentCreatedEvent;
+import com.example.department.event.DepartmentDeletedEvent;
+import com.example.department.event.DepartmentUpdatedEvent;
+import com.example.department.event.NotificationEvent;
 import com.example.department.exception.DepartmentNotFoundException;
 import com.example.department.exception.DuplicateCodeException;
+import com.example.department.pagination.CursorPage;
+import com.example.department.pagination.KeysetRequest;
 import com.example.department.repo.DepartmentRepository;
+import com.example.department.repo.DepartmentSpecifications;
 import com.example.department.service.KafkaProducerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/v1/departments")
@@ -24,6 +36,9 @@ public class DepartmentController {
     private final DepartmentRepository repository;
     private final KafkaProducerService kafkaProducerService;
 
+    // 游标分页允许的排序字段（非空列，id 始终作为第二排序键）
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("name", "code");
+
     // Step 1: GET /departments — pagination, sorting, filter by name (contains) and code.
     @GetMapping
     public Page<Department> all(
@@ -42,6 +57,26 @@ public class DepartmentController {
         }
     }
 
+    // Step 1b: GET /departments?ids=1,2,3 — bulk lookup, lets callers (e.g. employee-service) enrich a whole page in one round-trip.
+    @GetMapping(params = "ids")
+    public List<Department> byIds(@RequestParam List<Long> ids) {
+        return repository.findAllById(ids);
+    }
+
+    // Step 1c: GET /departments?after=<cursor>&size=20 — keyset pagination without COUNT; start with after= (empty), then pass back nextCursor.
+    @GetMapping(params = "after")
+    public CursorPage<Department> allAfter(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String code,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size,
+            Sort sort) {
+        KeysetRequest request = KeysetRequest.of(after, sort, size, CURSOR_SORT_PROPERTIES);
+        Specification<Department> spec = DepartmentSpecifications.filter(name, code)
+                .and(request.afterSpecification());
+        return request.toPage(repository.findSlice(spec, request.sort(), request.size()), Function.identity());
+    }
+
     // Step 2: GET /departments/{id} — detail
     @GetMapping("/{id}")
     public Department byId(@PathVariable Long id) {
@@ -50,6 +85,7 @@ public class DepartmentController {
 
     // Step 3: POST /departments — create with unique code (short string identifier).
     @PostMapping
+    @Transactional
     @ResponseStatus(HttpStatus.CREATED)
     public Department create(@Valid @RequestBody Department d) {
         // 检查code是否已存在，如果存在则抛出异常
@@ -61,30 +97,19 @@ public class DepartmentController {
         Department savedDepartment = repository.save(d);
 
         // 发布部门创建事件
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("eventType", "DEPARTMENT_CREATED");
-        eventData.put("departmentId", savedDepartment.getId());
-        eventData.put("name", savedDepartment.getName());
-        eventData.put("code", savedDepartment.getCode());
-        eventData.put("description", savedDepartment.getDescription());
-        eventData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendDepartmentEvent("DEPARTMENT_CREATED", eventData);
+        kafkaProducerService.sendDepartmentEvent(new DepartmentCreatedEvent(
+                savedDepartment.getId(), savedDepartment.getName(), savedDepartment.getCode(), savedDepartment.getDescription(), System.currentTimeMillis()));
 
         // 发送通知事件
-        Map<String, Object> notificationData = new HashMap<>();
-        notificationData.put("eventType", "SYSTEM");
-        notificationData.put("recipient", "admin@company.com");
-        notificationData.put("message", "新部门已创建: " + savedDepartment.getName() + " (" + savedDepartment.getCode() + ")");
-        notificationData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendNotificationEvent("SYSTEM", notificationData);
+        kafkaProducerService.sendNotificationEvent(NotificationEvent.system("admin@company.com",
+                "新部门已创建: " + savedDepartment.getName() + " (" + savedDepartment.getCode() + ")"));
 
         return savedDepartment;
     }
 
     // Step 4: PUT /departments/{id} — full update; code remains unique.
     @PutMapping("/{id}")
+    @Transactional
     public Department update(@PathVariable Long id, @Valid @RequestBody Department d) {
         Department existing = repository.findById(id)
                 .orElseThrow(() -> new DepartmentNotFoundException("Department with id " + id + " not found"));
@@ -101,30 +126,19 @@ public class DepartmentController {
         Department updatedDepartment = repository.save(existing);
 
         // 发布部门更新事件
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("eventType", "DEPARTMENT_UPDATED");
-        eventData.put("departmentId", updatedDepartment.getId());
-        eventData.put("name", updatedDepartment.getName());
-        eventData.put("code", updatedDepartment.getCode());
-        eventData.put("description", updatedDepartment.getDescription());
-        eventData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendDepartmentEvent("DEPARTMENT_UPDATED", eventData);
+        kafkaProducerService.sendDepartmentEvent(new DepartmentUpdatedEvent(
+                updatedDepartment.getId(), updatedDepartment.getName(), updatedDepartment.getCode(), updatedDepartment.getDescription(), System.currentTimeMillis()));
 
         // 发送通知事件
-        Map<String, Object> notificationData = new HashMap<>();
-        notificationData.put("eventType", "SYSTEM");
-        notificationData.put("recipient", "admin@company.com");
-        notificationData.put("message", "部门信息已更新: " + updatedDepartment.getName() + " (" + updatedDepartment.getCode() + ")");
-        notificationData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendNotificationEvent("SYSTEM", notificationData);
+        kafkaProducerService.sendNotificationEvent(NotificationEvent.system("admin@company.com",
+                "部门信息已更新: " + updatedDepartment.getName() + " (" + updatedDepartment.getCode() + ")"));
 
         return updatedDepartment;
     }
 
     // Step 5: PATCH /departments/{id} — partial update (e.g., managerEmail).
     @PatchMapping("/{id}")
+    @Transactional
     public Department partialUpdate(@PathVariable Long id, @Valid @RequestBody Department d) {
         Department existing = repository.findById(id)
                 .orElseThrow(() -> new DepartmentNotFoundException("Department with id " + id + " not found"));
@@ -146,30 +160,19 @@ public class DepartmentController {
         Department updatedDepartment = repository.save(existing);
 
         // 发布部门更新事件
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("eventType", "DEPARTMENT_UPDATED");
-        eventData.put("departmentId", updatedDepartment.getId());
-        eventData.put("name", updatedDepartment.getName());
-        eventData.put("code", updatedDepartment.getCode());
-        eventData.put("description", updatedDepartment.getDescription());
-        eventData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendDepartmentEvent("DEPARTMENT_UPDATED", eventData);
+        kafkaProducerService.sendDepartmentEvent(new DepartmentUpdatedEvent(
+                updatedDepartment.getId(), updatedDepartment.getName(), updatedDepartment.getCode(), updatedDepartment.getDescription(), System.currentTimeMillis()));
 
         // 发送通知事件
-        Map<String, Object> notificationData = new HashMap<>();
-        notificationData.put("eventType", "SYSTEM");
-        notificationData.put("recipient", "admin@company.com");
-        notificationData.put("message", "部门信息已更新: " + updatedDepartment.getName() + " (" + updatedDepartment.getCode() + ")");
-        notificationData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendNotificationEvent("SYSTEM", notificationData);
+        kafkaProducerService.sendNotificationEvent(NotificationEvent.system("admin@company.com",
+                "部门信息已更新: " + updatedDepartment.getName() + " (" + updatedDepartment.getCode() + ")"));
 
         return updatedDepartment;
     }
 
     // Step 6: DELETE /departments/{id} — protective delete; if any Employee references the department, return 409 with guidance.
     @DeleteMapping("/{id}")
+    @Transactional
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
         // 验证部门是否存在并获取部门信息
@@ -182,23 +185,12 @@ public class DepartmentController {
         // 暂时实现简单删除
 
         // 发布部门删除事件
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("eventType", "DEPARTMENT_DELETED");
-        eventData.put("departmentId", department.getId());
-        eventData.put("name", department.getName());
-        eventData.put("code", department.getCode());
-        eventData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendDepartmentEvent("DEPARTMENT_DELETED", eventData);
+        kafkaProducerService.sendDepartmentEvent(new DepartmentDeletedEvent(
+                department.getId(), department.getName(), department.getCode(), department.getDescription(), System.currentTimeMillis()));
 
         // 发送通知事件
-        Map<String, Object> notificationData = new HashMap<>();
-        notificationData.put("eventType", "SYSTEM");
-        notificationData.put("recipient", "admin@company.com");
-        notificationData.put("message", "部门已删除: " + department.getName() + " (" + department.getCode() + ")，请处理相关员工");
-        notificationData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendNotificationEvent("SYSTEM", notificationData);
+        kafkaProducerService.sendNotificationEvent(NotificationEvent.system("admin@company.com",
+                "部门已删除: " + department.getName() + " (" + department.getCode() + ")，请处理相关员工"));
 
         repository.deleteById(id);
     }
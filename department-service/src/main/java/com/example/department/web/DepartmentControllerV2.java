@@ -1,21 +1,42 @@
 package com.example.department.web;
 
+import com.example.department.cache.SingleFlight;
 import com.example.department.domain.Department;
+import com.example.department.dto.BulkDepartmentEmployeesDTO;
+import com.example.department.dto.DepartmentEmployeesDTO;
+import com.example.department.event.DepartmentCreatedEvent;
+import com.example.department.event.DepartmentDeletedEvent;
+import com.example.department.event.DepartmentUpdatedEvent;
+import com.example.department.event.NotificationEvent;
+import com.example.department.exception.DepartmentHasEmployeesException;
 import com.example.department.exception.DepartmentNotFoundException;
 import com.example.department.exception.DuplicateCodeException;
+import com.example.department.pagination.CursorPage;
+import com.example.department.pagination.KeysetRequest;
 import com.example.department.repo.DepartmentRepository;
+import com.example.department.repo.DepartmentSpecifications;
+import com.example.department.service.DepartmentEmployeesService;
+import com.example.department.service.EmployeeCountProjection;
 import com.example.department.service.KafkaProducerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/v2/departments")
@@ -24,6 +45,17 @@ public class DepartmentControllerV2 {
 
     private final DepartmentRepository repository;
     private final KafkaProducerService kafkaProducerService;
+    private final CacheManager cacheManager;
+    private final DepartmentEmployeesService departmentEmployeesService;
+    private final EmployeeCountProjection employeeCountProjection;
+
+    private static final String DEPARTMENTS_CACHE = "departments";
+
+    // 同一部门的并发缓存未命中只查一次数据库（key 与缓存 key 一致：id 或 code:<code>）
+    private final SingleFlight<Object, Department> loads = new SingleFlight<>();
+
+    // 游标分页允许的排序字段（非空列，id 始终作为第二排序键）
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("name", "code");
 
     // Step 1: GET /api/v2/departments — pagination, sorting, filter by name (contains) and code.
     @GetMapping
@@ -43,17 +75,38 @@ public class DepartmentControllerV2 {
         }
     }
 
+    // Step 1b: GET /api/v2/departments?ids=1,2,3 — bulk lookup, lets callers (e.g. employee-service) enrich a whole page in one round-trip.
+    @GetMapping(params = "ids")
+    public List<Department> byIds(@RequestParam List<Long> ids) {
+        return repository.findAllById(ids);
+    }
+
+    // Step 1c: GET /api/v2/departments?after=<cursor>&size=20 — keyset pagination without COUNT; start with after= (empty), then pass back nextCursor.
+    @GetMapping(params = "after")
+    public CursorPage<Department> allAfter(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String code,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size,
+            Sort sort) {
+        KeysetRequest request = KeysetRequest.of(after, sort, size, CURSOR_SORT_PROPERTIES);
+        Specification<Department> spec = DepartmentSpecifications.filter(name, code)
+                .and(request.afterSpecification());
+        return request.toPage(repository.findSlice(spec, request.sort(), request.size()), Function.identity());
+    }
+
     // Step 2: GET /api/v2/departments/{id} — detail with Redis caching
     @GetMapping("/{id}")
-    @Cacheable(value = "departments", key = "#id", unless = "#result == null")
+    @Cacheable(value = DEPARTMENTS_CACHE, key = "#id", unless = "#result == null")
     public Department byId(@PathVariable Long id) {
-        return repository.findById(id).orElseThrow(() -> new DepartmentNotFoundException("Department with id " + id + " not found"));
+        return loads.execute(id, () -> repository.findById(id)
+                .orElseThrow(() -> new DepartmentNotFoundException("Department with id " + id + " not found")));
     }
 
-    // Step 3: POST /api/v2/departments — create with unique code (short string identifier).
+    // Step 3: POST /api/v2/departments — create with unique code (short string identifier). 新部门还不在缓存里，不需要失效
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @CacheEvict(value = "departments", allEntries = true)
+    @Transactional
     public Department create(@Valid @RequestBody Department d) {
         // 检查code是否已存在，如果存在则抛出异常
         repository.findByCode(d.getCode())
@@ -64,31 +117,19 @@ public class DepartmentControllerV2 {
         Department savedDepartment = repository.save(d);
 
         // 发布部门创建事件
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("eventType", "DEPARTMENT_CREATED");
-        eventData.put("departmentId", savedDepartment.getId());
-        eventData.put("name", savedDepartment.getName());
-        eventData.put("code", savedDepartment.getCode());
-        eventData.put("description", savedDepartment.getDescription());
-        eventData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendDepartmentEvent("DEPARTMENT_CREATED", eventData);
+        kafkaProducerService.sendDepartmentEvent(new DepartmentCreatedEvent(
+                savedDepartment.getId(), savedDepartment.getName(), savedDepartment.getCode(), savedDepartment.getDescription(), System.currentTimeMillis()));
 
         // 发送通知事件
-        Map<String, Object> notificationData = new HashMap<>();
-        notificationData.put("eventType", "SYSTEM");
-        notificationData.put("recipient", "admin@company.com");
-        notificationData.put("message", "New Department Created: " + savedDepartment.getName() + " (" + savedDepartment.getCode() + ")");
-        notificationData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendNotificationEvent("SYSTEM", notificationData);
+        kafkaProducerService.sendNotificationEvent(NotificationEvent.system("admin@company.com",
+                "New Department Created: " + savedDepartment.getName() + " (" + savedDepartment.getCode() + ")"));
 
         return savedDepartment;
     }
 
     // Step 4: PUT /api/v2/departments/{id} — full update; code remains unique.
     @PutMapping("/{id}")
-    @CacheEvict(value = "departments", allEntries = true)
+    @Transactional
     public Department update(@PathVariable Long id, @Valid @RequestBody Department d) {
         Department existing = repository.findById(id)
                 .orElseThrow(() -> new DepartmentNotFoundException("Department with id " + id + " not found"));
@@ -97,42 +138,33 @@ public class DepartmentControllerV2 {
         if (!existing.getCode().equals(d.getCode()) && repository.existsByCode(d.getCode())) {
             throw new DuplicateCodeException("Department code '" + d.getCode() + "' already exists");
         }
+        String oldCode = existing.getCode();
 
         existing.setName(d.getName());
         existing.setCode(d.getCode());
         existing.setDescription(d.getDescription());
 
         Department updatedDepartment = repository.save(existing);
+        writeThrough(updatedDepartment, oldCode);
 
         // 发布部门更新事件
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("eventType", "DEPARTMENT_UPDATED");
-        eventData.put("departmentId", updatedDepartment.getId());
-        eventData.put("name", updatedDepartment.getName());
-        eventData.put("code", updatedDepartment.getCode());
-        eventData.put("description", updatedDepartment.getDescription());
-        eventData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendDepartmentEvent("DEPARTMENT_UPDATED", eventData);
+        kafkaProducerService.sendDepartmentEvent(new DepartmentUpdatedEvent(
+                updatedDepartment.getId(), updatedDepartment.getName(), updatedDepartment.getCode(), updatedDepartment.getDescription(), System.currentTimeMillis()));
 
         // 发送通知事件
-        Map<String, Object> notificationData = new HashMap<>();
-        notificationData.put("eventType", "SYSTEM");
-        notificationData.put("recipient", "admin@company.com");
-        notificationData.put("message", "部门信息已更新: " + updatedDepartment.getName() + " (" + updatedDepartment.getCode() + ")");
-        notificationData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendNotificationEvent("SYSTEM", notificationData);
+        kafkaProducerService.sendNotificationEvent(NotificationEvent.system("admin@company.com",
+                "部门信息已更新: " + updatedDepartment.getName() + " (" + updatedDepartment.getCode() + ")"));
 
         return updatedDepartment;
     }
 
     // Step 5: PATCH /api/v2/departments/{id} — partial update (e.g., managerEmail).
     @PatchMapping("/{id}")
-    @CacheEvict(value = "departments", allEntries = true)
+    @Transactional
     public Department partialUpdate(@PathVariable Long id, @Valid @RequestBody Department d) {
         Department existing = repository.findById(id)
                 .orElseThrow(() -> new DepartmentNotFoundException("Department with id " + id + " not found"));
+        String oldCode = existing.getCode();
 
         if (d.getName() != null) {
             existing.setName(d.getName());
@@ -149,26 +181,15 @@ public class DepartmentControllerV2 {
         }
 
         Department updatedDepartment = repository.save(existing);
+        writeThrough(updatedDepartment, oldCode);
 
         // 发布部门更新事件
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("eventType", "DEPARTMENT_UPDATED");
-        eventData.put("departmentId", updatedDepartment.getId());
-        eventData.put("name", updatedDepartment.getName());
-        eventData.put("code", updatedDepartment.getCode());
-        eventData.put("description", updatedDepartment.getDescription());
-        eventData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendDepartmentEvent("DEPARTMENT_UPDATED", eventData);
+        kafkaProducerService.sendDepartmentEvent(new DepartmentUpdatedEvent(
+                updatedDepartment.getId(), updatedDepartment.getName(), updatedDepartment.getCode(), updatedDepartment.getDescription(), System.currentTimeMillis()));
 
         // 发送通知事件
-        Map<String, Object> notificationData = new HashMap<>();
-        notificationData.put("eventType", "SYSTEM");
-        notificationData.put("recipient", "admin@company.com");
-        notificationData.put("message", "部门信息已更新: " + updatedDepartment.getName() + " (" + updatedDepartment.getCode() + ")");
-        notificationData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendNotificationEvent("SYSTEM", notificationData);
+        kafkaProducerService.sendNotificationEvent(NotificationEvent.system("admin@company.com",
+                "部门信息已更新: " + updatedDepartment.getName() + " (" + updatedDepartment.getCode() + ")"));
 
         return updatedDepartment;
     }
@@ -176,65 +197,93 @@ public class DepartmentControllerV2 {
     // Step 6: DELETE /api/v2/departments/{id} — protective delete; if any Employee references the department, return 409 with guidance.
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    @CacheEvict(value = "departments", allEntries = true)
+    @Transactional
     public void delete(@PathVariable Long id) {
         // 验证部门是否存在并获取部门信息
         Department department = repository.findById(id)
                 .orElseThrow(() -> new DepartmentNotFoundException("Department with id " + id + " not found"));
 
-        // TODO: 检查是否有Employee引用该部门
-        // 这里应该调用Employee service检查是否有员工属于该部门
-        // 如果有，应该抛出异常返回409状态码
-        // 暂时实现简单删除
+        // 查本地投影（由 employee-events 维护），不同步调用 employee-service
+        if (employeeCountProjection.hasEmployees(id)) {
+            long employees = employeeCountProjection.countEmployees(id);
+            throw new DepartmentHasEmployeesException("Department " + department.getCode() + " still has " + employees
+                    + " employee(s); move or delete them first (GET /api/v2/employees?departmentId=" + id + ")", employees);
+        }
 
         // 发布部门删除事件
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("eventType", "DEPARTMENT_DELETED");
-        eventData.put("departmentId", department.getId());
-        eventData.put("name", department.getName());
-        eventData.put("code", department.getCode());
-        eventData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendDepartmentEvent("DEPARTMENT_DELETED", eventData);
+        kafkaProducerService.sendDepartmentEvent(new DepartmentDeletedEvent(
+                department.getId(), department.getName(), department.getCode(), department.getDescription(), System.currentTimeMillis()));
 
         // 发送通知事件
-        Map<String, Object> notificationData = new HashMap<>();
-        notificationData.put("eventType", "SYSTEM");
-        notificationData.put("recipient", "admin@company.com");
-        notificationData.put("message", "Department has been deleted: " + department.getName() + " (" + department.getCode() + ")，请处理相关员工");
-        notificationData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendNotificationEvent("SYSTEM", notificationData);
+        kafkaProducerService.sendNotificationEvent(NotificationEvent.system("admin@company.com",
+                "Department has been deleted: " + department.getName() + " (" + department.getCode() + ")，请处理相关员工"));
 
         repository.deleteById(id);
+        evict(department);
     }
 
     // Step 7: GET /api/v2/departments/by-code/{code} — lookup by business key with Redis caching
     @GetMapping("/by-code/{code}")
-    @Cacheable(value = "departments", key = "'code:' + #code", unless = "#result == null")
+    @Cacheable(value = DEPARTMENTS_CACHE, key = "'code:' + #code", unless = "#result == null")
     public Department byCode(@PathVariable String code) {
-        return repository.findByCode(code)
-                .orElseThrow(() -> new DepartmentNotFoundException("Department with code '" + code + "' not found"));
+        return loads.execute("code:" + code, () -> repository.findByCode(code)
+                .orElseThrow(() -> new DepartmentNotFoundException("Department with code '" + code + "' not found")));
     }
 
-    // Step 8: GET /api/v2/departments/{id}/employees — composed list via Employee service (gateway-routed; may paginate).
+    // Step 8: GET /api/v2/departments/{id}/employees?after=&size=20 — department + one keyset page of its employees, fetched from employee-service.
+    // status != OK (TIMEOUT / UNAVAILABLE) means employee-service did not answer within department.employees.timeout; employees is then empty.
     @GetMapping("/{id}/employees")
-    public Map<String, Object> getEmployees(@PathVariable Long id) {
-        // 验证部门是否存在
-        Department department = repository.findById(id)
-                .orElseThrow(() -> new DepartmentNotFoundException("Department with id " + id + " not found"));
+    public DepartmentEmployeesDTO getEmployees(@PathVariable Long id,
+                                               @RequestParam(defaultValue = "") String after,
+                                               @RequestParam(defaultValue = "20") int size) {
+        return departmentEmployeesService.getEmployees(id, after, size);
+    }
+
+    // Step 8b: GET /api/v2/departments/employees?ids=1&ids=2&size=20 — first page of employees for several departments, fetched in parallel
+    // under one timeout budget; per-department status, partial=true when any of them is missing.
+    @GetMapping("/employees")
+    public BulkDepartmentEmployeesDTO getEmployees(@RequestParam List<Long> ids,
+                                                   @RequestParam(defaultValue = "20") int size) {
+        return departmentEmployeesService.getEmployees(ids, size);
+    }
+
+    // Step 9: GET /api/v2/departments/{id}/employee-count — employee count from the local projection (what the delete check uses).
+    @GetMapping("/{id}/employee-count")
+    public Map<String, Object> employeeCount(@PathVariable Long id) {
+        return Map.of("departmentId", id, "employees", employeeCountProjection.countEmployees(id));
+    }
+
+    // Step 9b: POST /api/v2/departments/employee-counts/rebuild — rebuild the projection from employee-service in the background
+    // when it has drifted (202 + status; a rebuild already running is not started twice). GET the same path to poll the status.
+    @PostMapping("/employee-counts/rebuild")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public EmployeeCountProjection.RebuildStatus rebuildEmployeeCounts() {
+        return employeeCountProjection.startRebuild();
+    }
+
+    @GetMapping("/employee-counts/rebuild")
+    public EmployeeCountProjection.RebuildStatus employeeCountsRebuildStatus() {
+        return employeeCountProjection.rebuildStatus();
+    }
+
+    // 只更新这个部门的缓存 key（id、code:<新code>），code 变了则让旧的 code:<旧code> 失效
+    // TransactionAwareCacheDecorator 把 put/evict 推迟到事务提交后，回滚不会留下脏数据
+    private void writeThrough(Department department, String oldCode) {
+        Cache cache = departmentsCache();
+        cache.put(department.getId(), department);
+        cache.put("code:" + department.getCode(), department);
+        if (oldCode != null && !oldCode.equals(department.getCode())) {
+            cache.evict("code:" + oldCode);
+        }
+    }
+
+    private void evict(Department department) {
+        Cache cache = departmentsCache();
+        cache.evict(department.getId());
+        cache.evict("code:" + department.getCode());
+    }
 
-        // TODO: 这里应该调用Employee service获取该部门的员工列表
-        // 可以通过API Gateway路由到Employee service: GET /api/v2/employees?departmentId={id}
-        // 暂时返回部门信息和占位符
-        return Map.of(
-                "department", Map.of(
-                        "id", department.getId(),
-                        "name", department.getName(),
-                        "code", department.getCode()
-                ),
-                "message", "Employee list should be fetched from Employee service via API Gateway",
-                "suggestedEndpoint", "/api/v2/employees?departmentId=" + id
-        );
+    private Cache departmentsCache() {
+        return new TransactionAwareCacheDecorator(Objects.requireNonNull(cacheManager.getCache(DEPARTMENTS_CACHE)));
     }
 }
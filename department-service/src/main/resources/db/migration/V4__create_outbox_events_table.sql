@@ -0,0 +1,11 @@
+-- Transactional outbox: events are written in the same transaction as the business change
+-- and published to Kafka by OutboxRelay; rows are deleted once Kafka has acknowledged them.
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    topic VARCHAR(120) NOT NULL,
+    event_key VARCHAR(120),
+    -- payload is the already-encoded Kafka message body (JSON or compact binary, see events.codec)
+    content_type VARCHAR(60) NOT NULL DEFAULT 'application/json',
+    payload LONGBLOB NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
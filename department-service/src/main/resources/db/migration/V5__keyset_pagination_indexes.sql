@@ -0,0 +1,2 @@
+-- 游标分页按 (排序列, id) 定位；code 已有唯一索引（InnoDB 二级索引隐含主键 id）
+CREATE INDEX idx_departments_name_id ON departments (name, id);
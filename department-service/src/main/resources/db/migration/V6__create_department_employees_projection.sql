@@ -0,0 +1,8 @@
+-- 员工 -> 部门的本地投影（由 employee-events 维护），删除部门时在本地判断是否仍有员工，不再同步调用 employee-service
+-- 每个员工一行；department_id 为 NULL 表示已删除（墓碑），用来挡住乱序到达的旧事件；event_time 为最后应用的事件时间（ms）
+CREATE TABLE IF NOT EXISTS department_employees (
+    employee_id BIGINT PRIMARY KEY,
+    department_id BIGINT NULL,
+    event_time BIGINT NOT NULL
+);
+CREATE INDEX idx_department_employees_department ON department_employees (department_id);
@@ -0,0 +1,76 @@
+package com.example.department.cache;
+
+import com.example.department.domain.Department;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CacheValueSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Department 没有 equals，按字段比较
+    @ParameterizedTest
+    @EnumSource(CacheValueSerializer.Format.class)
+    void entity_round_trips_with_its_type(CacheValueSerializer.Format format) {
+        CacheValueSerializer serializer = CacheValueSerializer.of(format, objectMapper);
+        Department department = department();
+
+        Object read = serializer.deserialize(serializer.serialize(department));
+
+        assertThat(read).isInstanceOf(Department.class).usingRecursiveComparison().isEqualTo(department);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CacheValueSerializer.Format.class)
+    void lists_keep_element_types(CacheValueSerializer.Format format) {
+        CacheValueSerializer serializer = CacheValueSerializer.of(format, objectMapper);
+        List<Department> departments = new ArrayList<>(List.of(department(), department()));
+
+        Object read = serializer.deserialize(serializer.serialize(departments));
+
+        assertThat(read).asList().hasSize(2).allSatisfy(d ->
+                assertThat(d).isInstanceOf(Department.class).usingRecursiveComparison().isEqualTo(department()));
+    }
+
+    @Test
+    void binary_is_smaller_than_json() {
+        Department department = department();
+
+        byte[] json = CacheValueSerializer.of(CacheValueSerializer.Format.JSON, objectMapper).serialize(department);
+        byte[] binary = CacheValueSerializer.of(CacheValueSerializer.Format.BINARY, objectMapper).serialize(department);
+
+        assertThat(binary.length).isLessThan(json.length);
+    }
+
+    @Test
+    void rejects_types_outside_the_allow_list() {
+        CacheValueSerializer serializer = CacheValueSerializer.of(CacheValueSerializer.Format.JSON, objectMapper);
+        byte[] payload = "{\"@class\":\"javax.swing.JLabel\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> serializer.deserialize(payload)).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void unknown_format_is_rejected() {
+        assertThatThrownBy(() -> CacheValueSerializer.Format.of("kryo"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("kryo");
+    }
+
+    private static Department department() {
+        return new Department(12L, "Engineering", "ENG", "Platform and product engineering");
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.department.cache;
+
+import com.example.department.domain.Department;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class TwoLevelCacheTest {
+
+    private static final String CHANNEL = "cache-invalidation:test";
+
+    @Mock
+    StringRedisTemplate redisTemplate;
+
+    // 用内存缓存模拟 Redis（L2）
+    ConcurrentMapCacheManager remote;
+    SimpleMeterRegistry meterRegistry;
+    TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCacheManager();
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoLevelCacheManager(remote,
+                CacheValueSerializer.of(CacheValueSerializer.Format.JSON, new ObjectMapper()),
+                redisTemplate, new ObjectMapper(), meterRegistry,
+                CHANNEL, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void l2_hits_are_copied_into_l1() {
+        remote.getCache("departments").put(1L, "Engineering");
+        Cache cache = cacheManager.getCache("departments");
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("Engineering");
+        // L2 被清掉之后仍然从 L1 命中
+        remote.getCache("departments").evict(1L);
+        assertThat(cache.get(1L, String.class)).isEqualTo("Engineering");
+
+        assertThat(hits("l1")).isEqualTo(1);
+        assertThat(hits("l2")).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.tier.hit.ratio").tag("cache", "departments").tag("tier", "l1")
+                .gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("cache.tier.latency").tag("tier", "l2").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void l1_hits_return_a_copy_callers_can_change() {
+        Cache cache = cacheManager.getCache("departments");
+        cache.put(1L, new Department(1L, "Engineering", "ENG", null));
+
+        Department first = cache.get(1L, Department.class);
+        first.setName("Changed");
+
+        Department second = cache.get(1L, Department.class);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo("Engineering");
+        assertThat(hits("l1")).isEqualTo(2);
+    }
+
+    @Test
+    void loader_result_is_written_to_both_tiers_and_broadcast() {
+        Cache cache = cacheManager.getCache("departments");
+
+        assertThat(cache.get(1L, () -> "Engineering")).isEqualTo("Engineering");
+
+        assertThat(remote.getCache("departments").get(1L).get()).isEqualTo("Engineering");
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), contains("\"key\":\"1\""));
+    }
+
+    @Test
+    void invalidation_from_another_instance_drops_only_l1() {
+        Cache cache = cacheManager.getCache("departments");
+        cache.put(1L, "Engineering");
+        remote.getCache("departments").put(1L, "Finance"); // 另一个实例写了 L2
+
+        cacheManager.onMessage(message("{\"origin\":\"other\",\"cache\":\"departments\",\"key\":\"1\"}"), null);
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("Finance");
+    }
+
+    @Test
+    void clear_from_another_instance_empties_l1() {
+        Cache cache = cacheManager.getCache("departments");
+        cache.put(1L, "Engineering");
+        cache.put(2L, "Finance");
+        remote.getCache("departments").clear();
+
+        cacheManager.onMessage(message("{\"origin\":\"other\",\"cache\":\"departments\",\"key\":null}"), null);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isNull();
+    }
+
+    private double hits(String tier) {
+        return meterRegistry.get("cache.tier.gets").tag("tier", tier).tag("result", "hit").functionCounter().count();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
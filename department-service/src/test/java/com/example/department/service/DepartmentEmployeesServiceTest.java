@@ -0,0 +1,120 @@
+package com.example.department.service;
+
+import com.example.department.client.EmployeeClient;
+import com.example.department.domain.Department;
+import com.example.department.dto.BulkDepartmentEmployeesDTO;
+import com.example.department.dto.DepartmentEmployeesDTO;
+import com.example.department.dto.DepartmentEmployeesDTO.Status;
+import com.example.department.dto.EmployeeDTO;
+import com.example.department.exception.DepartmentNotFoundException;
+import com.example.department.exception.InvalidRequestParameterException;
+import com.example.department.pagination.CursorPage;
+import com.example.department.repo.DepartmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("DepartmentEmployeesService (department -> employees composition)")
+class DepartmentEmployeesServiceTest {
+
+    private final DepartmentRepository repository = mock(DepartmentRepository.class);
+    private final EmployeeClient employeeClient = mock(EmployeeClient.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final DepartmentEmployeesService service = new DepartmentEmployeesService(
+            repository, employeeClient, executor, Duration.ofMillis(300), 3, 100);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void single_department_returns_its_employee_page() {
+        when(repository.findById(1L)).thenReturn(Optional.of(department(1L)));
+        when(employeeClient.getEmployeesByDepartment(1L, "", 20)).thenReturn(page(1L, "cursor-2"));
+
+        DepartmentEmployeesDTO result = service.getEmployees(1L, "", 20);
+
+        assertThat(result.status()).isEqualTo(Status.OK);
+        assertThat(result.department().getCode()).isEqualTo("D1");
+        assertThat(result.employees()).extracting(EmployeeDTO::getDepartmentId).containsOnly(1L);
+        assertThat(result.nextCursor()).isEqualTo("cursor-2");
+    }
+
+    @Test
+    void unknown_department_is_404_and_employee_service_is_not_called() {
+        when(repository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getEmployees(9L, "", 20)).isInstanceOf(DepartmentNotFoundException.class);
+        verifyNoInteractions(employeeClient);
+    }
+
+    @Test
+    void bulk_returns_partial_results_within_the_time_budget() {
+        when(repository.findAllById(any())).thenReturn(List.of(department(1L), department(2L), department(3L)));
+        when(employeeClient.getEmployeesByDepartment(eq(1L), anyString(), anyInt())).thenReturn(page(1L, null));
+        when(employeeClient.getEmployeesByDepartment(eq(2L), anyString(), anyInt())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return page(2L, null);
+        });
+        when(employeeClient.getEmployeesByDepartment(eq(3L), anyString(), anyInt()))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        long start = System.nanoTime();
+        BulkDepartmentEmployeesDTO result = service.getEmployees(List.of(3L, 1L, 2L, 1L), 20);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(result.partial()).isTrue();
+        assertThat(result.results()).extracting(DepartmentEmployeesDTO::departmentId).containsExactly(3L, 1L, 2L);
+        assertThat(result.results()).extracting(DepartmentEmployeesDTO::status)
+                .containsExactly(Status.UNAVAILABLE, Status.OK, Status.TIMEOUT);
+    }
+
+    @Test
+    void bulk_marks_unknown_departments_not_found() {
+        when(repository.findAllById(any())).thenReturn(List.of(department(1L)));
+        when(employeeClient.getEmployeesByDepartment(eq(1L), anyString(), anyInt())).thenReturn(page(1L, null));
+
+        BulkDepartmentEmployeesDTO result = service.getEmployees(List.of(1L, 7L), 20);
+
+        assertThat(result.results()).extracting(DepartmentEmployeesDTO::status).containsExactly(Status.OK, Status.NOT_FOUND);
+        verify(employeeClient, never()).getEmployeesByDepartment(eq(7L), anyString(), anyInt());
+    }
+
+    @Test
+    void bulk_rejects_too_many_departments() {
+        assertThatThrownBy(() -> service.getEmployees(List.of(1L, 2L, 3L, 4L), 20))
+                .isInstanceOf(InvalidRequestParameterException.class);
+    }
+
+    private static Department department(Long id) {
+        return Department.builder().id(id).name("Department " + id).code("D" + id).build();
+    }
+
+    private static CursorPage<EmployeeDTO> page(Long departmentId, String nextCursor) {
+        EmployeeDTO employee = EmployeeDTO.builder()
+                .id(departmentId * 10).firstName("Ada").lastName("Lovelace")
+                .email("ada" + departmentId + "@company.com").departmentId(departmentId)
+                .build();
+        return new CursorPage<>(List.of(employee), 20, nextCursor != null, nextCursor);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.department.service;
+
+import com.example.department.client.EmployeeClient;
+import com.example.department.domain.DepartmentEmployee;
+import com.example.department.dto.EmployeeDTO;
+import com.example.department.event.EmployeeCreatedEvent;
+import com.example.department.event.EmployeeDeletedEvent;
+import com.example.department.event.EmployeeUpdatedEvent;
+import com.example.department.pagination.CursorPage;
+import com.example.department.repo.DepartmentEmployeeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@DisplayName("EmployeeCountProjection (local department employee counts)")
+class EmployeeCountProjectionTest {
+
+    private final DepartmentEmployeeRepository repository = mock(DepartmentEmployeeRepository.class);
+    private final EmployeeClient employeeClient = mock(EmployeeClient.class);
+    private final EmployeeCountProjection projection = new EmployeeCountProjection(repository, employeeClient, Runnable::run, 2);
+
+    @Test
+    @DisplayName("created / moved / deleted events upsert the employee's current department with the event time")
+    void appliesEmployeeEvents() {
+        projection.apply(new EmployeeCreatedEvent(7L, "a@company.com", 1L, "Ada", "Lovelace", 100L));
+        projection.apply(new EmployeeUpdatedEvent(7L, "a@company.com", 1L, 2L, "Ada", "Lovelace", 200L));
+        projection.apply(new EmployeeDeletedEvent(7L, "a@company.com", 2L, "Ada", "Lovelace", 300L));
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).upsertIfNewer(7L, 1L, 100L);
+        inOrder.verify(repository).upsertIfNewer(7L, 2L, 200L);
+        // 删除写墓碑，挡住之后乱序到达的旧事件
+        inOrder.verify(repository).upsertIfNewer(eq(7L), isNull(), eq(300L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("rebuild pages through employee-service with one batch per page, then tombstones rows older than the snapshot")
+    void rebuildsFromEmployeeService() {
+        when(employeeClient.getEmployees("", 2)).thenReturn(new CursorPage<>(
+                List.of(employee(1L, 10L), employee(2L, 10L)), 2, true, "c2"));
+        when(employeeClient.getEmployees("c2", 2)).thenReturn(new CursorPage<>(
+                List.of(employee(3L, null)), 2, false, null));
+        when(repository.tombstoneOlderThan(anyLong())).thenReturn(4);
+
+        EmployeeCountProjection.RebuildStatus started = projection.startRebuild();
+
+        assertThat(started.state()).isEqualTo(EmployeeCountProjection.RebuildState.RUNNING);
+        EmployeeCountProjection.RebuildStatus status = projection.rebuildStatus();
+        assertThat(status.state()).isEqualTo(EmployeeCountProjection.RebuildState.COMPLETED);
+        assertThat(status.employees()).isEqualTo(3);
+        assertThat(status.staleRowsTombstoned()).isEqualTo(4);
+
+        ArgumentCaptor<List<DepartmentEmployee>> batches = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository, times(2)).upsertAllIfNewer(batches.capture());
+        // 墓碑而不是删除：之后才到的旧事件不会把已删除的员工写回来
+        inOrder.verify(repository).tombstoneOlderThan(status.startedAt().toEpochMilli());
+        assertThat(batches.getAllValues().get(0)).extracting(DepartmentEmployee::getEmployeeId).containsExactly(1L, 2L);
+        assertThat(batches.getAllValues().get(1)).extracting(DepartmentEmployee::getDepartmentId).containsOnlyNulls();
+        assertThat(batches.getAllValues()).flatExtracting(rows -> rows)
+                .extracting(DepartmentEmployee::getEventTime).containsOnly(status.startedAt().toEpochMilli());
+        verify(repository, never()).upsertIfNewer(anyLong(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("a failed snapshot leaves the existing projection in place and reports FAILED")
+    void failedRebuildKeepsRows() {
+        when(employeeClient.getEmployees("", 2)).thenThrow(new IllegalStateException("employee-service unavailable"));
+
+        projection.startRebuild();
+
+        EmployeeCountProjection.RebuildStatus status = projection.rebuildStatus();
+        assertThat(status.state()).isEqualTo(EmployeeCountProjection.RebuildState.FAILED);
+        assertThat(status.error()).contains("employee-service unavailable");
+        verify(repository, never()).tombstoneOlderThan(anyLong());
+    }
+
+    @Test
+    @DisplayName("a rebuild that is still running is not started a second time")
+    void singleRebuildAtATime() {
+        List<Runnable> queued = new ArrayList<>();
+        EmployeeCountProjection queuedProjection = new EmployeeCountProjection(repository, employeeClient, queued::add, 2);
+
+        EmployeeCountProjection.RebuildStatus first = queuedProjection.startRebuild();
+        EmployeeCountProjection.RebuildStatus second = queuedProjection.startRebuild();
+
+        assertThat(second).isSameAs(first);
+        assertThat(queued).hasSize(1);
+        assertThat(queuedProjection.rebuildStatus().state()).isEqualTo(EmployeeCountProjection.RebuildState.RUNNING);
+    }
+
+    private static EmployeeDTO employee(Long id, Long departmentId) {
+        return EmployeeDTO.builder().id(id).firstName("E").lastName(String.valueOf(id))
+                .email("e" + id + "@company.com").departmentId(departmentId).build();
+    }
+}
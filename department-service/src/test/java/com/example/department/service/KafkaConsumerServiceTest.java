@@ -0,0 +1,71 @@
+package com.example.department.service;
+
+import com.example.department.config.EventCodecProperties;
+import com.example.department.event.EmployeeCreatedEvent;
+import com.example.department.event.EmployeeDeletedEvent;
+import com.example.department.event.codec.BinaryEventCodec;
+import com.example.department.event.codec.EventCodec;
+import com.example.department.event.codec.EventCodecs;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("KafkaConsumerService (employee-events -> employee count projection)")
+class KafkaConsumerServiceTest {
+
+    private final EmployeeCountProjection projection = mock(EmployeeCountProjection.class);
+    private final Acknowledgment ack = mock(Acknowledgment.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EventCodecs eventCodecs = new EventCodecs(new ObjectMapper(), new EventCodecProperties());
+    private final KafkaConsumerService service = new KafkaConsumerService(eventCodecs, meterRegistry, projection);
+
+    @Test
+    @DisplayName("undecodable records are skipped, the rest is applied and the batch acknowledged once")
+    void skipsUndecodableRecords() {
+        var records = List.of(
+                record(0, new EmployeeCreatedEvent(1L, "a@company.com", 10L, "A", "B", 1L)),
+                new ConsumerRecord<String, byte[]>("employee-events", 0, 1, "EMPLOYEE_CREATED",
+                        "not json".getBytes(StandardCharsets.UTF_8)),
+                record(2, new EmployeeDeletedEvent(1L, "a@company.com", 10L, "A", "B", 2L)));
+
+        service.handleEmployeeEvents(records, ack);
+
+        verify(projection, times(2)).apply(any());
+        verify(ack, times(1)).acknowledge();
+        assertThat(meterRegistry.get("kafka.consumer.records.failed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("a projection failure is not skipped: the error handler gets the failed index and nothing is acknowledged")
+    void projectionFailureIsRetried() {
+        var created = new EmployeeCreatedEvent(1L, "a@company.com", 10L, "A", "B", 1L);
+        var deleted = new EmployeeDeletedEvent(2L, "c@company.com", 10L, "C", "D", 2L);
+        doThrow(new DataAccessResourceFailureException("db down")).when(projection).apply(deleted);
+
+        assertThatThrownBy(() -> service.handleEmployeeEvents(List.of(record(0, created), record(1, deleted)), ack))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> assertThat(e.getIndex()).isEqualTo(1));
+
+        verify(projection).apply(created);
+        verify(ack, never()).acknowledge();
+    }
+
+    private ConsumerRecord<String, byte[]> record(long offset, Object event) {
+        EventCodec binary = eventCodecs.forContentType(BinaryEventCodec.CONTENT_TYPE);
+        var record = new ConsumerRecord<String, byte[]>("employee-events", 0, offset, "key", binary.encode(event));
+        record.headers().add(EventCodec.CONTENT_TYPE_HEADER, binary.contentType().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
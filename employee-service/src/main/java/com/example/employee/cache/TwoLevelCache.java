@@ -0,0 +1,181 @@
+package com.example.employee.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * L1（进程内 Caffeine）+ L2（Redis）两级缓存
+ * 读：L1 -> L2（命中后回填 L1）-> 加载；写/失效：先写 L2 再写 L1，然后广播给其他实例清掉它们的 L1
+ * L1 的键统一用 String.valueOf(key)，与 RedisCache 生成的键一致，失效消息里也只传字符串
+ * L1 存的是序列化后的字节（与 L2 同一个序列化器），每次命中都反序列化出新对象：
+ * 调用方修改拿到的 DTO 不会改到缓存里的值，也不会影响其他线程
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, byte[]> local;
+    private final RedisSerializer<Object> localSerializer;
+    private final Cache remote;
+    // 参数为失效的 key，null 表示清空整个缓存
+    private final Consumer<String> invalidations;
+
+    private final TierStats l1;
+    private final TierStats l2;
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, byte[]> local,
+                         RedisSerializer<Object> localSerializer,
+                         Cache remote,
+                         Consumer<String> invalidations,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.local = local;
+        this.localSerializer = localSerializer;
+        this.remote = remote;
+        this.invalidations = invalidations;
+        this.l1 = new TierStats(meterRegistry, name, "l1");
+        this.l2 = new TierStats(meterRegistry, name, "l2");
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name + ".l1");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        long start = System.nanoTime();
+        byte[] bytes = local.getIfPresent(localKey);
+        l1.record(start, bytes != null);
+        if (bytes != null) {
+            return new SimpleValueWrapper(localSerializer.deserialize(bytes));
+        }
+
+        start = System.nanoTime();
+        ValueWrapper wrapper = remote.get(key);
+        l2.record(start, wrapper != null);
+        if (wrapper != null && wrapper.get() != null) {
+            local.put(localKey, localSerializer.serialize(wrapper.get()));
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        // 并发加载的合并由调用方负责（见 SingleFlight）
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        if (value != null) {
+            local.put(localKey(key), localSerializer.serialize(value));
+        }
+        invalidations.accept(localKey(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        invalidations.accept(localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidations.accept(null);
+    }
+
+    // 收到其他实例的失效消息：只清本地 L1，L2 已经由对方写好
+    void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * 单层的命中/未命中计数、命中率和读取耗时
+     * cache.tier.gets{cache,tier,result} / cache.tier.hit.ratio{cache,tier} / cache.tier.latency{cache,tier}
+     */
+    private static final class TierStats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final Timer latency;
+
+        TierStats(MeterRegistry registry, String cache, String tier) {
+            FunctionCounter.builder("cache.tier.gets", hits, LongAdder::sum)
+                    .tags("cache", cache, "tier", tier, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.tier.gets", misses, LongAdder::sum)
+                    .tags("cache", cache, "tier", tier, "result", "miss")
+                    .register(registry);
+            Gauge.builder("cache.tier.hit.ratio", this, TierStats::hitRatio)
+                    .tags("cache", cache, "tier", tier)
+                    .register(registry);
+            this.latency = Timer.builder("cache.tier.latency")
+                    .tags("cache", cache, "tier", tier)
+                    .register(registry);
+        }
+
+        void record(long startNanos, boolean hit) {
+            latency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            (hit ? hits : misses).increment();
+        }
+
+        double hitRatio() {
+            long h = hits.sum();
+            long total = h + misses.sum();
+            return total == 0 ? Double.NaN : (double) h / total;
+        }
+    }
+}
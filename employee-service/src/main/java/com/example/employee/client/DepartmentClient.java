@@ -4,6 +4,10 @@ import com.example.employee.dto.DepartmentDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
 
 // DepartmentClient类的作用是：跨服务 HTTP 请求 （员工服务 -> HTTP请求 -> 部门服务）
 // 因为员工信息中需要包含部门信息，但部门信息存储在另一个微服务（部门服务）中，所以需要通过HTTP调用获取。
@@ -39,4 +43,9 @@ public interface DepartmentClient {
 
     @GetMapping("/{id}")
     DepartmentDTO getDepartment(@PathVariable("id") Long id);
+
+    // 批量查询: GET /api/v1/departments?ids=1&ids=2&ids=3
+    // 列表页一次请求解析所有部门，避免每个员工一次HTTP调用 (N+1)
+    @GetMapping
+    List<DepartmentDTO> getDepartments(@RequestParam("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -3,19 +3,30 @@ package com.example.employee.client;
 import com.example.employee.dto.DepartmentDTO;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
+
 @Component
 public class DepartmentClientFallback implements DepartmentClient {
 
+    public static final String SERVICE_DOWN_CODE = "SERVICE_DOWN";
+
     @Override
     public DepartmentDTO getDepartment(Long id) {
         // 降级处理
         DepartmentDTO dto = new DepartmentDTO();
         dto.setId(id);
         dto.setName("Department Service Unavailable");
-        dto.setCode("SERVICE_DOWN");
+        dto.setCode(SERVICE_DOWN_CODE);
         dto.setDescription("Department service is temporarily down, please try again later");
         return dto;
     }
+
+    @Override
+    public List<DepartmentDTO> getDepartments(Collection<Long> ids) {
+        // 降级处理：每个ID都返回同样的占位信息
+        return ids.stream().map(this::getDepartment).toList();
+    }
 }
 
 // 当部门服务正常时:
@@ -0,0 +1,22 @@
+package com.example.employee.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 事件编码格式（json / binary），按主题配置：
+ * events.codec.topics.employee-events=binary
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "events.codec")
+public class EventCodecProperties {
+
+    private String defaultFormat = "json";
+
+    private Map<String, String> topics = new HashMap<>();
+}
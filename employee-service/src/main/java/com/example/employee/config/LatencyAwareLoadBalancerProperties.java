@@ -0,0 +1,31 @@
+package com.example.employee.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 按延迟选实例的负载均衡（loadbalancer.latency-aware.*），只对 services 中列出的服务生效，其他服务仍是轮询
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "loadbalancer.latency-aware")
+public class LatencyAwareLoadBalancerProperties {
+
+    // 服务名（与 @FeignClient(name) 相同，不区分大小写）
+    private Set<String> services = new LinkedHashSet<>();
+
+    // 延迟 EWMA 的衰减时间常数：越小越快忘掉旧的延迟，慢实例恢复后越快重新分到流量
+    private Duration decay = Duration.ofSeconds(10);
+
+    // 请求失败（连接错误、5xx）时按这个延迟计入，避免快速失败的实例反而显得最快
+    private Duration failurePenalty = Duration.ofSeconds(1);
+
+    public boolean isEnabledFor(String serviceId) {
+        return serviceId != null && services.stream().anyMatch(serviceId::equalsIgnoreCase);
+    }
+}
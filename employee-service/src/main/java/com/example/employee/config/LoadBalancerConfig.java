@@ -0,0 +1,20 @@
+package com.example.employee.config;
+
+import com.example.employee.loadbalancer.InstanceLatencyTracker;
+import com.example.employee.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LatencyAwareLoadBalancerProperties.class)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    // 所有服务共用；作为 LoadBalancerLifecycle 被 Feign（DepartmentClient）在请求开始和结束时回调
+    @Bean
+    public InstanceLatencyTracker instanceLatencyTracker(LatencyAwareLoadBalancerProperties properties) {
+        return new InstanceLatencyTracker(properties.getDecay(), properties.getFailurePenalty());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.employee.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * POST /api/v2/employees/bulk 的结果：汇总、吞吐量和逐行结果（index 为请求中的行号，从0开始）
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportResultDTO {
+    private int total;
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private int failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<RowResult> rows;
+
+    public enum Status { CREATED, DUPLICATE, INVALID, FAILED }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowResult {
+        private int index;
+        private String email;
+        private Status status;
+        private Long id;
+        private String error;
+    }
+}
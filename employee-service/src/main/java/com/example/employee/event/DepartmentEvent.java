@@ -0,0 +1,30 @@
+package com.example.employee.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * department-events 主题上的事件（由 department-service 发布，这里是消费端的副本）
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "eventType")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = DepartmentCreatedEvent.class, name = DepartmentCreatedEvent.TYPE),
+        @JsonSubTypes.Type(value = DepartmentUpdatedEvent.class, name = DepartmentUpdatedEvent.TYPE),
+        @JsonSubTypes.Type(value = DepartmentDeletedEvent.class, name = DepartmentDeletedEvent.TYPE)
+})
+public sealed interface DepartmentEvent permits DepartmentCreatedEvent, DepartmentUpdatedEvent, DepartmentDeletedEvent {
+
+    Long departmentId();
+
+    String name();
+
+    String code();
+
+    String description();
+
+    long timestamp();
+
+    @JsonIgnore
+    String eventType();
+}
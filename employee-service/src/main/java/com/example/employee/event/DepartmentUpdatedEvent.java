@@ -0,0 +1,15 @@
+package com.example.employee.event;
+
+public record DepartmentUpdatedEvent(Long departmentId,
+                                     String name,
+                                     String code,
+                                     String description,
+                                     long timestamp) implements DepartmentEvent {
+
+    public static final String TYPE = "DEPARTMENT_UPDATED";
+
+    @Override
+    public String eventType() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.employee.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * employee-events 主题上的事件
+ * JSON 中 eventType 字段即类型名，与原来 Map 格式的消息保持兼容
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "eventType")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = EmployeeCreatedEvent.class, name = EmployeeCreatedEvent.TYPE),
+        @JsonSubTypes.Type(value = EmployeeUpdatedEvent.class, name = EmployeeUpdatedEvent.TYPE),
+        @JsonSubTypes.Type(value = EmployeeDeletedEvent.class, name = EmployeeDeletedEvent.TYPE)
+})
+public sealed interface EmployeeEvent permits EmployeeCreatedEvent, EmployeeUpdatedEvent, EmployeeDeletedEvent {
+
+    Long employeeId();
+
+    long timestamp();
+
+    @JsonIgnore
+    String eventType();
+}
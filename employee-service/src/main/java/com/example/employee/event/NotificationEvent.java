@@ -0,0 +1,18 @@
+package com.example.employee.event;
+
+/**
+ * notifications 主题上的事件，eventType 为通知渠道（EMAIL / SYSTEM）
+ */
+public record NotificationEvent(String eventType,
+                                String recipient,
+                                String message,
+                                long timestamp) {
+
+    public static NotificationEvent email(String recipient, String message) {
+        return new NotificationEvent("EMAIL", recipient, message, System.currentTimeMillis());
+    }
+
+    public static NotificationEvent system(String recipient, String message) {
+        return new NotificationEvent("SYSTEM", recipient, message, System.currentTimeMillis());
+    }
+}
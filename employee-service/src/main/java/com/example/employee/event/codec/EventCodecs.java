@@ -0,0 +1,54 @@
+package com.example.employee.event.codec;
+
+import com.example.employee.config.EventCodecProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 按主题选择编码器（生产端），按 contentType header 选择解码器（消费端）
+ * 消费端不依赖本地配置，切换某个主题的格式时无需两边同时发布
+ */
+@Component
+public class EventCodecs {
+
+    private final Map<String, EventCodec> byFormat;
+    private final Map<String, EventCodec> byContentType;
+    private final EventCodecProperties properties;
+    private final EventCodec json;
+
+    public EventCodecs(ObjectMapper objectMapper, EventCodecProperties properties) {
+        this.json = new JsonEventCodec(objectMapper);
+        EventCodec binary = new BinaryEventCodec();
+        this.byFormat = Map.of("json", json, "binary", binary);
+        this.byContentType = Map.of(json.contentType(), json, binary.contentType(), binary);
+        this.properties = properties;
+        forFormat(properties.getDefaultFormat());
+        properties.getTopics().values().forEach(this::forFormat);
+    }
+
+    public EventCodec forTopic(String topic) {
+        return forFormat(properties.getTopics().getOrDefault(topic, properties.getDefaultFormat()));
+    }
+
+    // 没有 header 的消息来自切换前的 JsonSerializer，按 JSON 处理
+    public EventCodec forContentType(String contentType) {
+        if (contentType == null) {
+            return json;
+        }
+        EventCodec codec = byContentType.get(contentType);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unsupported event content type: " + contentType);
+        }
+        return codec;
+    }
+
+    private EventCodec forFormat(String format) {
+        EventCodec codec = byFormat.get(format);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown event codec format '" + format + "', expected one of " + byFormat.keySet());
+        }
+        return codec;
+    }
+}
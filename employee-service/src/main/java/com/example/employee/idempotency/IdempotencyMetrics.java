@@ -0,0 +1,19 @@
+package com.example.employee.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// 两种实现共用的指标命名：idempotency.store.hits / misses / conflicts / evictions / size，按 store 标签区分
+final class IdempotencyMetrics {
+
+    static final String PREFIX = "idempotency.store";
+
+    private IdempotencyMetrics() {
+    }
+
+    static Counter counter(MeterRegistry registry, String name, String store) {
+        return Counter.builder(PREFIX + "." + name)
+                .tag("store", store)
+                .register(registry);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.employee.idempotency;
+
+import com.example.employee.dto.EmployeeDTO;
+
+import java.util.Optional;
+
+/**
+ * POST /employees 的 Idempotency-Key 存储
+ *
+ * 一个 key 的生命周期：tryAcquire（占用 in-flight 锁）→ complete（保存结果）或 release（失败，允许重试）。
+ * 已完成的结果在 TTL 内对相同 key 的重放请求直接返回。
+ * 每次占用得到一个随机 token，complete / release 只在锁仍属于这个 token 时生效：
+ * 锁超时（lock-timeout）后被另一个请求占用时，原来的请求不会删掉或覆盖别人的锁。
+ */
+public interface IdempotencyStore {
+
+    /**
+     * 查询已完成的结果；key 不存在或仍在处理中时返回 empty
+     */
+    Optional<EmployeeDTO> find(String key);
+
+    /**
+     * 尝试占用 key，成功返回锁的 token；key 已被其他请求占用或已完成时返回 empty
+     */
+    Optional<String> tryAcquire(String key);
+
+    /**
+     * 请求成功：保存结果（同时释放 in-flight 锁）；锁已被其他 token 占用时不保存
+     */
+    void complete(String key, String token, EmployeeDTO result);
+
+    /**
+     * 请求失败：释放 in-flight 锁，客户端可以用同一个 key 重试；锁已不属于这个 token 时什么也不做
+     */
+    void release(String key, String token);
+}
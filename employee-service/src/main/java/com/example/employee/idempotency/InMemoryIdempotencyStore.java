@@ -0,0 +1,110 @@
+package com.example.employee.idempotency;
+
+import com.example.employee.dto.EmployeeDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 单实例内存实现：容量上限 + 过期时间
+ * Caffeine 内部按段加锁（ConcurrentHashMap + 分段读写缓冲），高并发创建不会在一把锁上排队
+ * in-flight 锁和已完成结果使用不同的过期时间
+ */
+@Component
+@ConditionalOnProperty(name = "employee.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private sealed interface Entry permits InFlight, Completed {}
+
+    private record InFlight(String token) implements Entry {}
+
+    private record Completed(EmployeeDTO result) implements Entry {}
+
+    private final Cache<String, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter conflicts;
+    private final Counter evictions;
+
+    public InMemoryIdempotencyStore(MeterRegistry meterRegistry,
+                                    @Value("${employee.idempotency.maximum-size:100000}") long maximumSize,
+                                    @Value("${employee.idempotency.ttl:24h}") Duration ttl,
+                                    @Value("${employee.idempotency.lock-timeout:30s}") Duration lockTimeout) {
+        this.evictions = IdempotencyMetrics.counter(meterRegistry, "evictions", "memory");
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry value, long currentTime) {
+                        return (value instanceof InFlight ? lockTimeout : ttl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .removalListener((String key, Entry value, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        evictions.increment();
+                    }
+                })
+                .build();
+        this.hits = IdempotencyMetrics.counter(meterRegistry, "hits", "memory");
+        this.misses = IdempotencyMetrics.counter(meterRegistry, "misses", "memory");
+        this.conflicts = IdempotencyMetrics.counter(meterRegistry, "conflicts", "memory");
+        Gauge.builder(IdempotencyMetrics.PREFIX + ".size", entries, Cache::estimatedSize)
+                .description("Idempotency keys currently held (in-flight + completed)")
+                .tag("store", "memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<EmployeeDTO> find(String key) {
+        if (entries.getIfPresent(key) instanceof Completed completed) {
+            hits.increment();
+            return Optional.of(completed.result());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<String> tryAcquire(String key) {
+        String token = UUID.randomUUID().toString();
+        boolean acquired = entries.asMap().putIfAbsent(key, new InFlight(token)) == null;
+        if (!acquired) {
+            conflicts.increment();
+            return Optional.empty();
+        }
+        return Optional.of(token);
+    }
+
+    @Override
+    public void complete(String key, String token, EmployeeDTO result) {
+        // 锁已超时且被其他请求占用时保留对方的锁
+        entries.asMap().compute(key, (k, current) ->
+                current == null || current.equals(new InFlight(token)) ? new Completed(result) : current);
+    }
+
+    @Override
+    public void release(String key, String token) {
+        entries.asMap().remove(key, new InFlight(token));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.employee.idempotency;
+
+import com.example.employee.dto.EmployeeDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Redis 实现：多副本共享，重启不丢
+ * in-flight 锁用 SET NX PX，相同 key 的并发重试只有一个能进入数据库写入
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "employee.idempotency.store", havingValue = "redis")
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    private static final String KEY_PREFIX = "idempotency:employee:";
+    // in-flight 锁的值：前缀 + 每次占用的随机 token
+    private static final String IN_FLIGHT_PREFIX = "__IN_FLIGHT__:";
+
+    // 只删除仍由这个 token 持有的锁，不会误删已完成的结果或其他请求的锁
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    // 锁仍属于这个 token（或已过期且没人占用）时写入结果；锁已被其他请求占用时返回 0
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('get', KEYS[1]) "
+                    + "if current == ARGV[1] or current == false then "
+                    + "redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1 else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter conflicts;
+
+    public RedisIdempotencyStore(StringRedisTemplate redisTemplate,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${employee.idempotency.ttl:24h}") Duration ttl,
+                                 @Value("${employee.idempotency.lock-timeout:30s}") Duration lockTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.hits = IdempotencyMetrics.counter(meterRegistry, "hits", "redis");
+        this.misses = IdempotencyMetrics.counter(meterRegistry, "misses", "redis");
+        this.conflicts = IdempotencyMetrics.counter(meterRegistry, "conflicts", "redis");
+    }
+
+    @Override
+    public Optional<EmployeeDTO> find(String key) {
+        String value = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+        if (value == null || value.startsWith(IN_FLIGHT_PREFIX)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        try {
+            EmployeeDTO result = objectMapper.readValue(value, EmployeeDTO.class);
+            hits.increment();
+            return Optional.of(result);
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable idempotency entry {}: {}", key, e.getMessage());
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<String> tryAcquire(String key) {
+        String token = IN_FLIGHT_PREFIX + UUID.randomUUID();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + key, token, lockTimeout);
+        if (!Boolean.TRUE.equals(acquired)) {
+            conflicts.increment();
+            return Optional.empty();
+        }
+        return Optional.of(token);
+    }
+
+    @Override
+    public void complete(String key, String token, EmployeeDTO result) {
+        String value;
+        try {
+            value = objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            // 结果写不进去时释放锁，最坏情况是重放请求得到 409 Duplicate Email
+            log.warn("Could not store idempotency result for {}: {}", key, e.getMessage());
+            release(key, token);
+            return;
+        }
+        Long stored = redisTemplate.execute(COMPLETE_SCRIPT, List.of(KEY_PREFIX + key),
+                token, value, Long.toString(ttl.toMillis()));
+        if (!Long.valueOf(1).equals(stored)) {
+            log.warn("Idempotency lock for {} expired and was taken by another request; result not stored", key);
+        }
+    }
+
+    @Override
+    public void release(String key, String token) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + key), token);
+    }
+}
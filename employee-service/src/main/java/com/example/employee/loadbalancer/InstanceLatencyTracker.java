@@ -0,0 +1,127 @@
+package com.example.employee.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 记录每个服务实例的未完成请求数和峰值敏感的延迟 EWMA（peak EWMA），供 PeakEwmaLoadBalancer 计算负载
+ * 作为 LoadBalancerLifecycle 由负载均衡调用方（Feign 的 FeignBlockingLoadBalancerClient）在请求开始和结束时回调
+ * - 新的延迟比当前值高时直接取新值，慢下来的实例立刻变贵；比当前值低时按时间衰减平滑
+ * - 读取时按距上次采样的时间向 0 衰减，一段时间没有流量的实例会重新被尝试
+ * - 失败和 5xx 至少按 failure-penalty 计入
+ */
+public class InstanceLatencyTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private static final double MIN_LATENCY_NANOS = Duration.ofMillis(1).toNanos();
+    private static final int STALE_OUTSTANDING_DECAYS = 10;
+
+    private final long decayNanos;
+    private final long failurePenaltyNanos;
+    private final Map<String, InstanceStats> instances = new ConcurrentHashMap<>();
+
+    public InstanceLatencyTracker(Duration decay, Duration failurePenalty) {
+        this.decayNanos = decay.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+    }
+
+    /**
+     * 实例当前的负载：延迟 EWMA ×（未完成请求数 + 1）；没有延迟数据的实例按 1ms 计
+     */
+    public double cost(ServiceInstance instance) {
+        InstanceStats stats = instances.get(key(instance));
+        if (stats == null) {
+            return MIN_LATENCY_NANOS;
+        }
+        return stats.cost(System.nanoTime());
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext timed && timed.getRequestStartTime() == 0) {
+            timed.setRequestStartTime(System.nanoTime());
+        }
+        instances.computeIfAbsent(key(lbResponse.getServer()), k -> new InstanceStats()).started();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completion) {
+        Response<ServiceInstance> lbResponse = completion.getLoadBalancerResponse();
+        if (completion.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceStats stats = instances.get(key(lbResponse.getServer()));
+        if (stats == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long latency = completion.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed
+                && timed.getRequestStartTime() != 0 ? now - timed.getRequestStartTime() : -1;
+        if (failed(completion)) {
+            latency = Math.max(latency, failurePenaltyNanos);
+        }
+        stats.completed(latency, now);
+    }
+
+    private static boolean failed(CompletionContext<Object, ServiceInstance, Object> completion) {
+        if (completion.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        return completion.getClientResponse() instanceof ResponseData response
+                && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError();
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    private final class InstanceStats {
+
+        private int outstanding;
+        // 0 表示还没有延迟数据
+        private double ewmaNanos;
+        private long sampledAt;
+        private long lastActivity = System.nanoTime();
+
+        synchronized void started() {
+            outstanding++;
+            lastActivity = System.nanoTime();
+        }
+
+        // latency < 0 表示没有计时（只减少未完成请求数）
+        synchronized void completed(long latency, long now) {
+            outstanding = Math.max(0, outstanding - 1);
+            lastActivity = now;
+            if (latency < 0) {
+                return;
+            }
+            double weight = Math.exp(-(double) (now - sampledAt) / decayNanos);
+            ewmaNanos = latency > ewmaNanos ? latency : ewmaNanos * weight + latency * (1 - weight);
+            sampledAt = now;
+        }
+
+        synchronized double cost(long now) {
+            // 被取消的请求不一定有 onComplete 回调；长时间没有任何进展时不再相信未完成计数
+            if (outstanding > 0 && now - lastActivity > STALE_OUTSTANDING_DECAYS * decayNanos) {
+                outstanding = 0;
+            }
+            double decayed = ewmaNanos * Math.exp(-(double) (now - sampledAt) / decayNanos);
+            return Math.max(decayed, MIN_LATENCY_NANOS) * (outstanding + 1);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.employee.pagination;
+
+import java.util.List;
+
+/**
+ * 游标分页结果：没有 totalElements/totalPages（不执行 COUNT），nextCursor 为 null 表示已到最后一页
+ */
+public record CursorPage<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+}
@@ -0,0 +1,79 @@
+package com.example.employee.pagination;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public final class KeysetSpecifications {
+
+    private KeysetSpecifications() {
+    }
+
+    /**
+     * 位于游标之后的行
+     * 多加一个 col >= :value 条件，让 MySQL 可以在 (col, id) 索引上做范围扫描，而不是把 OR 展开成全表过滤
+     */
+    public static <T> Specification<T> after(Keyset keyset) {
+        boolean asc = keyset.direction().isAscending();
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            Predicate idAfter = asc ? cb.greaterThan(id, keyset.id()) : cb.lessThan(id, keyset.id());
+            if ("id".equals(keyset.property())) {
+                return idAfter;
+            }
+            Path<String> column = root.get(keyset.property());
+            String value = keyset.value();
+            Predicate range = asc ? cb.greaterThanOrEqualTo(column, value) : cb.lessThanOrEqualTo(column, value);
+            Predicate strictlyAfter = asc ? cb.greaterThan(column, value) : cb.lessThan(column, value);
+            return cb.and(range, cb.or(strictlyAfter, idAfter));
+        };
+    }
+
+    /**
+     * 执行一次 LIMIT limit + 1 查询，多出的一行只用来判断 hasNext，不执行 COUNT
+     * 供各实体的 Repository 自定义片段（findSlice）复用
+     */
+    public static <T> Slice<T> findSlice(EntityManager entityManager, Class<T> type,
+                                         Specification<T> spec, Sort sort, int limit) {
+        return findSlice(entityManager, type, spec, PageRequest.of(0, limit, sort));
+    }
+
+    // 同上，带 OFFSET：普通分页请求不需要总数时（?count=false）使用
+    public static <T> Slice<T> findSlice(EntityManager entityManager, Class<T> type,
+                                         Specification<T> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        }
+        List<T> rows = typedQuery.getResultList();
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        List<T> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.employee.repo;
+
+import com.example.employee.exception.InvalidRequestParameterException;
+
+import java.util.Locale;
+
+/**
+ * 员工列表的过滤参数，null 表示不过滤
+ * 新增过滤条件只需在这里加字段、在 EmployeeSpecifications 里加一个谓词，不再需要组合出新的 Repository 方法
+ */
+public record EmployeeFilter(String email, String lastName, LastNameMatch lastNameMatch, Long departmentId) {
+
+    public static final EmployeeFilter NONE = new EmployeeFilter(null, null, LastNameMatch.CONTAINS, null);
+
+    public EmployeeFilter {
+        if (lastNameMatch == null) {
+            lastNameMatch = LastNameMatch.CONTAINS;
+        }
+    }
+
+    /**
+     * CONTAINS（默认，与原来的 ?lastName= 行为一致）: last_name LIKE '%xx%'，只能全表扫描
+     * PREFIX（lastNameMatch=prefix 显式开启）: last_name LIKE 'xx%'，可以走 (last_name, id) 索引
+     */
+    public enum LastNameMatch {
+        PREFIX, CONTAINS;
+
+        public static LastNameMatch of(String value) {
+            try {
+                return LastNameMatch.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequestParameterException("Unsupported lastNameMatch '" + value + "', expected prefix or contains");
+            }
+        }
+    }
+}
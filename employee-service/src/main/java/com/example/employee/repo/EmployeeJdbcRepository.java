@@ -0,0 +1,90 @@
+package com.example.employee.repo;
+
+import com.example.employee.domain.Employee;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 绕过 JPA 的 JDBC 访问：批量写入和全表流式读取
+ * Employee 使用 IDENTITY 主键，Hibernate 无法对其批量 INSERT；这里用一次 executeBatch 写入整块，
+ * 配合 rewriteBatchedStatements=true 由驱动改写为多行 INSERT，并取回自增ID
+ */
+@Repository
+public class EmployeeJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO employees (first_name, last_name, email, department_id) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_ALL_SQL =
+            "SELECT id, first_name, last_name, email, department_id FROM employees ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    // MySQL 驱动只有在 fetchSize == Integer.MIN_VALUE 时才逐行流式返回结果，否则会把整个结果集读进内存
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public EmployeeJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * 批量插入，并把生成的ID回填到传入的实体上（顺序与传入顺序一致）
+     * 需要在事务中调用，才能和 JPA 及 outbox 写入共用同一个连接
+     */
+    public void insertAll(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Employee e : employees) {
+                    ps.setString(1, e.getFirstName());
+                    ps.setString(2, e.getLastName());
+                    ps.setString(3, e.getEmail());
+                    if (e.getDepartmentId() == null) {
+                        ps.setNull(4, Types.BIGINT);
+                    } else {
+                        ps.setLong(4, e.getDepartmentId());
+                    }
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < employees.size()) {
+                        employees.get(i++).setId(keys.getLong(1));
+                    }
+                    if (i != employees.size()) {
+                        throw new IllegalStateException("Expected " + employees.size() + " generated keys but got " + i);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 按ID顺序逐行读取所有员工（只进游标），内存占用与表大小无关
+     * 读取期间一直占用一个数据库连接；回调写的是响应流时，客户端越慢连接占用越久
+     */
+    public void forEach(Consumer<Employee> action) {
+        streamingJdbcTemplate.query(SELECT_ALL_SQL, rs -> {
+            action.accept(Employee.builder()
+                    .id(rs.getLong("id"))
+                    .firstName(rs.getString("first_name"))
+                    .lastName(rs.getString("last_name"))
+                    .email(rs.getString("email"))
+                    .departmentId(rs.getObject("department_id", Long.class))
+                    .build());
+        });
+    }
+}
@@ -4,25 +4,21 @@ import com.example.employee.domain.Employee;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+// 1. GET /employees 的过滤走 JpaSpecificationExecutor + EmployeeSpecifications，不再为每种过滤组合定义派生查询
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee>,
+        EmployeeRepositoryCustom {
     boolean existsByEmail(String email);
 
-    // 1. GET /employees — pagination (page, size), sorting (sort=lastName,asc), filters (email, lastName contains, departmentId).
-    // Filter methods
-    Page<Employee> findByEmail(String email, Pageable pageable);
-    Page<Employee> findByLastNameContainingIgnoreCase(String lastName, Pageable pageable);
-    Page<Employee> findByDepartmentId(Long departmentId, Pageable pageable);
-
-    // Combined filters
-    Page<Employee> findByEmailAndLastNameContainingIgnoreCase(String email, String lastName, Pageable pageable);
-    Page<Employee> findByEmailAndDepartmentId(String email, Long departmentId, Pageable pageable);
-    Page<Employee> findByLastNameContainingIgnoreCaseAndDepartmentId(String lastName, Long departmentId, Pageable pageable);
-    Page<Employee> findByEmailAndLastNameContainingIgnoreCaseAndDepartmentId(String email, String lastName, Long departmentId, Pageable pageable);
+    // 批量导入：一次查询找出已存在的邮箱
+    @Query("SELECT e.email FROM Employee e WHERE e.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 
     // 7. GET /employees/search — convenience endpoint for case-insensitive name/email search
     @Query("SELECT e FROM Employee e WHERE " +
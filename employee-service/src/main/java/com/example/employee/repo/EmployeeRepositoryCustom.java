@@ -0,0 +1,16 @@
+package com.example.employee.repo;
+
+import com.example.employee.domain.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface EmployeeRepositoryCustom {
+
+    // 游标分页：LIMIT limit + 1，不执行 COUNT 查询
+    Slice<Employee> findSlice(Specification<Employee> spec, Sort sort, int limit);
+
+    // OFFSET 分页但跳过 COUNT（?count=false）：多取一行判断 hasNext
+    Slice<Employee> findSlice(Specification<Employee> spec, Pageable pageable);
+}
@@ -0,0 +1,26 @@
+package com.example.employee.repo;
+
+import com.example.employee.domain.Employee;
+import com.example.employee.pagination.KeysetSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Employee> findSlice(Specification<Employee> spec, Sort sort, int limit) {
+        return KeysetSpecifications.findSlice(entityManager, Employee.class, spec, sort, limit);
+    }
+
+    @Override
+    public Slice<Employee> findSlice(Specification<Employee> spec, Pageable pageable) {
+        return KeysetSpecifications.findSlice(entityManager, Employee.class, spec, pageable);
+    }
+}
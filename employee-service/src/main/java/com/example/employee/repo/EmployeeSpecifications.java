@@ -0,0 +1,57 @@
+package com.example.employee.repo;
+
+import com.example.employee.domain.Employee;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * 员工列表的过滤条件，参数为 null 时返回 null（Specification.where/and 会忽略）
+ * 所有条件组合成一条 SQL，分页查询和 COUNT 共用同一个 WHERE
+ */
+public final class EmployeeSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private EmployeeSpecifications() {
+    }
+
+    public static Specification<Employee> filter(EmployeeFilter filter) {
+        Specification<Employee> lastName = filter.lastNameMatch() == EmployeeFilter.LastNameMatch.CONTAINS
+                ? lastNameContains(filter.lastName())
+                : lastNameStartsWith(filter.lastName());
+        return Specification.where(emailEquals(filter.email()))
+                .and(lastName)
+                .and(inDepartment(filter.departmentId()));
+    }
+
+    public static Specification<Employee> emailEquals(String email) {
+        return email == null ? null : (root, query, cb) -> cb.equal(root.get("email"), email);
+    }
+
+    // 不包 LOWER()：列的排序规则（utf8mb4_0900_ai_ci）本身大小写不敏感，包了函数索引就用不上
+    public static Specification<Employee> lastNameStartsWith(String prefix) {
+        return prefix == null ? null
+                : (root, query, cb) -> cb.like(root.get("lastName"), escapeLike(prefix) + "%", LIKE_ESCAPE);
+    }
+
+    public static Specification<Employee> lastNameContains(String lastName) {
+        return lastName == null ? null
+                : (root, query, cb) -> cb.like(cb.lower(root.get("lastName")),
+                "%" + escapeLike(lastName.toLowerCase()) + "%", LIKE_ESCAPE);
+    }
+
+    public static Specification<Employee> inDepartment(Long departmentId) {
+        return departmentId == null ? null : (root, query, cb) -> cb.equal(root.get("departmentId"), departmentId);
+    }
+
+    // 用户输入里的 % 和 _ 按字面匹配
+    static String escapeLike(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                sb.append(LIKE_ESCAPE);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
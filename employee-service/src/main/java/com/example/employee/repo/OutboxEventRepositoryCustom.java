@@ -0,0 +1,11 @@
+package com.example.employee.repo;
+
+import com.example.employee.domain.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxEventRepositoryCustom {
+
+    // 批量追加事件（JDBC batch），用于批量导入等一次产生大量事件的场景
+    void appendAll(List<OutboxEvent> events);
+}
@@ -0,0 +1,29 @@
+package com.example.employee.repo;
+
+import com.example.employee.domain.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class OutboxEventRepositoryImpl implements OutboxEventRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (topic, event_key, content_type, payload) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void appendAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getTopic());
+            ps.setString(2, event.getEventKey());
+            ps.setString(3, event.getContentType());
+            ps.setBytes(4, event.getPayload());
+        });
+    }
+}
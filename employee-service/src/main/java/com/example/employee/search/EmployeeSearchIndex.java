@@ -0,0 +1,147 @@
+package com.example.employee.search;
+
+import com.example.employee.domain.Employee;
+import com.example.employee.repo.EmployeeJdbcRepository;
+import com.example.employee.service.AfterCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * GET /employees/search 的进程内全文索引（见 NGramIndex）
+ * 启动完成后在后台线程从数据库全量构建；构建完成前（或关闭索引时）走原来的 SQL 查询
+ * EmployeeService / 批量导入在事务内调用 put/remove，事务提交后才真正写入索引
+ * 多实例部署时每个实例各自维护一份，只反映本实例处理的写操作 + 启动时的全量数据
+ */
+@Slf4j
+@Component
+public class EmployeeSearchIndex {
+
+    private final EmployeeJdbcRepository employeeJdbcRepository;
+    private final boolean enabled;
+    private final Timer indexQueries;
+    private final Timer databaseQueries;
+    private final Timer rebuilds;
+
+    // 写操作串行化；重建期间的写操作同时记到 pending，新索引建好后重放
+    private final Object writeLock = new Object();
+    private List<Consumer<NGramIndex>> pending;
+
+    // null 表示索引还在预热
+    private volatile NGramIndex active;
+
+    public EmployeeSearchIndex(EmployeeJdbcRepository employeeJdbcRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${employee.search.index.enabled:true}") boolean enabled) {
+        this.employeeJdbcRepository = employeeJdbcRepository;
+        this.enabled = enabled;
+        this.indexQueries = Timer.builder("employee.search.query").tag("source", "index").register(meterRegistry);
+        this.databaseQueries = Timer.builder("employee.search.query").tag("source", "database").register(meterRegistry);
+        this.rebuilds = Timer.builder("employee.search.index.rebuild").register(meterRegistry);
+        Gauge.builder("employee.search.index.documents", this, i -> i.active == null ? 0 : i.active.size())
+                .register(meterRegistry);
+        Gauge.builder("employee.search.index.grams", this, i -> i.active == null ? 0 : i.active.gramCount())
+                .register(meterRegistry);
+        Gauge.builder("employee.search.index.ready", this, i -> i.isReady() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.info("Employee search index disabled, /employees/search uses SQL");
+            return;
+        }
+        Thread builder = new Thread(this::rebuild, "employee-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    public boolean isReady() {
+        return active != null;
+    }
+
+    /**
+     * 从数据库全量重建（流式读取），完成后整体替换当前索引
+     */
+    public void rebuild() {
+        synchronized (writeLock) {
+            if (pending != null) {
+                return; // 已经在重建
+            }
+            pending = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        try {
+            NGramIndex fresh = new NGramIndex();
+            employeeJdbcRepository.forEach(e -> fresh.put(NGramIndex.Entry.of(e)));
+            synchronized (writeLock) {
+                pending.forEach(op -> op.accept(fresh));
+                active = fresh;
+            }
+            long elapsed = System.nanoTime() - start;
+            rebuilds.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Employee search index built: {} employees, {} grams in {} ms",
+                    fresh.size(), fresh.gramCount(), elapsed / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Employee search index build failed, /employees/search keeps using SQL", e);
+        } finally {
+            synchronized (writeLock) {
+                pending = null;
+            }
+        }
+    }
+
+    public void put(Employee employee) {
+        NGramIndex.Entry entry = NGramIndex.Entry.of(employee);
+        AfterCommit.run(() -> apply(index -> index.put(entry)));
+    }
+
+    public void putAll(Collection<Employee> employees) {
+        List<NGramIndex.Entry> entries = employees.stream().map(NGramIndex.Entry::of).toList();
+        AfterCommit.run(() -> apply(index -> entries.forEach(index::put)));
+    }
+
+    public void remove(Long id) {
+        AfterCommit.run(() -> apply(index -> index.remove(id)));
+    }
+
+    /**
+     * 索引就绪时按相关度排序返回；预热中、关闭索引或请求指定了 sort 时走 SQL
+     */
+    public Page<Employee> search(String query, Pageable pageable, Supplier<Page<Employee>> database) {
+        NGramIndex index = active;
+        if (index == null || pageable.getSort().isSorted()) {
+            return databaseQueries.record(database);
+        }
+        return indexQueries.record(() -> index.search(query, pageable));
+    }
+
+    private void apply(Consumer<NGramIndex> op) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (pending != null) {
+                pending.add(op);
+            }
+            if (active != null) {
+                op.accept(active);
+            }
+        }
+    }
+}
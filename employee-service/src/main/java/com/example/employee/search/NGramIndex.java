@@ -0,0 +1,211 @@
+package com.example.employee.search;
+
+import com.example.employee.domain.Employee;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * firstName / lastName / email 的三元组（trigram）倒排索引
+ * 查询语义与 SQL 的 LOWER(col) LIKE '%q%' 一致：先按查询串的三元组求交集得到候选，再逐个确认子串匹配
+ * 少于 3 个字符的查询没有三元组可用，直接在内存里扫一遍（仍然比全表扫描便宜得多）
+ * 写操作由 EmployeeSearchIndex 串行化，读操作无锁并发
+ */
+final class NGramIndex {
+
+    static final int GRAM = 3;
+
+    // 排序权重：姓 > 名 > 邮箱
+    private static final int LAST_NAME_WEIGHT = 3;
+    private static final int FIRST_NAME_WEIGHT = 2;
+    private static final int EMAIL_WEIGHT = 1;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * 索引中保存的员工快照（小写字段用于匹配，原始字段用于返回结果）
+     */
+    record Entry(Long id, String firstName, String lastName, String email, Long departmentId,
+                 String firstNameKey, String lastNameKey, String emailKey) {
+
+        static Entry of(Employee e) {
+            return new Entry(e.getId(), e.getFirstName(), e.getLastName(), e.getEmail(), e.getDepartmentId(),
+                    normalize(e.getFirstName()), normalize(e.getLastName()), normalize(e.getEmail()));
+        }
+
+        Employee toEmployee() {
+            return new Employee(id, firstName, lastName, email, departmentId);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            addGrams(firstNameKey, grams);
+            addGrams(lastNameKey, grams);
+            addGrams(emailKey, grams);
+            return grams;
+        }
+
+        boolean matches(String q) {
+            return firstNameKey.contains(q) || lastNameKey.contains(q) || emailKey.contains(q);
+        }
+
+        // 完全相等 > 字段前缀 > 词首（空格、点、@ 等分隔之后）> 任意位置
+        int score(String q) {
+            return LAST_NAME_WEIGHT * fieldScore(lastNameKey, q)
+                    + FIRST_NAME_WEIGHT * fieldScore(firstNameKey, q)
+                    + EMAIL_WEIGHT * fieldScore(emailKey, q);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    int gramCount() {
+        return postings.size();
+    }
+
+    void put(Entry entry) {
+        Entry previous = entries.put(entry.id(), entry);
+        Set<String> grams = entry.grams();
+        if (previous != null) {
+            Set<String> stale = previous.grams();
+            stale.removeAll(grams);
+            unlink(entry.id(), stale);
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(entry.id());
+        }
+    }
+
+    void remove(Long id) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            unlink(id, previous.grams());
+        }
+    }
+
+    Page<Employee> search(String query, Pageable pageable) {
+        String q = normalize(query);
+        List<Entry> hits = q.length() < GRAM ? scan(q) : lookup(q);
+
+        List<Entry> ranked = hits.stream()
+                .map(entry -> new Scored(entry, entry.score(q)))
+                .sorted(Comparator.comparingInt(Scored::score).reversed()
+                        .thenComparing(s -> s.entry().lastNameKey())
+                        .thenComparing(s -> s.entry().firstNameKey())
+                        .thenComparing(s -> s.entry().id()))
+                .map(Scored::entry)
+                .toList();
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(ranked.stream().map(Entry::toEmployee).toList(), pageable, ranked.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<Employee> content = ranked.subList(from, to).stream().map(Entry::toEmployee).toList();
+        return new PageImpl<>(content, pageable, ranked.size());
+    }
+
+    private List<Entry> lookup(String q) {
+        Set<String> queryGrams = new HashSet<>();
+        addGrams(q, queryGrams);
+
+        // 从最短的倒排表开始求交集
+        List<Set<Long>> lists = new ArrayList<>(queryGrams.size());
+        for (String gram : queryGrams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Entry> hits = new ArrayList<>();
+        for (Long id : lists.get(0)) {
+            if (containsAll(lists, id)) {
+                Entry entry = entries.get(id);
+                // 三元组都命中不代表连续出现，最后按子串确认
+                if (entry != null && entry.matches(q)) {
+                    hits.add(entry);
+                }
+            }
+        }
+        return hits;
+    }
+
+    private List<Entry> scan(String q) {
+        List<Entry> hits = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.matches(q)) {
+                hits.add(entry);
+            }
+        }
+        return hits;
+    }
+
+    private void unlink(Long id, Set<String> grams) {
+        for (String gram : grams) {
+            postings.computeIfPresent(gram, (g, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static boolean containsAll(List<Set<Long>> lists, Long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addGrams(String text, Set<String> grams) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+    }
+
+    private static int fieldScore(String field, String q) {
+        if (field.equals(q)) {
+            return 100;
+        }
+        if (field.startsWith(q)) {
+            return 60;
+        }
+        int at = field.indexOf(q);
+        if (at < 0) {
+            return 0;
+        }
+        while (at > 0) {
+            if (!Character.isLetterOrDigit(field.charAt(at - 1))) {
+                return 40;
+            }
+            at = field.indexOf(q, at + 1);
+            if (at < 0) {
+                return 10;
+            }
+        }
+        return 10;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Scored(Entry entry, int score) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.employee.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 把内存状态的更新（搜索索引、统计计数、幂等结果）推迟到当前事务提交之后，回滚的写操作不会留下痕迹
+ * 没有活动事务时（例如单元测试、非事务调用）立即执行
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable onCommit) {
+        run(onCommit, () -> { });
+    }
+
+    /**
+     * @param onRollback 事务回滚（或以其他方式未提交）时执行
+     */
+    public static void run(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * 同 run(onCommit)，但从提交开始（beforeCommit）到 onCommit 执行完都在 gate 内：
+     * gate 关闭期间不会有新的提交完成，已经开始的提交都会先把 onCommit 执行完
+     */
+    public static void run(CommitGate gate, Runnable onCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            gate.enter();
+            try {
+                onCommit.run();
+            } finally {
+                gate.exit();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // 提交前就回滚的事务不会调用 beforeCommit，也就没有进入 gate
+            private boolean entered;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                gate.enter();
+                entered = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!entered) {
+                    return;
+                }
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        onCommit.run();
+                    }
+                } finally {
+                    gate.exit();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.employee.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 提交闸门：写操作从提交开始到内存状态更新完成都在闸门内（enter / exit），
+ * close 之后新的提交要等 open，并等到已经在闸门内的提交全部完成
+ * 用于把“数据库快照”和“内存增量”对齐：关闭期间读到的数据库状态正好包含所有已经应用过的增量
+ * 平时（没有关闭）enter / exit 只是一次 volatile 读和一次原子加减，不加锁
+ */
+public final class CommitGate {
+
+    private static final long PARK_NANOS = 50_000;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean closed;
+
+    public void enter() {
+        while (true) {
+            inFlight.incrementAndGet();
+            if (!closed) {
+                return;
+            }
+            inFlight.decrementAndGet();
+            while (closed) {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    public void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 关闭闸门并等待闸门内的提交完成；返回 true 时调用方必须在 finally 里 open
+     * 超时（闸门内的提交在等一把被闸门外事务持有的行锁，两边互相等待）时重新打开闸门并返回 false
+     * 不能在持有闸门（enter 之后、exit 之前）的线程上调用
+     */
+    public boolean close(Duration timeout) {
+        closed = true;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() != 0) {
+            if (System.nanoTime() - deadline > 0) {
+                closed = false;
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    public void open() {
+        closed = false;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.employee.service;
+
+import com.example.employee.client.DepartmentClient;
+import com.example.employee.client.DepartmentClientFallback;
+import com.example.employee.dto.DepartmentDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 部门信息查询（员工响应的部门补全）
+ * 单条查询走 GET /departments/{id}，列表页把整页的部门ID去重后走一次批量查询
+ * 前面有一层进程内 near-cache（容量 + TTL 淘汰），部门变更通过 department-events 主动刷新/失效
+ */
+@Slf4j
+@Service
+public class DepartmentLookupService {
+
+    // 单次批量请求最多携带的部门ID数量，避免URL过长
+    static final int MAX_IDS_PER_CALL = 200;
+
+    private final DepartmentClient departmentClient;
+    private final Cache<Long, DepartmentDTO> nearCache;
+
+    public DepartmentLookupService(DepartmentClient departmentClient,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${department.near-cache.maximum-size:10000}") long maximumSize,
+                                   @Value("${department.near-cache.ttl:10m}") Duration ttl) {
+        this.departmentClient = departmentClient;
+        // TTL 是事件丢失时的兜底：正常情况下 DEPARTMENT_UPDATED/DELETED 会先到
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, "departmentNearCache");
+    }
+
+    public DepartmentDTO getDepartment(Long id) {
+        if (id == null) {
+            return null;
+        }
+        DepartmentDTO cached = nearCache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            DepartmentDTO dept = departmentClient.getDepartment(id);
+            cacheIfReal(dept);
+            return dept;
+        } catch (Exception e) {
+            log.warn("Failed to load department {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 批量查询部门，返回 departmentId -> DepartmentDTO
+     * 先查 near-cache，只有未命中的ID才发远程请求
+     * 查询失败的ID不会出现在结果中，调用方按"没有部门信息"处理
+     */
+    public Map<Long, DepartmentDTO> getDepartments(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, DepartmentDTO> result = new HashMap<>();
+        if (distinctIds.isEmpty()) {
+            return result;
+        }
+
+        result.putAll(nearCache.getAllPresent(distinctIds));
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinctIds) {
+            if (!result.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += MAX_IDS_PER_CALL) {
+            List<Long> chunk = missing.subList(from, Math.min(from + MAX_IDS_PER_CALL, missing.size()));
+            try {
+                for (DepartmentDTO dept : departmentClient.getDepartments(chunk)) {
+                    if (dept != null && dept.getId() != null) {
+                        result.put(dept.getId(), dept);
+                        cacheIfReal(dept);
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Failed to load departments {}: {}", chunk, e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    // DEPARTMENT_UPDATED: 用事件里的最新数据直接覆盖，下一次读取无需远程调用
+    public void refresh(DepartmentDTO dept) {
+        if (dept != null && dept.getId() != null) {
+            nearCache.put(dept.getId(), dept);
+        }
+    }
+
+    // DEPARTMENT_DELETED
+    public void evict(Long id) {
+        if (id != null) {
+            nearCache.invalidate(id);
+        }
+    }
+
+    // 降级返回的占位数据不能进缓存，否则部门服务恢复后仍然返回 SERVICE_DOWN
+    private void cacheIfReal(DepartmentDTO dept) {
+        if (dept != null && dept.getId() != null
+                && !DepartmentClientFallback.SERVICE_DOWN_CODE.equals(dept.getCode())) {
+            nearCache.put(dept.getId(), dept);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.employee.service;
+
+import com.example.employee.domain.Employee;
+import com.example.employee.dto.BulkImportResultDTO;
+import com.example.employee.dto.BulkImportResultDTO.RowResult;
+import com.example.employee.dto.BulkImportResultDTO.Status;
+import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.event.EmployeeCreatedEvent;
+import com.example.employee.event.NotificationEvent;
+import com.example.employee.repo.EmployeeJdbcRepository;
+import com.example.employee.repo.EmployeeRepository;
+import com.example.employee.search.EmployeeSearchIndex;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 员工批量导入
+ * 请求体按流读取（JSON 数组或 NDJSON），每 chunk-size 行一个事务：
+ * 一次 IN 查询检查邮箱重复 -> JDBC batch 插入 -> 事件批量写入 outbox
+ * 某个 chunk 失败只影响该 chunk，之前已提交的 chunk 保留
+ */
+@Slf4j
+@Service
+public class EmployeeBulkImportService {
+
+    private final EmployeeRepository repository;
+    private final EmployeeJdbcRepository employeeJdbcRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final EmployeeSearchIndex searchIndex;
+    private final EmployeeStatistics statistics;
+    private final Validator validator;
+    private final ObjectReader employeeReader;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public EmployeeBulkImportService(EmployeeRepository repository,
+                                     EmployeeJdbcRepository employeeJdbcRepository,
+                                     KafkaProducerService kafkaProducerService,
+                                     EmployeeSearchIndex searchIndex,
+                                     EmployeeStatistics statistics,
+                                     Validator validator,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${employee.bulk.chunk-size:1000}") int chunkSize) {
+        this.repository = repository;
+        this.employeeJdbcRepository = employeeJdbcRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.searchIndex = searchIndex;
+        this.statistics = statistics;
+        this.validator = validator;
+        this.employeeReader = objectMapper.readerFor(EmployeeDTO.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkImportResultDTO importEmployees(InputStream body) throws IOException {
+        long start = System.nanoTime();
+        List<RowResult> rows = new ArrayList<>();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+
+        // readValues 同时支持顶层数组（逐个元素）和以换行分隔的多个顶层对象（NDJSON）
+        try (MappingIterator<EmployeeDTO> it = employeeReader.readValues(body)) {
+            int index = 0;
+            while (true) {
+                EmployeeDTO dto;
+                try {
+                    if (!it.hasNextValue()) {
+                        break;
+                    }
+                    dto = it.nextValue();
+                } catch (IOException | RuntimeException e) {
+                    // 格式错误之后的内容无法可靠定位，停止读取；之前的行照常处理
+                    rows.add(new RowResult(index, null, Status.INVALID, null, "Malformed input: " + e.getMessage()));
+                    break;
+                }
+
+                String violations = validate(dto);
+                if (violations != null) {
+                    rows.add(new RowResult(index, dto.getEmail(), Status.INVALID, null, violations));
+                } else {
+                    chunk.add(new PendingRow(index, dto));
+                    if (chunk.size() >= chunkSize) {
+                        rows.addAll(importChunk(chunk));
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                index++;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            rows.addAll(importChunk(chunk));
+        }
+
+        rows.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        BulkImportResultDTO result = BulkImportResultDTO.builder()
+                .total(rows.size())
+                .created(count(rows, Status.CREATED))
+                .duplicates(count(rows, Status.DUPLICATE))
+                .invalid(count(rows, Status.INVALID))
+                .failed(count(rows, Status.FAILED))
+                .elapsedMillis(elapsedMillis)
+                .rowsPerSecond(elapsedMillis == 0 ? rows.size() * 1000.0 : rows.size() * 1000.0 / elapsedMillis)
+                .rows(rows)
+                .build();
+        log.info("Bulk import finished: total={}, created={}, duplicates={}, invalid={}, failed={}, {} ms ({} rows/s)",
+                result.getTotal(), result.getCreated(), result.getDuplicates(), result.getInvalid(), result.getFailed(),
+                elapsedMillis, Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+
+    private List<RowResult> importChunk(List<PendingRow> chunk) {
+        try {
+            return transactionTemplate.execute(status -> doImportChunk(chunk));
+        } catch (DataIntegrityViolationException e) {
+            // 并发写入了相同邮箱：整个 chunk 回滚，调用方可以重试这些行
+            log.warn("Bulk import chunk of {} rows rolled back: {}", chunk.size(), e.getMostSpecificCause().getMessage());
+            return chunk.stream()
+                    .map(row -> new RowResult(row.index(), row.dto().getEmail(), Status.FAILED, null,
+                            "Concurrent modification, please retry"))
+                    .toList();
+        }
+    }
+
+    private List<RowResult> doImportChunk(List<PendingRow> chunk) {
+        List<RowResult> results = new ArrayList<>(chunk.size());
+
+        // MySQL 默认排序规则下邮箱唯一约束不区分大小写，这里按小写比较
+        Set<String> existing = repository.findExistingEmails(chunk.stream().map(row -> row.dto().getEmail()).toList())
+                .stream()
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        Set<String> seen = new HashSet<>();
+        List<PendingRow> accepted = new ArrayList<>(chunk.size());
+        List<Employee> employees = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            String email = row.dto().getEmail().toLowerCase(Locale.ROOT);
+            if (existing.contains(email) || !seen.add(email)) {
+                results.add(new RowResult(row.index(), row.dto().getEmail(), Status.DUPLICATE, null, "Email already exists"));
+                continue;
+            }
+            accepted.add(row);
+            employees.add(Employee.builder()
+                    .firstName(row.dto().getFirstName())
+                    .lastName(row.dto().getLastName())
+                    .email(row.dto().getEmail())
+                    .departmentId(row.dto().getDepartmentId())
+                    .build());
+        }
+
+        employeeJdbcRepository.insertAll(employees);
+        searchIndex.putAll(employees);
+        statistics.createdAll(employees);
+
+        long now = System.currentTimeMillis();
+        List<EmployeeCreatedEvent> events = new ArrayList<>(employees.size());
+        List<NotificationEvent> notifications = new ArrayList<>(employees.size());
+        for (int i = 0; i < employees.size(); i++) {
+            Employee e = employees.get(i);
+            events.add(new EmployeeCreatedEvent(e.getId(), e.getEmail(), e.getDepartmentId(),
+                    e.getFirstName(), e.getLastName(), now));
+            notifications.add(NotificationEvent.email(e.getEmail(), "Welcome! Your employee ID is: " + e.getId()));
+            results.add(new RowResult(accepted.get(i).index(), e.getEmail(), Status.CREATED, e.getId(), null));
+        }
+        kafkaProducerService.sendEmployeeEvents(events);
+        kafkaProducerService.sendNotificationEvents(notifications);
+        return results;
+    }
+
+    private String validate(EmployeeDTO dto) {
+        if (dto == null) {
+            return "Row is empty";
+        }
+        Set<ConstraintViolation<EmployeeDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static int count(List<RowResult> rows, Status status) {
+        return (int) rows.stream().filter(row -> row.getStatus() == status).count();
+    }
+
+    private record PendingRow(int index, EmployeeDTO dto) {
+    }
+}
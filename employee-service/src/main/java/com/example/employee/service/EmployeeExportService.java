@@ -0,0 +1,158 @@
+package com.example.employee.service;
+
+import com.example.employee.domain.Employee;
+import com.example.employee.exception.InvalidRequestParameterException;
+import com.example.employee.repo.EmployeeJdbcRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * 全量导出员工（NDJSON / CSV）
+ * 数据从 JDBC 流式游标逐行读出后直接写入响应流，不在内存中组装列表
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmployeeExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final EmployeeJdbcRepository employeeJdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public String fileName() {
+            return "employees." + extension;
+        }
+
+        public static Format of(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequestParameterException("Unsupported export format '" + value + "', expected ndjson or csv");
+            }
+        }
+    }
+
+    public void export(Format format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long rows;
+        try {
+            rows = switch (format) {
+                case NDJSON -> writeNdjson(out);
+                case CSV -> writeCsv(out);
+            };
+        } catch (UncheckedIOException e) {
+            // 客户端中途断开等写出错误，从 JDBC 回调中透传出来
+            throw e.getCause();
+        }
+        log.info("Exported {} employees as {} in {} ms", rows, format, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private long writeNdjson(OutputStream out) throws IOException {
+        long[] rows = {0};
+        // 只 flush 不 close：响应流由容器关闭
+        JsonGenerator json = objectMapper.getFactory().createGenerator(bufferedWriter(out));
+        employeeJdbcRepository.forEach(e -> {
+            try {
+                json.writeStartObject();
+                json.writeNumberField("id", e.getId());
+                json.writeStringField("firstName", e.getFirstName());
+                json.writeStringField("lastName", e.getLastName());
+                json.writeStringField("email", e.getEmail());
+                if (e.getDepartmentId() == null) {
+                    json.writeNullField("departmentId");
+                } else {
+                    json.writeNumberField("departmentId", e.getDepartmentId());
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+                rows[0]++;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        json.flush();
+        return rows[0];
+    }
+
+    private long writeCsv(OutputStream out) throws IOException {
+        long[] rows = {0};
+        Writer writer = bufferedWriter(out);
+        writer.write("id,firstName,lastName,email,departmentId\n");
+        employeeJdbcRepository.forEach(e -> {
+            try {
+                writeCsvRow(writer, e);
+                rows[0]++;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        writer.flush();
+        return rows[0];
+    }
+
+    private static void writeCsvRow(Writer writer, Employee e) throws IOException {
+        writer.write(String.valueOf(e.getId()));
+        writer.write(',');
+        writeCsvField(writer, e.getFirstName());
+        writer.write(',');
+        writeCsvField(writer, e.getLastName());
+        writer.write(',');
+        writeCsvField(writer, e.getEmail());
+        writer.write(',');
+        if (e.getDepartmentId() != null) {
+            writer.write(String.valueOf(e.getDepartmentId()));
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180：包含逗号、引号或换行的字段加双引号，内部引号写两次
+    static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // 缓冲满了才真正写到 socket，避免每行一次系统调用
+    private static Writer bufferedWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
@@ -1,23 +1,39 @@
 package com.example.employee.service;
 
-import com.example.employee.client.DepartmentClient;
+import com.example.employee.cache.SingleFlight;
 import com.example.employee.domain.Employee;
 import com.example.employee.dto.DepartmentDTO;
 import com.example.employee.dto.EmployeeDTO;
 import com.example.employee.dto.EmployeeStatsDTO;
+import com.example.employee.event.EmployeeCreatedEvent;
+import com.example.employee.event.EmployeeDeletedEvent;
+import com.example.employee.event.EmployeeUpdatedEvent;
+import com.example.employee.event.NotificationEvent;
 import com.example.employee.exception.DuplicateEmailException;
+import com.example.employee.exception.IdempotencyConflictException;
+import com.example.employee.idempotency.IdempotencyStore;
+import com.example.employee.pagination.CursorPage;
+import com.example.employee.pagination.KeysetRequest;
+import com.example.employee.repo.EmployeeFilter;
 import com.example.employee.repo.EmployeeRepository;
+import com.example.employee.repo.EmployeeSpecifications;
+import com.example.employee.search.EmployeeSearchIndex;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,12 +42,21 @@ import java.util.stream.Collectors;
 public class EmployeeService {
 
     private final EmployeeRepository repository;
-    private final DepartmentClient departmentClient;
+    private final DepartmentLookupService departmentLookupService;
     private final KafkaProducerService kafkaProducerService;
 
     // 3. POST /employees — create; enforce unique email; optional Idempotency-Key request header (treat duplicate keys as safe replays).
-    // 简单的内存缓存来存储幂等性键
-    private final Map<String, EmployeeDTO> idempotencyCache = new ConcurrentHashMap<>();
+    // 幂等性键存储（内存或Redis，见 employee.idempotency.store）
+    private final IdempotencyStore idempotencyStore;
+    // /employees/search 的内存索引，写操作提交后同步更新
+    private final EmployeeSearchIndex searchIndex;
+    // /employees/stats 的内存计数器
+    private final EmployeeStatistics statistics;
+
+    private final SingleFlight<String, EmployeeDTO> byIdLoads = new SingleFlight<>();
+
+    // 游标分页允许的排序字段（非空列，id 始终作为第二排序键）
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("firstName", "lastName", "email");
 
     public List<EmployeeDTO> getAll() {
         return repository.findAll().stream()
@@ -39,59 +64,72 @@ public class EmployeeService {
                 .collect(Collectors.toList());
     }
 
-    // 1. GET /employees — pagination (page, size), sorting (sort=lastName,asc), filters (email, lastName contains, departmentId).
-    public Page<EmployeeDTO> getAll(String email, String lastName, Long departmentId, Pageable pageable) {
-        Page<Employee> employees;
-
-        if (email != null && lastName != null && departmentId != null) {
-            // All filters
-            employees = repository.findByEmailAndLastNameContainingIgnoreCaseAndDepartmentId(email, lastName, departmentId, pageable);
-        } else if (email != null && lastName != null) {
-            // Email + lastName
-            employees = repository.findByEmailAndLastNameContainingIgnoreCase(email, lastName, pageable);
-        } else if (email != null && departmentId != null) {
-            // Email + departmentId
-            employees = repository.findByEmailAndDepartmentId(email, departmentId, pageable);
-        } else if (lastName != null && departmentId != null) {
-            // LastName + departmentId
-            employees = repository.findByLastNameContainingIgnoreCaseAndDepartmentId(lastName, departmentId, pageable);
-        } else if (email != null) {
-            // Email only
-            employees = repository.findByEmail(email, pageable);
-        } else if (lastName != null) {
-            // LastName only
-            employees = repository.findByLastNameContainingIgnoreCase(lastName, pageable);
-        } else if (departmentId != null) {
-            // DepartmentId only
-            employees = repository.findByDepartmentId(departmentId, pageable);
-        } else {
-            // No filters
-            employees = repository.findAll(pageable);
-        }
+    // 1. GET /employees — pagination (page, size), sorting (sort=lastName,asc), filters (email, lastName prefix/contains, departmentId).
+    // 所有过滤条件组合成一条查询；count=false 时不执行 COUNT，返回 Slice（多取一行判断 hasNext）
+    // includeDepartment=true 时整页只发一次批量部门查询
+    public Slice<EmployeeDTO> getAll(EmployeeFilter filter, Pageable pageable, boolean count, boolean includeDepartment) {
+        Specification<Employee> spec = EmployeeSpecifications.filter(filter);
+        Slice<Employee> employees = count
+                ? repository.findAll(spec, pageable)
+                : repository.findSlice(spec, pageable);
+        return employees.map(dtoMapper(employees.getContent(), includeDepartment));
+    }
 
-        return employees.map(e -> toDTO(e, false));
+    // 1c. GET /employees?after=<cursor>&size= — keyset pagination on (sort column, id); no OFFSET and no COUNT query.
+    public CursorPage<EmployeeDTO> getAllAfter(EmployeeFilter filter, String after, Sort sort, int size, boolean includeDepartment) {
+        KeysetRequest request = KeysetRequest.of(after, sort, size, CURSOR_SORT_PROPERTIES);
+        Specification<Employee> spec = EmployeeSpecifications.filter(filter)
+                .and(request.afterSpecification());
+        Slice<Employee> slice = repository.findSlice(spec, request.sort(), request.size());
+        return request.toPage(slice, dtoMapper(slice.getContent(), includeDepartment));
     }
 
     // 2. GET /employees/{id} — employee detail, optionally enriched with department summary
     // GET /employees/1                          // includeDepartment = false（使用默认值）
     // GET /employees/1?includeDepartment=true   // includeDepartment = true
     // GET /employees/1?includeDepartment=false  // includeDepartment = false
+    // 同一员工的并发未命中（V2 缓存过期/失效时）只查一次数据库
     public EmployeeDTO getById(Long id, boolean includeDepartment) {
-        Employee e = repository.findById(id).orElseThrow(() -> new EntityNotFoundException("Employee not found"));
-        return toDTO(e, includeDepartment);
+        return byIdLoads.execute(id + ":" + includeDepartment, () -> {
+            Employee e = repository.findById(id).orElseThrow(() -> new EntityNotFoundException("Employee not found"));
+            return toDTO(e, includeDepartment);
+        });
     }
 
     // 3. POST /employees — create; enforce unique email; optional Idempotency-Key request header (treat duplicate keys as safe replays).
     @Transactional
     public EmployeeDTO create(EmployeeDTO dto, String idempotencyKey) {
-        // 如果有幂等性键，先检查缓存
-        if (idempotencyKey != null && !idempotencyKey.trim().isEmpty()) {
-            EmployeeDTO cached = idempotencyCache.get(idempotencyKey);
-            if (cached != null) {
-                return cached; // 返回缓存的结果
-            }
+        // 没有幂等性键，直接创建
+        if (idempotencyKey == null || idempotencyKey.trim().isEmpty()) {
+            return doCreate(dto);
         }
 
+        // 如果有幂等性键，先检查已完成的结果
+        Optional<EmployeeDTO> cached = idempotencyStore.find(idempotencyKey);
+        if (cached.isPresent()) {
+            return cached.get(); // 返回缓存的结果
+        }
+        // 占用 in-flight 锁：相同key的并发重试只有一个会写数据库
+        Optional<String> lock = idempotencyStore.tryAcquire(idempotencyKey);
+        if (lock.isEmpty()) {
+            return idempotencyStore.find(idempotencyKey)
+                    .orElseThrow(() -> new IdempotencyConflictException(
+                            "A request with this Idempotency-Key is already in progress"));
+        }
+        String token = lock.get();
+
+        EmployeeDTO result;
+        try {
+            result = doCreate(dto);
+        } catch (RuntimeException ex) {
+            idempotencyStore.release(idempotencyKey, token);
+            throw ex;
+        }
+        completeAfterCommit(idempotencyKey, token, result);
+        return result;
+    }
+
+    private EmployeeDTO doCreate(EmployeeDTO dto) {
         // 检查邮箱唯一性
         if (repository.existsByEmail(dto.getEmail())) {
             throw new DuplicateEmailException("Email already exists");
@@ -105,36 +143,28 @@ public class EmployeeService {
                 .departmentId(dto.getDepartmentId())
                 .build();
         e = repository.save(e);
+        searchIndex.put(e);
+        statistics.created(e.getDepartmentId());
         EmployeeDTO result = toDTO(e, true);
 
         // 发布员工创建事件
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("eventType", "EMPLOYEE_CREATED");
-        eventData.put("employeeId", e.getId());
-        eventData.put("email", e.getEmail());
-        eventData.put("departmentId", e.getDepartmentId());
-        eventData.put("firstName", e.getFirstName());
-        eventData.put("lastName", e.getLastName());
-        eventData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendEmployeeEvent("EMPLOYEE_CREATED", eventData);
+        kafkaProducerService.sendEmployeeEvent(new EmployeeCreatedEvent(
+                e.getId(), e.getEmail(), e.getDepartmentId(),
+                e.getFirstName(), e.getLastName(), System.currentTimeMillis()));
 
         // 发送通知事件
-        Map<String, Object> notificationData = new HashMap<>();
-        notificationData.put("eventType", "EMAIL");
-        notificationData.put("recipient", e.getEmail());
-        notificationData.put("message", "Welcome! Your employee ID is: " + e.getId());
-        notificationData.put("timestamp", System.currentTimeMillis());
+        kafkaProducerService.sendNotificationEvent(NotificationEvent.email(e.getEmail(),
+                "Welcome! Your employee ID is: " + e.getId()));
 
-        kafkaProducerService.sendNotificationEvent("EMAIL", notificationData);
-
-        // 如果有幂等性键，缓存结果
-        if (idempotencyKey != null && !idempotencyKey.trim().isEmpty()) {
-            idempotencyCache.put(idempotencyKey, result);
-        }
         return result;
     }
 
+    // 事务提交后才保存幂等结果；回滚则释放锁，避免重放返回一个并不存在的员工
+    private void completeAfterCommit(String idempotencyKey, String token, EmployeeDTO result) {
+        AfterCommit.run(() -> idempotencyStore.complete(idempotencyKey, token, result),
+                () -> idempotencyStore.release(idempotencyKey, token));
+    }
+
     // 4. PUT /employees/{id} — full update; reject changing to a duplicate email (409).
     @Transactional
     public EmployeeDTO update(Long id, EmployeeDTO dto) {
@@ -158,27 +188,18 @@ public class EmployeeService {
         existingEmployee.setDepartmentId(dto.getDepartmentId());
 
         Employee updatedEmployee = repository.save(existingEmployee);
+        searchIndex.put(updatedEmployee);
+        statistics.moved(oldDepartmentId, updatedEmployee.getDepartmentId());
 
         // 发布员工更新事件
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("eventType", "EMPLOYEE_UPDATED");
-        eventData.put("employeeId", updatedEmployee.getId());
-        eventData.put("email", updatedEmployee.getEmail());
-        eventData.put("oldDepartmentId", oldDepartmentId);
-        eventData.put("newDepartmentId", updatedEmployee.getDepartmentId());
-        eventData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendEmployeeEvent("EMPLOYEE_UPDATED", eventData);
+        kafkaProducerService.sendEmployeeEvent(new EmployeeUpdatedEvent(
+                updatedEmployee.getId(), updatedEmployee.getEmail(), oldDepartmentId, updatedEmployee.getDepartmentId(),
+                updatedEmployee.getFirstName(), updatedEmployee.getLastName(), System.currentTimeMillis()));
 
         // 如果部门变更，发送通知
         if (oldDepartmentId != null && !oldDepartmentId.equals(updatedEmployee.getDepartmentId())) {
-            Map<String, Object> notificationData = new HashMap<>();
-            notificationData.put("eventType", "SYSTEM");
-            notificationData.put("recipient", "hr@company.com");
-            notificationData.put("message", "员工 " + updatedEmployee.getEmail() + " 已从部门 " + oldDepartmentId + " 转移到部门 " + updatedEmployee.getDepartmentId());
-            notificationData.put("timestamp", System.currentTimeMillis());
-
-            kafkaProducerService.sendNotificationEvent("SYSTEM", notificationData);
+            kafkaProducerService.sendNotificationEvent(NotificationEvent.system("hr@company.com",
+                    "员工 " + updatedEmployee.getEmail() + " 已从部门 " + oldDepartmentId + " 转移到部门 " + updatedEmployee.getDepartmentId()));
         }
 
         return toDTO(updatedEmployee, true); // 更新后总是包含部门信息
@@ -214,27 +235,18 @@ public class EmployeeService {
         }
 
         Employee updatedEmployee = repository.save(existingEmployee);
+        searchIndex.put(updatedEmployee);
+        statistics.moved(oldDepartmentId, updatedEmployee.getDepartmentId());
 
         // 发布员工更新事件
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("eventType", "EMPLOYEE_UPDATED");
-        eventData.put("employeeId", updatedEmployee.getId());
-        eventData.put("email", updatedEmployee.getEmail());
-        eventData.put("oldDepartmentId", oldDepartmentId);
-        eventData.put("newDepartmentId", updatedEmployee.getDepartmentId());
-        eventData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendEmployeeEvent("EMPLOYEE_UPDATED", eventData);
+        kafkaProducerService.sendEmployeeEvent(new EmployeeUpdatedEvent(
+                updatedEmployee.getId(), updatedEmployee.getEmail(), oldDepartmentId, updatedEmployee.getDepartmentId(),
+                updatedEmployee.getFirstName(), updatedEmployee.getLastName(), System.currentTimeMillis()));
 
         // 如果部门变更，发送通知
         if (oldDepartmentId != null && !oldDepartmentId.equals(updatedEmployee.getDepartmentId())) {
-            Map<String, Object> notificationData = new HashMap<>();
-            notificationData.put("eventType", "SYSTEM");
-            notificationData.put("recipient", "hr@company.com");
-            notificationData.put("message", "员工 " + updatedEmployee.getEmail() + " 已从部门 " + oldDepartmentId + " 转移到部门 " + updatedEmployee.getDepartmentId());
-            notificationData.put("timestamp", System.currentTimeMillis());
-
-            kafkaProducerService.sendNotificationEvent("SYSTEM", notificationData);
+            kafkaProducerService.sendNotificationEvent(NotificationEvent.system("hr@company.com",
+                    "员工 " + updatedEmployee.getEmail() + " 已从部门 " + oldDepartmentId + " 转移到部门 " + updatedEmployee.getDepartmentId()));
         }
 
         return toDTO(updatedEmployee, true); // 部分更新后总是包含部门信息
@@ -248,68 +260,58 @@ public class EmployeeService {
                 .orElseThrow(() -> new EntityNotFoundException("Employee not found"));
 
         // 发布员工删除事件
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("eventType", "EMPLOYEE_DELETED");
-        eventData.put("employeeId", employee.getId());
-        eventData.put("email", employee.getEmail());
-        eventData.put("departmentId", employee.getDepartmentId());
-        eventData.put("firstName", employee.getFirstName());
-        eventData.put("lastName", employee.getLastName());
-        eventData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendEmployeeEvent("EMPLOYEE_DELETED", eventData);
+        kafkaProducerService.sendEmployeeEvent(new EmployeeDeletedEvent(
+                employee.getId(), employee.getEmail(), employee.getDepartmentId(),
+                employee.getFirstName(), employee.getLastName(), System.currentTimeMillis()));
 
         // 发送通知事件
-        Map<String, Object> notificationData = new HashMap<>();
-        notificationData.put("eventType", "SYSTEM");
-        notificationData.put("recipient", "hr@company.com");
-        notificationData.put("message", "员工 " + employee.getEmail() + " has resigned. Please proceed with the relevant formalities.");
-        notificationData.put("timestamp", System.currentTimeMillis());
-
-        kafkaProducerService.sendNotificationEvent("SYSTEM", notificationData);
+        kafkaProducerService.sendNotificationEvent(NotificationEvent.system("hr@company.com",
+                "员工 " + employee.getEmail() + " has resigned. Please proceed with the relevant formalities."));
 
         // 删除员工
         repository.deleteById(id);
+        searchIndex.remove(id);
+        statistics.deleted(employee.getDepartmentId());
     }
 
     // 7. GET /employees/search — convenience endpoint for case-insensitive name/email search
-    public Page<EmployeeDTO> search(String query, Pageable pageable) {
-        Page<Employee> employees = repository.searchByNameOrEmail(query, pageable);
-        return employees.map(e -> toDTO(e, false));
+    // 索引就绪时走内存 n-gram 索引（按相关度排序），预热期间或指定 sort 时走 SQL
+    public Page<EmployeeDTO> search(String query, Pageable pageable, boolean includeDepartment) {
+        Page<Employee> employees = searchIndex.search(query, pageable,
+                () -> repository.searchByNameOrEmail(query, pageable));
+        return toDTOs(employees, includeDepartment);
     }
 
     // 8. GET /employees/stats — simple metrics (e.g., counts by departmentId).
+    // 内存计数器增量维护 + 定期对账，读取不访问数据库
     public EmployeeStatsDTO getStats() {
-        // 获取总员工数
-        long totalEmployees = repository.count();
-
-        // 获取按部门分组的员工数
-        List<Object[]> departmentCounts = repository.countEmployeesByDepartment();
-        Map<Long, Long> employeesByDepartment = new HashMap<>();
-        for (Object[] result : departmentCounts) {
-            Long departmentId = (Long) result[0];
-            Long count = (Long) result[1];
-            employeesByDepartment.put(departmentId, count);
-        }
+        return statistics.snapshot();
+    }
 
-        // 获取没有部门的员工数
-        long employeesWithoutDepartment = repository.countEmployeesWithoutDepartment();
+    // 列表页：先收集整页去重后的 departmentId，一次批量查询，再逐行组装
+    private Page<EmployeeDTO> toDTOs(Page<Employee> employees, boolean includeDepartment) {
+        return employees.map(dtoMapper(employees.getContent(), includeDepartment));
+    }
 
-        return EmployeeStatsDTO.builder()
-                .totalEmployees(totalEmployees)
-                .employeesByDepartment(employeesByDepartment)
-                .employeesWithoutDepartment(employeesWithoutDepartment)
-                .build();
+    private Function<Employee, EmployeeDTO> dtoMapper(List<Employee> rows, boolean includeDepartment) {
+        if (!includeDepartment) {
+            return e -> toDTO(e, (DepartmentDTO) null);
+        }
+        Set<Long> departmentIds = rows.stream()
+                .map(Employee::getDepartmentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, DepartmentDTO> departments = departmentLookupService.getDepartments(departmentIds);
+        return e -> toDTO(e, e.getDepartmentId() == null ? null : departments.get(e.getDepartmentId()));
     }
 
     // 都需要应用 toDTO 方法
     private EmployeeDTO toDTO(Employee e, boolean includeDepartment) {
-        DepartmentDTO dept = null;
-        if (includeDepartment && e.getDepartmentId() != null) {
-            try {
-                dept = departmentClient.getDepartment(e.getDepartmentId());
-            } catch (Exception ignored) { }
-        }
+        DepartmentDTO dept = includeDepartment ? departmentLookupService.getDepartment(e.getDepartmentId()) : null;
+        return toDTO(e, dept);
+    }
+
+    private EmployeeDTO toDTO(Employee e, DepartmentDTO dept) {
         return EmployeeDTO.builder()
                 .id(e.getId())
                 .firstName(e.getFirstName())
@@ -0,0 +1,217 @@
+package com.example.employee.service;
+
+import com.example.employee.domain.Employee;
+import com.example.employee.dto.EmployeeStatsDTO;
+import com.example.employee.repo.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 员工统计（GET /employees/stats）的内存计数器
+ * 创建 / 删除 / 部门变更在事务提交后增量更新，读取只遍历部门计数，不访问数据库
+ * 定期用 GROUP BY 查询对账并整体替换，纠正其他实例的写操作造成的偏差（每个实例只增量更新自己处理的写操作）
+ * 本实例的提交都经过 CommitGate：对账查询期间关闭，查询结果正好包含所有已经应用过的增量；
+ * 重新打开后提交的增量记到 pending，替换前重放到新计数器上，既不会丢也不会重复
+ */
+@Slf4j
+@Component
+public class EmployeeStatistics {
+
+    // 关闭 gate 最多等这么久；超时说明闸门内外的事务在互相等行锁，放弃这一轮对账
+    private static final Duration GATE_TIMEOUT = Duration.ofSeconds(1);
+    private static final int GATE_ATTEMPTS = 3;
+
+    private final EmployeeRepository repository;
+    private final TransactionTemplate readTransaction;
+    private final CommitGate gate = new CommitGate();
+
+    // null 表示还没有从数据库加载过
+    private volatile Counters counters;
+    // 只在对账期间非 null：gate 重新打开后提交的增量（不在查询结果里）
+    private volatile Queue<Consumer<Counters>> pending;
+
+    public EmployeeStatistics(EmployeeRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        // 独立的只读事务：先拿到连接再关 gate，不会在关着 gate 的时候等连接池
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public EmployeeStatsDTO snapshot() {
+        Counters current = counters;
+        if (current == null) {
+            current = reload();
+        }
+        return current.toDTO();
+    }
+
+    public void created(Long departmentId) {
+        AfterCommit.run(gate, () -> apply(c -> c.add(departmentId, 1)));
+    }
+
+    public void createdAll(Collection<Employee> employees) {
+        Map<Long, Long> perDepartment = new HashMap<>();
+        long withoutDepartment = 0;
+        for (Employee e : employees) {
+            if (e.getDepartmentId() == null) {
+                withoutDepartment++;
+            } else {
+                perDepartment.merge(e.getDepartmentId(), 1L, Long::sum);
+            }
+        }
+        long none = withoutDepartment;
+        AfterCommit.run(gate, () -> apply(c -> {
+            perDepartment.forEach(c::add);
+            c.add(null, none);
+        }));
+    }
+
+    public void moved(Long fromDepartmentId, Long toDepartmentId) {
+        if (Objects.equals(fromDepartmentId, toDepartmentId)) {
+            return;
+        }
+        AfterCommit.run(gate, () -> apply(c -> {
+            c.add(fromDepartmentId, -1);
+            c.add(toDepartmentId, 1);
+        }));
+    }
+
+    public void deleted(Long departmentId) {
+        AfterCommit.run(gate, () -> apply(c -> c.add(departmentId, -1)));
+    }
+
+    @Scheduled(fixedDelayString = "${employee.stats.reconcile-interval-ms:60000}",
+            initialDelayString = "${employee.stats.reconcile-interval-ms:60000}")
+    public void scheduledReconcile() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Employee stats reconciliation failed, keeping in-memory counters: {}", e.getMessage());
+        }
+    }
+
+    // 从数据库重新加载计数，补上查询之后提交的增量，再整体替换内存中的计数器
+    private synchronized Counters reload() {
+        try {
+            Counters fresh = readTransaction.execute(status -> query());
+            Counters previous = swap(fresh);
+            if (previous != null) {
+                long drift = fresh.total() - previous.total();
+                if (drift != 0) {
+                    log.info("Employee stats reconciled, total drifted by {}", drift);
+                }
+            }
+            return fresh;
+        } finally {
+            pending = null;
+        }
+    }
+
+    // 关着 gate 查询：这期间本实例没有提交完成，已经完成的提交都已应用到当前计数器
+    private Counters query() {
+        closeGate();
+        try {
+            pending = new ConcurrentLinkedQueue<>();
+            Counters fresh = new Counters();
+            for (Object[] row : repository.countEmployeesByDepartment()) {
+                fresh.add((Long) row[0], (Long) row[1]);
+            }
+            fresh.add(null, repository.countEmployeesWithoutDepartment());
+            return fresh;
+        } finally {
+            gate.open();
+        }
+    }
+
+    // 关着 gate 重放并替换：没有写操作夹在“记到 pending”和“应用到旧计数器”之间
+    private Counters swap(Counters fresh) {
+        closeGate();
+        try {
+            pending.forEach(update -> update.accept(fresh));
+            pending = null;
+            Counters previous = counters;
+            counters = fresh;
+            return previous;
+        } finally {
+            gate.open();
+        }
+    }
+
+    private void closeGate() {
+        for (int attempt = 0; attempt < GATE_ATTEMPTS; attempt++) {
+            if (gate.close(GATE_TIMEOUT)) {
+                return;
+            }
+        }
+        throw new IllegalStateException("Timed out waiting for in-flight commits to finish");
+    }
+
+    // 在 gate 内执行（AfterCommit.run(gate, ...)），不加锁
+    private void apply(Consumer<Counters> update) {
+        Queue<Consumer<Counters>> buffer = pending;
+        if (buffer != null) {
+            buffer.add(update);
+        }
+        Counters current = counters;
+        // 还没加载过就不用记，首次读取时会直接查数据库
+        if (current != null) {
+            update.accept(current);
+        }
+    }
+
+    private static final class Counters {
+        private final Map<Long, LongAdder> byDepartment = new ConcurrentHashMap<>();
+        private final LongAdder withoutDepartment = new LongAdder();
+
+        void add(Long departmentId, long delta) {
+            if (departmentId == null) {
+                withoutDepartment.add(delta);
+            } else {
+                byDepartment.computeIfAbsent(departmentId, id -> new LongAdder()).add(delta);
+            }
+        }
+
+        long total() {
+            long total = withoutDepartment.sum();
+            for (LongAdder count : byDepartment.values()) {
+                total += count.sum();
+            }
+            return total;
+        }
+
+        EmployeeStatsDTO toDTO() {
+            Map<Long, Long> employeesByDepartment = new HashMap<>();
+            long total = 0;
+            for (Map.Entry<Long, LongAdder> entry : byDepartment.entrySet()) {
+                long count = entry.getValue().sum();
+                // 与 GROUP BY 结果一致：员工都调走了的部门不出现
+                if (count > 0) {
+                    employeesByDepartment.put(entry.getKey(), count);
+                    total += count;
+                }
+            }
+            long none = withoutDepartment.sum();
+            return EmployeeStatsDTO.builder()
+                    .totalEmployees(total + none)
+                    .employeesByDepartment(employeesByDepartment)
+                    .employeesWithoutDepartment(none)
+                    .build();
+        }
+    }
+}
@@ -1,38 +1,95 @@
 package com.example.employee.service;
 
+import com.example.employee.domain.OutboxEvent;
+import com.example.employee.event.DepartmentEvent;
+import com.example.employee.event.EmployeeEvent;
+import com.example.employee.event.NotificationEvent;
+import com.example.employee.event.codec.EventCodec;
+import com.example.employee.event.codec.EventCodecs;
+import com.example.employee.repo.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+/**
+ * 事件发送入口
+ * 事件先写入 outbox_events 表（和业务数据同一个事务），由 OutboxRelay 在后台批量投递到 Kafka：
+ * 请求线程不再等待 Kafka，事务回滚时事件也不会被发出
+ * 消息体在写入时按主题配置的格式编码（events.codec），relay 原样发送
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional
 public class KafkaProducerService {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventCodecs eventCodecs;
 
     /**
      * 发送员工事件到Kafka
      */
-    public void sendEmployeeEvent(String eventType, Object eventData) {
-        kafkaTemplate.send("employee-events", eventType, eventData);
-        log.info("员工事件已发送: {}", eventType);
+    public void sendEmployeeEvent(EmployeeEvent event) {
+        enqueue("employee-events", key(event.employeeId()), event);
+    }
+
+    /**
+     * 批量发送员工事件（一次 JDBC batch 写入 outbox）
+     */
+    public void sendEmployeeEvents(List<? extends EmployeeEvent> events) {
+        enqueueAll("employee-events", events.stream()
+                .map(event -> toOutboxEvent("employee-events", key(event.employeeId()), event))
+                .toList());
     }
 
     /**
      * 发送部门事件到Kafka
      */
-    public void sendDepartmentEvent(String eventType, Object eventData) {
-        kafkaTemplate.send("department-events", eventType, eventData);
-        log.info("部门事件已发送: {}", eventType);
+    public void sendDepartmentEvent(DepartmentEvent event) {
+        enqueue("department-events", key(event.departmentId()), event);
     }
 
     /**
      * 发送通知事件到Kafka
      */
-    public void sendNotificationEvent(String eventType, Object eventData) {
-        kafkaTemplate.send("notifications", eventType, eventData);
-        log.info("通知事件已发送: {}", eventType);
+    public void sendNotificationEvent(NotificationEvent event) {
+        enqueue("notifications", event.recipient(), event);
+    }
+
+    /**
+     * 批量发送通知事件
+     */
+    public void sendNotificationEvents(List<NotificationEvent> events) {
+        enqueueAll("notifications", events.stream()
+                .map(event -> toOutboxEvent("notifications", event.recipient(), event))
+                .toList());
+    }
+
+    // 消息 key 用聚合 ID：同一个员工 / 部门的事件落在同一分区，消费端按写入顺序看到；没有 ID 时不指定 key
+    private static String key(Long aggregateId) {
+        return aggregateId == null ? null : aggregateId.toString();
+    }
+
+    private void enqueue(String topic, String key, Object event) {
+        outboxEventRepository.save(toOutboxEvent(topic, key, event));
+        log.debug("事件已写入outbox: topic={}, key={}", topic, key);
+    }
+
+    private void enqueueAll(String topic, List<OutboxEvent> events) {
+        outboxEventRepository.appendAll(events);
+        log.debug("{} 个事件已写入outbox: topic={}", events.size(), topic);
+    }
+
+    private OutboxEvent toOutboxEvent(String topic, String key, Object event) {
+        EventCodec codec = eventCodecs.forTopic(topic);
+        return OutboxEvent.builder()
+                .topic(topic)
+                .eventKey(key)
+                .contentType(codec.contentType())
+                .payload(codec.encode(event))
+                .build();
     }
 }
@@ -0,0 +1,109 @@
+package com.example.employee.service;
+
+import com.example.employee.domain.OutboxEvent;
+import com.example.employee.event.codec.EventCodec;
+import com.example.employee.repo.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Outbox 投递器：定时从 outbox_events 取一批事件发送到 Kafka，确认后删除
+ * 每批在自己的事务里加行锁（FOR UPDATE SKIP LOCKED），多副本并行也不会重复发送
+ * 语义是 at-least-once：发送成功但删除前宕机，下一轮会重发
+ * 顺序：消息 key 是聚合 ID（见 KafkaProducerService），同一个员工 / 部门的事件在同一个分区；
+ * 一批里遇到第一个发送失败就停，只删除它之前连续确认的事件，失败的事件和后面的事件下一轮按原顺序重发
+ * 行锁在等待确认期间一直持有，send-timeout 就是每批持锁时间的上限，应与生产者的 delivery.timeout.ms 一致
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration sendTimeout;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, byte[]> kafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+                       @Value("${outbox.relay.send-timeout:3s}") Duration sendTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.sendTimeout = sendTimeout;
+    }
+
+    // linger: 两轮之间的间隔，即事件从提交到发出的最大附加延迟
+    @Scheduled(fixedDelayString = "${outbox.relay.linger-ms:200}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer published = transactionTemplate.execute(status -> publishNextBatch());
+            // 不满一批说明已经追上，等下一轮
+            if (published == null || published < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private int publishNextBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, byte[]>>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            futures.add(kafkaTemplate.send(toRecord(event)));
+        }
+        kafkaTemplate.flush();
+
+        // 按 id 顺序等确认，所有事件共用一个截止时间
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Outbox event {} not acknowledged, it and the {} events after it will be retried in order: {}",
+                        batch.get(i).getId(), batch.size() - i - 1, e.getMessage());
+                break;
+            }
+            sentIds.add(batch.get(i).getId());
+        }
+        outboxEventRepository.deleteAllByIdInBatch(sentIds);
+        log.debug("Outbox relay published {}/{} events", sentIds.size(), batch.size());
+        return sentIds.size();
+    }
+
+    // payload 已在写入 outbox 时编码，这里只附上 contentType 供消费端选择解码器
+    private static ProducerRecord<String, byte[]> toRecord(OutboxEvent event) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(event.getTopic(), event.getEventKey(), event.getPayload());
+        record.headers().add(EventCodec.CONTENT_TYPE_HEADER, event.getContentType().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
@@ -2,11 +2,15 @@ package com.example.employee.web;
 
 import com.example.employee.dto.EmployeeDTO;
 import com.example.employee.dto.EmployeeStatsDTO;
+import com.example.employee.pagination.CursorPage;
+import com.example.employee.repo.EmployeeFilter;
 import com.example.employee.service.EmployeeService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,14 +21,33 @@ public class EmployeeController {
 
     private final EmployeeService service;
 
-    // 1. GET /employees — pagination (page, size), sorting (sort=lastName,asc), filters (email, lastName contains, departmentId).
+    // 1. GET /employees — pagination (page, size), sorting (sort=lastName,asc), filters (email, lastName substring — lastNameMatch=prefix for an index-friendly prefix match, departmentId); count=false skips the COUNT query; includeDepartment=true resolves departments with one batched call per page.
     @GetMapping
-    public Page<EmployeeDTO> all(
+    public Slice<EmployeeDTO> all(
             @RequestParam(required = false) String email,
             @RequestParam(required = false) String lastName,
+            @RequestParam(defaultValue = "contains") String lastNameMatch,
             @RequestParam(required = false) Long departmentId,
+            @RequestParam(defaultValue = "true") boolean count,
+            @RequestParam(defaultValue = "false") boolean includeDepartment,
             Pageable pageable) {
-        return service.getAll(email, lastName, departmentId, pageable);
+        EmployeeFilter filter = new EmployeeFilter(email, lastName, EmployeeFilter.LastNameMatch.of(lastNameMatch), departmentId);
+        return service.getAll(filter, pageable, count, includeDepartment);
+    }
+
+    // 1c. GET /api/v1/employees?after=<cursor>&size=20 — keyset pagination without COUNT; start with after= (empty), then pass back nextCursor.
+    @GetMapping(params = "after")
+    public CursorPage<EmployeeDTO> allAfter(
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(defaultValue = "contains") String lastNameMatch,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeDepartment,
+            Sort sort) {
+        EmployeeFilter filter = new EmployeeFilter(email, lastName, EmployeeFilter.LastNameMatch.of(lastNameMatch), departmentId);
+        return service.getAllAfter(filter, after, sort, size, includeDepartment);
     }
 
     // 2. GET /employees/{id} — employee detail, optionally enriched with department summary
@@ -66,8 +89,10 @@ public class EmployeeController {
 
     // 7. GET /employees/search — convenience endpoint for case-insensitive name/email search.
     @GetMapping("/search")
-    public Page<EmployeeDTO> search(@RequestParam String query, Pageable pageable) {
-        return service.search(query, pageable);
+    public Page<EmployeeDTO> search(@RequestParam String query,
+                                    @RequestParam(defaultValue = "false") boolean includeDepartment,
+                                    Pageable pageable) {
+        return service.search(query, pageable, includeDepartment);
     }
 
     // 8. GET /employees/stats — simple metrics (e.g., counts by departmentId).
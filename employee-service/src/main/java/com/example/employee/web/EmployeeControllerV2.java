@@ -1,16 +1,32 @@
 package com.example.employee.web;
 
+import com.example.employee.dto.BulkImportResultDTO;
 import com.example.employee.dto.EmployeeDTO;
 import com.example.employee.dto.EmployeeStatsDTO;
+import com.example.employee.pagination.CursorPage;
+import com.example.employee.repo.EmployeeFilter;
+import com.example.employee.service.EmployeeBulkImportService;
+import com.example.employee.service.EmployeeExportService;
 import com.example.employee.service.EmployeeService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/v2/employees")
@@ -18,44 +34,94 @@ import org.springframework.web.bind.annotation.*;
 public class EmployeeControllerV2 {
 
     private final EmployeeService service;
+    private final EmployeeBulkImportService bulkImportService;
+    private final EmployeeExportService exportService;
+
+    // 部门服务不可用时 department 是 DepartmentClientFallback 的占位数据，这样的响应不写进缓存，否则会在整个 TTL 内返回 SERVICE_DOWN
+    private static final String DEGRADED = "#result != null && #result.department != null"
+            + " && #result.department.code == T(com.example.employee.client.DepartmentClientFallback).SERVICE_DOWN_CODE";
+    private static final String UNLESS_NULL_OR_DEGRADED = "#result == null || (" + DEGRADED + ")";
 
-    // 1. GET /api/v2/employees — pagination (page, size), sorting (sort=lastName,asc), filters (email, lastName contains, departmentId).
+    // 1. GET /api/v2/employees — pagination (page, size), sorting (sort=lastName,asc), filters (email, lastName substring — lastNameMatch=prefix for an index-friendly prefix match, departmentId); count=false skips the COUNT query; includeDepartment=true resolves departments with one batched call per page.
     @GetMapping
-    public Page<EmployeeDTO> all(
+    public Slice<EmployeeDTO> all(
             @RequestParam(required = false) String email,
             @RequestParam(required = false) String lastName,
+            @RequestParam(defaultValue = "contains") String lastNameMatch,
             @RequestParam(required = false) Long departmentId,
+            @RequestParam(defaultValue = "true") boolean count,
+            @RequestParam(defaultValue = "false") boolean includeDepartment,
             Pageable pageable) {
-        return service.getAll(email, lastName, departmentId, pageable);
+        EmployeeFilter filter = new EmployeeFilter(email, lastName, EmployeeFilter.LastNameMatch.of(lastNameMatch), departmentId);
+        return service.getAll(filter, pageable, count, includeDepartment);
     }
 
-    // 2. GET /api/v2/employees/{id} — employee detail with Redis caching
+    // 1c. GET /api/v2/employees?after=<cursor>&size=20 — keyset pagination without COUNT; start with after= (empty), then pass back nextCursor.
+    @GetMapping(params = "after")
+    public CursorPage<EmployeeDTO> allAfter(
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(defaultValue = "contains") String lastNameMatch,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeDepartment,
+            Sort sort) {
+        EmployeeFilter filter = new EmployeeFilter(email, lastName, EmployeeFilter.LastNameMatch.of(lastNameMatch), departmentId);
+        return service.getAllAfter(filter, after, sort, size, includeDepartment);
+    }
+
+    // 1b. GET /api/v2/employees/export?format=ndjson|csv — streams every employee from a forward-only JDBC cursor; constant heap.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        EmployeeExportService.Format exportFormat = EmployeeExportService.Format.of(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + exportFormat.fileName() + "\"")
+                .body(out -> exportService.export(exportFormat, out));
+    }
+
+    // 2. GET /api/v2/employees/{id} — employee detail with Redis caching; includeDepartment=true/false are cached under separate keys (id:true / id:false)
     @GetMapping("/{id}")
-    @Cacheable(value = "employees", key = "#id", unless = "#result == null")
+    @Cacheable(value = "employees", key = "#id + ':' + #includeDepartment", unless = UNLESS_NULL_OR_DEGRADED)
     public EmployeeDTO byId(@PathVariable Long id,
                             @RequestParam(defaultValue = "false") boolean includeDepartment) {
         return service.getById(id, includeDepartment);
     }
 
     // 3. POST /api/v2/employees — create; enforce unique email; optional Idempotency-Key request header
+    // 新员工还不在缓存里，不需要失效
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @CacheEvict(value = {"employees", "employeeStats"}, allEntries = true)
     public EmployeeDTO create(@Valid @RequestBody EmployeeDTO dto,
                               @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         return service.create(dto, idempotencyKey);
     }
 
+    // 3b. POST /api/v2/employees/bulk — bulk create from a streamed JSON array or NDJSON body; per-row results + rows/s.
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BulkImportResultDTO bulkCreate(InputStream body) throws IOException {
+        return bulkImportService.importEmployees(body);
+    }
+
     // 4. PUT /api/v2/employees/{id} — full update; reject changing to a duplicate email (409).
+    // 只处理这个员工的两个缓存 key：返回值本身就带部门信息，直接写入 id:true，id:false 失效
+    // 部门是降级占位数据时不写入，改为让 id:true 失效（不能留着更新前的旧值）
     @PutMapping("/{id}")
-    @CacheEvict(value = {"employees", "employeeStats"}, allEntries = true)
+    @Caching(put = @CachePut(value = "employees", key = "#id + ':true'", unless = UNLESS_NULL_OR_DEGRADED),
+            evict = {
+                    @CacheEvict(value = "employees", key = "#id + ':false'"),
+                    @CacheEvict(value = "employees", key = "#id + ':true'", condition = DEGRADED)})
     public EmployeeDTO update(@PathVariable Long id, @Valid @RequestBody EmployeeDTO dto) {
         return service.update(id, dto);
     }
 
-    // 5. PATCH /api/v2/employees/{id} — partial update (e.g., only departmentId).
+    // 5. PATCH /api/v2/employees/{id} — partial update (e.g., only departmentId). 缓存处理同 PUT
     @PatchMapping("/{id}")
-    @CacheEvict(value = {"employees", "employeeStats"}, allEntries = true)
+    @Caching(put = @CachePut(value = "employees", key = "#id + ':true'", unless = UNLESS_NULL_OR_DEGRADED),
+            evict = {
+                    @CacheEvict(value = "employees", key = "#id + ':false'"),
+                    @CacheEvict(value = "employees", key = "#id + ':true'", condition = DEGRADED)})
     public EmployeeDTO partialUpdate(@PathVariable Long id, @RequestBody EmployeeDTO dto) {
         return service.partialUpdate(id, dto);
     }
@@ -63,20 +129,23 @@ public class EmployeeControllerV2 {
     // 6. DELETE /api/v2/employees/{id} — delete (204).
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    @CacheEvict(value = {"employees", "employeeStats"}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "employees", key = "#id + ':true'"),
+            @CacheEvict(value = "employees", key = "#id + ':false'")})
     public void delete(@PathVariable Long id) {
         service.delete(id);
     }
 
     // 7. GET /api/v2/employees/search — convenience endpoint for case-insensitive name/email search.
     @GetMapping("/search")
-    public Page<EmployeeDTO> search(@RequestParam String query, Pageable pageable) {
-        return service.search(query, pageable);
+    public Page<EmployeeDTO> search(@RequestParam String query,
+                                    @RequestParam(defaultValue = "false") boolean includeDepartment,
+                                    Pageable pageable) {
+        return service.search(query, pageable, includeDepartment);
     }
 
-    // 8. GET /api/v2/employees/stats — simple metrics with Redis caching
+    // 8. GET /api/v2/employees/stats — simple metrics from in-memory counters (no DB hit, no cache to evict on writes)
     @GetMapping("/stats")
-    @Cacheable(value = "employeeStats", key = "'all'", unless = "#result == null")
     public EmployeeStatsDTO getStats() {
         return service.getStats();
     }
@@ -0,0 +1,4 @@
+-- 游标分页按 (排序列, id) 定位，复合索引让 WHERE col >= ? ... ORDER BY col, id LIMIT n 成为索引范围扫描
+-- email 已有唯一索引（InnoDB 二级索引隐含主键 id），不需要额外建
+CREATE INDEX idx_employees_first_name_id ON employees (first_name, id);
+CREATE INDEX idx_employees_last_name_id ON employees (last_name, id);
@@ -0,0 +1,2 @@
+-- GET /employees?departmentId= 按部门过滤并按 id 分页；(last_name, id) 已在 V5 建好，lastName 前缀匹配直接使用
+CREATE INDEX idx_employees_department_id_id ON employees (department_id, id);
@@ -0,0 +1,123 @@
+package com.example.employee.bench;
+
+import com.example.employee.cache.CacheValueSerializer;
+import com.example.employee.dto.DepartmentDTO;
+import com.example.employee.dto.EmployeeDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存值序列化对比：Spring 自带的 GenericJackson2JsonRedisSerializer、cache.serializer=json、cache.serializer=binary
+ * （原来默认的 JDK 序列化要求 Serializable，DTO 都没有实现，无法参与对比）
+ * 每个缓存项写入 Redis 的字节数在 main 里打印；耗时为单个缓存项的序列化 / 反序列化
+ * 运行：在 IDE 中执行 main，或
+ * mvn -pl employee-service test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.employee.bench.CacheSerializerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    // employee：GET /api/v2/employees/{id}?includeDepartment=true 的缓存项；list：一页 50 个员工
+    @Param({"employee", "list"})
+    public String value;
+
+    private RedisSerializer<Object> spring;
+    private RedisSerializer<Object> json;
+    private RedisSerializer<Object> binary;
+
+    private Object entry;
+    private byte[] springBytes;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        spring = new GenericJackson2JsonRedisSerializer();
+        json = CacheValueSerializer.of(CacheValueSerializer.Format.JSON, objectMapper);
+        binary = CacheValueSerializer.of(CacheValueSerializer.Format.BINARY, objectMapper);
+
+        entry = "list".equals(value) ? employees(50) : employee(123456L);
+        springBytes = spring.serialize(entry);
+        jsonBytes = json.serialize(entry);
+        binaryBytes = binary.serialize(entry);
+    }
+
+    @Benchmark
+    public byte[] springJsonSerialize() {
+        return spring.serialize(entry);
+    }
+
+    @Benchmark
+    public Object springJsonDeserialize() {
+        return spring.deserialize(springBytes);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return json.serialize(entry);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() {
+        return json.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return binary.serialize(entry);
+    }
+
+    @Benchmark
+    public Object binaryDeserialize() {
+        return binary.deserialize(binaryBytes);
+    }
+
+    private static List<EmployeeDTO> employees(int count) {
+        List<EmployeeDTO> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(employee(100_000L + i));
+        }
+        return employees;
+    }
+
+    private static EmployeeDTO employee(long id) {
+        DepartmentDTO department = new DepartmentDTO();
+        department.setId(12L);
+        department.setName("Engineering");
+        department.setCode("ENG");
+        department.setDescription("Platform and product engineering");
+        return new EmployeeDTO(id, "Wei", "Zhang", "zhang.wei" + id + "@company.com", 12L, department);
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (String value : List.of("employee", "list")) {
+            CacheSerializerBenchmark sizes = new CacheSerializerBenchmark();
+            sizes.value = value;
+            sizes.setUp();
+            System.out.printf("bytes/%s: spring json=%d, json=%d, binary=%d%n",
+                    value, sizes.springBytes.length, sizes.jsonBytes.length, sizes.binaryBytes.length);
+        }
+
+        runBenchmarks();
+    }
+
+    private static void runBenchmarks() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CacheSerializerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.employee.bench;
+
+import com.example.employee.event.EmployeeCreatedEvent;
+import com.example.employee.event.EmployeeEvent;
+import com.example.employee.event.codec.BinaryEventCodec;
+import com.example.employee.event.codec.EventCodec;
+import com.example.employee.event.codec.JsonEventCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 员工事件编解码对比：原来的 HashMap + JSON、类型化 JSON、紧凑二进制
+ * 运行：在 IDE 中执行 main，或
+ * mvn -pl employee-service test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.employee.bench.EventCodecBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private ObjectMapper objectMapper;
+    private EventCodec json;
+    private EventCodec binary;
+
+    private EmployeeCreatedEvent event;
+    private Map<String, Object> mapEvent;
+
+    private byte[] mapBytes;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        json = new JsonEventCodec(objectMapper);
+        binary = new BinaryEventCodec();
+
+        event = new EmployeeCreatedEvent(123456L, "zhang.wei@company.com", 12L, "Wei", "Zhang", System.currentTimeMillis());
+        mapEvent = legacyMap(event);
+
+        mapBytes = objectMapper.writeValueAsBytes(mapEvent);
+        jsonBytes = json.encode(event);
+        binaryBytes = binary.encode(event);
+    }
+
+    @Benchmark
+    public byte[] mapJsonSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(legacyMap(event));
+    }
+
+    @Benchmark
+    public Map<String, Object> mapJsonDeserialize() throws Exception {
+        return objectMapper.readValue(mapBytes, MAP_TYPE);
+    }
+
+    @Benchmark
+    public byte[] typedJsonSerialize() {
+        return json.encode(event);
+    }
+
+    @Benchmark
+    public EmployeeEvent typedJsonDeserialize() {
+        return json.decode(jsonBytes, EmployeeEvent.class);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return binary.encode(event);
+    }
+
+    @Benchmark
+    public EmployeeEvent binaryDeserialize() {
+        return binary.decode(binaryBytes, EmployeeEvent.class);
+    }
+
+    // 与 EmployeeService 原来构造事件的方式一致
+    private static Map<String, Object> legacyMap(EmployeeCreatedEvent e) {
+        Map<String, Object> eventData = new HashMap<>();
+        eventData.put("eventType", "EMPLOYEE_CREATED");
+        eventData.put("employeeId", e.employeeId());
+        eventData.put("email", e.email());
+        eventData.put("departmentId", e.departmentId());
+        eventData.put("firstName", e.firstName());
+        eventData.put("lastName", e.lastName());
+        eventData.put("timestamp", e.timestamp());
+        return eventData;
+    }
+
+    public static void main(String[] args) throws Exception {
+        EventCodecBenchmark sizes = new EventCodecBenchmark();
+        sizes.setUp();
+        System.out.printf("bytes/event: map+json=%d, typed json=%d, binary=%d%n",
+                sizes.mapBytes.length, sizes.jsonBytes.length, sizes.binaryBytes.length);
+
+        runBenchmarks();
+    }
+
+    private static void runBenchmarks() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.employee.bench;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 第 1000 页（size=20）的查询耗时：OFFSET/LIMIT + COUNT（Spring Data Page）对比游标分页（seek，LIMIT size + 1，无 COUNT）
+ * 两种方式的 SQL 与 Hibernate 为 /api/v2/employees 和 ?after= 生成的语句等价，直接走 JDBC 只测数据库部分
+ * 需要本地 Docker（Testcontainers 启动 MySQL 8，按 Flyway 迁移建表和索引，再灌入 ROWS 行）
+ * 运行：在 IDE 中执行 main，或
+ * mvn -pl employee-service test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.employee.bench.KeysetPaginationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeysetPaginationBenchmark {
+
+    private static final int ROWS = 200_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGE = 1000;
+
+    private static final String COLUMNS = "SELECT id, first_name, last_name, email, department_id FROM employees ";
+
+    // 排序列：id（默认排序）或 last_name（走 V5 的 (last_name, id) 索引）
+    @Param({"id", "last_name"})
+    private String sortColumn;
+
+    private MySQLContainer<?> mysql;
+    private Connection connection;
+
+    private PreparedStatement offsetQuery;
+    private PreparedStatement countQuery;
+    private PreparedStatement keysetQuery;
+
+    // 第 999 页最后一行，相当于客户端带回来的游标
+    private String cursorValue;
+    private long cursorId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        mysql = new MySQLContainer<>("mysql:8.0");
+        mysql.start();
+
+        Flyway.configure()
+                .dataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword())
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(mysql.getJdbcUrl() + "?rewriteBatchedStatements=true",
+                mysql.getUsername(), mysql.getPassword());
+        seed();
+
+        String orderBy = "id".equals(sortColumn) ? "ORDER BY id " : "ORDER BY last_name, id ";
+        offsetQuery = connection.prepareStatement(COLUMNS + orderBy + "LIMIT ? OFFSET ?");
+        countQuery = connection.prepareStatement("SELECT COUNT(*) FROM employees");
+        keysetQuery = connection.prepareStatement("id".equals(sortColumn)
+                ? COLUMNS + "WHERE id > ? " + orderBy + "LIMIT ?"
+                : COLUMNS + "WHERE last_name >= ? AND (last_name > ? OR id > ?) " + orderBy + "LIMIT ?");
+
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT id, last_name FROM employees " + orderBy + "LIMIT 1 OFFSET ?")) {
+            ps.setInt(1, (PAGE - 1) * PAGE_SIZE - 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                cursorId = rs.getLong("id");
+                cursorValue = rs.getString("last_name");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+        if (mysql != null) {
+            mysql.stop();
+        }
+    }
+
+    @Benchmark
+    public long offsetPage() throws SQLException {
+        offsetQuery.setInt(1, PAGE_SIZE);
+        offsetQuery.setInt(2, (PAGE - 1) * PAGE_SIZE);
+        long checksum = drain(offsetQuery);
+        try (ResultSet rs = countQuery.executeQuery()) {
+            rs.next();
+            return checksum + rs.getLong(1);
+        }
+    }
+
+    @Benchmark
+    public long keysetPage() throws SQLException {
+        int i = 1;
+        if (!"id".equals(sortColumn)) {
+            keysetQuery.setString(i++, cursorValue);
+            keysetQuery.setString(i++, cursorValue);
+        }
+        keysetQuery.setLong(i++, cursorId);
+        keysetQuery.setInt(i, PAGE_SIZE + 1);
+        return drain(keysetQuery);
+    }
+
+    private static long drain(PreparedStatement query) throws SQLException {
+        long checksum = 0;
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                checksum += rs.getLong(1);
+            }
+        }
+        return checksum;
+    }
+
+    private void seed() throws SQLException {
+        String[] lastNames = {"Zhang", "Wang", "Li", "Liu", "Chen", "Yang", "Huang", "Zhao", "Wu", "Zhou"};
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO employees (first_name, last_name, email, department_id) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                ps.setString(1, "First" + i);
+                ps.setString(2, lastNames[i % lastNames.length] + (i % 997));
+                ps.setString(3, "bench" + i + "@company.com");
+                ps.setLong(4, i % 50 + 1);
+                ps.addBatch();
+                if (i % 5_000 == 4_999) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement st = connection.createStatement()) {
+            st.execute("ANALYZE TABLE employees");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KeysetPaginationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
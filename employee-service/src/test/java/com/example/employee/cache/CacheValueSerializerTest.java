@@ -0,0 +1,79 @@
+package com.example.employee.cache;
+
+import com.example.employee.dto.DepartmentDTO;
+import com.example.employee.dto.EmployeeDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CacheValueSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @ParameterizedTest
+    @EnumSource(CacheValueSerializer.Format.class)
+    void dto_round_trips_with_its_type(CacheValueSerializer.Format format) {
+        CacheValueSerializer serializer = CacheValueSerializer.of(format, objectMapper);
+        EmployeeDTO employee = employee();
+
+        Object read = serializer.deserialize(serializer.serialize(employee));
+
+        assertThat(read).isEqualTo(employee);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CacheValueSerializer.Format.class)
+    void lists_keep_element_types(CacheValueSerializer.Format format) {
+        CacheValueSerializer serializer = CacheValueSerializer.of(format, objectMapper);
+        List<EmployeeDTO> employees = new ArrayList<>(List.of(employee(), employee()));
+
+        Object read = serializer.deserialize(serializer.serialize(employees));
+
+        assertThat(read).asList().containsExactlyElementsOf(employees);
+    }
+
+    @Test
+    void binary_is_smaller_than_json() {
+        EmployeeDTO employee = employee();
+
+        byte[] json = CacheValueSerializer.of(CacheValueSerializer.Format.JSON, objectMapper).serialize(employee);
+        byte[] binary = CacheValueSerializer.of(CacheValueSerializer.Format.BINARY, objectMapper).serialize(employee);
+
+        assertThat(binary.length).isLessThan(json.length);
+    }
+
+    @Test
+    void rejects_types_outside_the_allow_list() {
+        CacheValueSerializer serializer = CacheValueSerializer.of(CacheValueSerializer.Format.JSON, objectMapper);
+        byte[] payload = "{\"@class\":\"javax.swing.JLabel\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> serializer.deserialize(payload)).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void unknown_format_is_rejected() {
+        assertThatThrownBy(() -> CacheValueSerializer.Format.of("kryo"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("kryo");
+    }
+
+    private static EmployeeDTO employee() {
+        DepartmentDTO department = new DepartmentDTO();
+        department.setId(12L);
+        department.setName("Engineering");
+        department.setCode("ENG");
+        return new EmployeeDTO(123456L, "Wei", "Zhang", "zhang.wei@company.com", 12L, department);
+    }
+}
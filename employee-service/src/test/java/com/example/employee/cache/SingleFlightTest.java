@@ -0,0 +1,77 @@
+package com.example.employee.cache;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrent_callers_for_the_same_key_share_one_load() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(pool.submit(() -> singleFlight.execute(1L, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "employee-1";
+            })));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < callers; i++) {
+                results.add(pool.submit(() -> singleFlight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    return "duplicate load";
+                })));
+            }
+            // 等其余调用方都挂到同一次加载上
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("employee-1");
+            }
+            assertThat(loads).hasValue(1);
+            assertThat(singleFlight.inFlight()).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failures_are_not_remembered() {
+        assertThatThrownBy(() -> singleFlight.execute(2L, () -> {
+            throw new EntityNotFoundException("Employee not found");
+        })).isInstanceOf(EntityNotFoundException.class);
+
+        assertThat(singleFlight.execute(2L, () -> "employee-2")).isEqualTo("employee-2");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
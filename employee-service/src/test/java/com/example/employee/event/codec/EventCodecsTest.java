@@ -0,0 +1,78 @@
+package com.example.employee.event.codec;
+
+import com.example.employee.config.EventCodecProperties;
+import com.example.employee.event.DepartmentEvent;
+import com.example.employee.event.DepartmentUpdatedEvent;
+import com.example.employee.event.EmployeeCreatedEvent;
+import com.example.employee.event.EmployeeEvent;
+import com.example.employee.event.EmployeeUpdatedEvent;
+import com.example.employee.event.NotificationEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class EventCodecsTest {
+
+    EventCodecs codecs;
+
+    @BeforeEach
+    void setUp() {
+        EventCodecProperties properties = new EventCodecProperties();
+        properties.setTopics(Map.of("employee-events", "binary"));
+        codecs = new EventCodecs(new ObjectMapper(), properties);
+    }
+
+    @Test
+    void format_is_selected_per_topic() {
+        assertThat(codecs.forTopic("employee-events").contentType()).isEqualTo(BinaryEventCodec.CONTENT_TYPE);
+        assertThat(codecs.forTopic("notifications").contentType()).isEqualTo(JsonEventCodec.CONTENT_TYPE);
+    }
+
+    @Test
+    void binary_round_trip_keeps_nulls_and_negative_values() {
+        EventCodec binary = codecs.forContentType(BinaryEventCodec.CONTENT_TYPE);
+        EmployeeUpdatedEvent event = new EmployeeUpdatedEvent(-7L, "a@b.com", null, 3L, "Ann", null, 1_700_000_000_000L);
+
+        EmployeeEvent decoded = binary.decode(binary.encode(event), EmployeeEvent.class);
+
+        assertThat(decoded).isEqualTo(event);
+    }
+
+    @Test
+    void binary_is_smaller_than_json() {
+        EmployeeCreatedEvent event = new EmployeeCreatedEvent(42L, "ann.lee@company.com", 3L, "Ann", "Lee", System.currentTimeMillis());
+
+        int binarySize = codecs.forContentType(BinaryEventCodec.CONTENT_TYPE).encode(event).length;
+        int jsonSize = codecs.forContentType(JsonEventCodec.CONTENT_TYPE).encode(event).length;
+
+        assertThat(binarySize).isLessThan(jsonSize / 2);
+    }
+
+    @Test
+    void json_without_header_decodes_legacy_map_payload() {
+        byte[] legacy = ("{\"eventType\":\"DEPARTMENT_UPDATED\",\"departmentId\":5,\"name\":\"Eng\","
+                + "\"code\":\"ENG\",\"description\":null,\"timestamp\":1}").getBytes(StandardCharsets.UTF_8);
+
+        DepartmentEvent decoded = codecs.forContentType(null).decode(legacy, DepartmentEvent.class);
+
+        assertThat(decoded).isEqualTo(new DepartmentUpdatedEvent(5L, "Eng", "ENG", null, 1L));
+    }
+
+    @Test
+    void decoding_into_the_wrong_family_is_rejected() {
+        EventCodec binary = codecs.forContentType(BinaryEventCodec.CONTENT_TYPE);
+        byte[] payload = binary.encode(NotificationEvent.system("hr@company.com", "hello"));
+
+        assertThatThrownBy(() -> binary.decode(payload, EmployeeEvent.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.employee.idempotency;
+
+import com.example.employee.dto.EmployeeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class InMemoryIdempotencyStoreTest {
+
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(
+            new SimpleMeterRegistry(), 1000, Duration.ofHours(1), Duration.ofMillis(50));
+
+    @Test
+    void completed_result_is_replayed() {
+        String token = store.tryAcquire("k").orElseThrow();
+
+        store.complete("k", token, employee(1L));
+
+        assertThat(store.find("k")).map(EmployeeDTO::getId).contains(1L);
+        assertThat(store.tryAcquire("k")).isEmpty();
+    }
+
+    @Test
+    void release_frees_the_key_for_a_retry() {
+        String token = store.tryAcquire("k").orElseThrow();
+
+        store.release("k", token);
+
+        assertThat(store.tryAcquire("k")).isPresent();
+    }
+
+    @Test
+    void request_whose_lock_expired_cannot_release_or_overwrite_the_next_holder() throws InterruptedException {
+        String stale = store.tryAcquire("k").orElseThrow();
+        Thread.sleep(120);
+        String current = store.tryAcquire("k").orElseThrow();
+
+        store.release("k", stale);
+        assertThat(store.tryAcquire("k")).as("current holder's lock survives the stale release").isEmpty();
+
+        store.complete("k", stale, employee(1L));
+        assertThat(store.find("k")).isEmpty();
+
+        store.complete("k", current, employee(2L));
+        assertThat(store.find("k")).map(EmployeeDTO::getId).contains(2L);
+    }
+
+    private static EmployeeDTO employee(Long id) {
+        return EmployeeDTO.builder().id(id).firstName("X").lastName("Y").email("x" + id + "@example.com").build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.employee.loadbalancer;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PeakEwmaLoadBalancerTest {
+
+    private static final String SERVICE = "DEPARTMENT-SERVICE";
+
+    private final ServiceInstance fast = new DefaultServiceInstance("fast", SERVICE, "10.0.0.1", 8082, false);
+    private final ServiceInstance slow = new DefaultServiceInstance("slow", SERVICE, "10.0.0.2", 8082, false);
+    private final InstanceLatencyTracker tracker = new InstanceLatencyTracker(Duration.ofSeconds(10), Duration.ofSeconds(1));
+
+    @Test
+    void slow_instance_stops_getting_an_equal_share() {
+        record(fast, Duration.ofMillis(5), CompletionContext.Status.SUCCESS);
+        record(slow, Duration.ofMillis(300), CompletionContext.Status.SUCCESS);
+        PeakEwmaLoadBalancer balancer = balancer(fast, slow);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(choose(balancer)).isEqualTo(fast);
+        }
+    }
+
+    @Test
+    void outstanding_requests_make_an_instance_more_expensive() {
+        record(fast, Duration.ofMillis(10), CompletionContext.Status.SUCCESS);
+        record(slow, Duration.ofMillis(10), CompletionContext.Status.SUCCESS);
+        for (int i = 0; i < 5; i++) {
+            tracker.onStartRequest(request(), new DefaultResponse(fast));
+        }
+
+        assertThat(choose(balancer(fast, slow))).isEqualTo(slow);
+    }
+
+    @Test
+    void fast_failures_count_as_the_failure_penalty() {
+        record(fast, Duration.ofMillis(1), CompletionContext.Status.FAILED);
+        record(slow, Duration.ofMillis(50), CompletionContext.Status.SUCCESS);
+
+        assertThat(choose(balancer(fast, slow))).isEqualTo(slow);
+    }
+
+    @Test
+    void single_or_no_instance() {
+        assertThat(choose(balancer(slow))).isEqualTo(slow);
+        assertThat(balancer().choose(request()).block().hasServer()).isFalse();
+    }
+
+    private PeakEwmaLoadBalancer balancer(ServiceInstance... instances) {
+        return new PeakEwmaLoadBalancer(ServiceInstanceListSuppliers.toProvider(SERVICE, instances), tracker);
+    }
+
+    private ServiceInstance choose(PeakEwmaLoadBalancer balancer) {
+        return balancer.choose(request()).block().getServer();
+    }
+
+    // 模拟 Feign 的回调顺序：onStartRequest 开始计时，onComplete 记录延迟
+    private void record(ServiceInstance instance, Duration latency, CompletionContext.Status status) {
+        Request<Object> request = request();
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        tracker.onStartRequest(request, response);
+        ((DefaultRequestContext) request.getContext()).setRequestStartTime(System.nanoTime() - latency.toNanos());
+        tracker.onComplete(new CompletionContext<>(status, request, response));
+    }
+
+    private static Request<Object> request() {
+        return new DefaultRequest<>(new DefaultRequestContext());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.employee.pagination;
+
+import com.example.employee.domain.Employee;
+import com.example.employee.exception.InvalidRequestParameterException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class KeysetRequestTest {
+
+    private static final Set<String> SORTABLE = Set.of("lastName", "email");
+
+    @Test
+    void first_page_defaults_to_id_ascending() {
+        KeysetRequest request = KeysetRequest.of("", Sort.unsorted(), 20, SORTABLE);
+
+        assertThat(request.sort()).isEqualTo(Sort.by(Sort.Direction.ASC, "id"));
+        assertThat(request.afterSpecification()).isNull();
+    }
+
+    @Test
+    void sort_column_gets_id_as_tie_breaker() {
+        KeysetRequest request = KeysetRequest.of(null, Sort.by(Sort.Direction.DESC, "lastName"), 20, SORTABLE);
+
+        assertThat(request.sort()).isEqualTo(Sort.by(Sort.Direction.DESC, "lastName").and(Sort.by(Sort.Direction.DESC, "id")));
+    }
+
+    @Test
+    void next_cursor_points_at_last_row_and_carries_the_sort() {
+        KeysetRequest first = KeysetRequest.of(null, Sort.by(Sort.Direction.DESC, "lastName"), 2, SORTABLE);
+        List<Employee> rows = List.of(employee(7L, "Zhou"), employee(3L, "Wang"));
+
+        CursorPage<Long> page = first.toPage(new SliceImpl<>(rows, PageRequest.of(0, 2), true), Employee::getId);
+
+        assertThat(page.content()).containsExactly(7L, 3L);
+        assertThat(page.hasNext()).isTrue();
+
+        // 第二页只带游标：排序方式从游标恢复，请求里的 sort 被忽略
+        KeysetRequest next = KeysetRequest.of(page.nextCursor(), Sort.by("email"), 2, SORTABLE);
+        assertThat(next.after()).isEqualTo(new Keyset("lastName", Sort.Direction.DESC, "Wang", 3L));
+        assertThat(next.sort()).isEqualTo(first.sort());
+        assertThat(next.afterSpecification()).isNotNull();
+    }
+
+    @Test
+    void last_page_has_no_cursor() {
+        KeysetRequest request = KeysetRequest.of(null, Sort.unsorted(), 2, SORTABLE);
+
+        CursorPage<Long> page = request.toPage(new SliceImpl<>(List.of(employee(1L, "Li")), PageRequest.of(0, 2), false), Employee::getId);
+
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void size_is_clamped() {
+        assertThat(KeysetRequest.of(null, Sort.unsorted(), 0, SORTABLE).size()).isEqualTo(1);
+        assertThat(KeysetRequest.of(null, Sort.unsorted(), 50_000, SORTABLE).size()).isEqualTo(KeysetRequest.MAX_SIZE);
+    }
+
+    @Test
+    void tampered_cursor_is_rejected() {
+        assertThatThrownBy(() -> KeysetRequest.of("not-a-cursor", Sort.unsorted(), 20, SORTABLE))
+                .isInstanceOf(InvalidRequestParameterException.class);
+
+        String otherColumn = new Keyset("departmentId", Sort.Direction.ASC, "1", 1L).encode();
+        assertThatThrownBy(() -> KeysetRequest.of(otherColumn, Sort.unsorted(), 20, SORTABLE))
+                .isInstanceOf(InvalidRequestParameterException.class);
+    }
+
+    @Test
+    void unsupported_sort_is_rejected() {
+        assertThatThrownBy(() -> KeysetRequest.of(null, Sort.by("departmentId"), 20, SORTABLE))
+                .isInstanceOf(InvalidRequestParameterException.class)
+                .hasMessageContaining("departmentId");
+    }
+
+    private static Employee employee(Long id, String lastName) {
+        return new Employee(id, "First", lastName, lastName.toLowerCase() + "@company.com", null);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.employee.search;
+
+import com.example.employee.domain.Employee;
+import com.example.employee.repo.EmployeeJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class EmployeeSearchIndexTest {
+
+    private static final Page<Employee> FROM_DATABASE = new PageImpl<>(List.of(employee(99L, "Sql", "Path", "sql@company.com")));
+
+    @Mock
+    EmployeeJdbcRepository employeeJdbcRepository;
+
+    SimpleMeterRegistry meterRegistry;
+    EmployeeSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new EmployeeSearchIndex(employeeJdbcRepository, meterRegistry, true);
+    }
+
+    @Test
+    void uses_sql_until_the_index_is_built() {
+        Page<Employee> page = index.search("lee", PageRequest.of(0, 10), () -> FROM_DATABASE);
+
+        assertThat(page).isSameAs(FROM_DATABASE);
+        assertThat(meterRegistry.get("employee.search.query").tag("source", "database").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("employee.search.index.ready").gauge().value()).isZero();
+    }
+
+    @Test
+    void ranks_exact_and_prefix_matches_first() {
+        stream(employee(1L, "Ann", "Kolee", "ann@company.com"),
+                employee(2L, "Bob", "Lee", "bob@company.com"),
+                employee(3L, "Cat", "Leeds", "cat@company.com"),
+                employee(4L, "Dan", "Xu", "dan.lee@company.com"),
+                employee(5L, "Eve", "Ma", "eve@company.com"));
+        index.rebuild();
+
+        Page<Employee> page = index.search("LEE", PageRequest.of(0, 10), () -> FROM_DATABASE);
+
+        assertThat(page.getContent()).extracting(Employee::getId).containsExactly(2L, 3L, 4L, 1L);
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(meterRegistry.get("employee.search.index.documents").gauge().value()).isEqualTo(5);
+    }
+
+    @Test
+    void short_queries_match_substrings_like_sql() {
+        stream(employee(1L, "Ann", "Lee", "ann@company.com"),
+                employee(2L, "Bob", "Ma", "bob@company.com"));
+        index.rebuild();
+
+        assertThat(index.search("nn", PageRequest.of(0, 10), () -> FROM_DATABASE).getContent())
+                .extracting(Employee::getId).containsExactly(1L);
+    }
+
+    @Test
+    void updates_and_deletes_replace_old_terms() {
+        stream(employee(1L, "Ann", "Lee", "ann@company.com"));
+        index.rebuild();
+
+        index.put(employee(1L, "Ann", "Wang", "ann@company.com"));
+        index.put(employee(2L, "Bob", "Leeson", "bob@company.com"));
+        index.remove(2L);
+
+        assertThat(index.search("lee", PageRequest.of(0, 10), () -> FROM_DATABASE).getContent()).isEmpty();
+        assertThat(index.search("wang", PageRequest.of(0, 10), () -> FROM_DATABASE).getContent())
+                .extracting(Employee::getId).containsExactly(1L);
+    }
+
+    @Test
+    void writes_during_rebuild_are_not_lost() {
+        doAnswer(inv -> {
+            Consumer<Employee> action = inv.getArgument(0);
+            action.accept(employee(1L, "Ann", "Lee", "ann@company.com"));
+            // 构建过程中提交的写操作
+            index.put(employee(2L, "Bob", "Lee", "bob@company.com"));
+            index.remove(1L);
+            return null;
+        }).when(employeeJdbcRepository).forEach(any());
+
+        index.rebuild();
+
+        assertThat(index.search("lee", PageRequest.of(0, 10), () -> FROM_DATABASE).getContent())
+                .extracting(Employee::getId).containsExactly(2L);
+    }
+
+    @Test
+    void explicit_sort_uses_sql() {
+        stream(employee(1L, "Ann", "Lee", "ann@company.com"));
+        index.rebuild();
+
+        assertThat(index.search("lee", PageRequest.of(0, 10, Sort.by("email")), () -> FROM_DATABASE)).isSameAs(FROM_DATABASE);
+    }
+
+    private void stream(Employee... employees) {
+        doAnswer(inv -> {
+            Consumer<Employee> action = inv.getArgument(0);
+            for (Employee e : employees) {
+                action.accept(e);
+            }
+            return null;
+        }).when(employeeJdbcRepository).forEach(any());
+    }
+
+    private static Employee employee(Long id, String firstName, String lastName, String email) {
+        return new Employee(id, firstName, lastName, email, null);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.employee.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class AfterCommitTest {
+
+    private final List<String> calls = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void runs_immediately_without_a_transaction() {
+        AfterCommit.run(() -> calls.add("commit"), () -> calls.add("rollback"));
+
+        assertThat(calls).containsExactly("commit");
+    }
+
+    @Test
+    void waits_for_commit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.run(() -> calls.add("commit"), () -> calls.add("rollback"));
+        assertThat(calls).isEmpty();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(calls).containsExactly("commit");
+    }
+
+    @Test
+    void runs_the_rollback_action_when_the_transaction_does_not_commit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.run(() -> calls.add("commit"), () -> calls.add("rollback"));
+        AfterCommit.run(() -> calls.add("commit only"));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(calls).containsExactly("rollback");
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(status));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.employee.service;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CommitGateTest {
+
+    private final CommitGate gate = new CommitGate();
+
+    @Test
+    void close_waits_for_commits_already_inside() throws Exception {
+        gate.enter();
+        Thread committer = new Thread(() -> {
+            sleep(50);
+            gate.exit();
+        });
+        committer.start();
+
+        assertThat(gate.close(Duration.ofSeconds(5))).isTrue();
+        gate.open();
+        committer.join();
+    }
+
+    @Test
+    void new_commits_wait_until_the_gate_opens() throws Exception {
+        assertThat(gate.close(Duration.ofSeconds(1))).isTrue();
+        CountDownLatch entered = new CountDownLatch(1);
+        Thread committer = new Thread(() -> {
+            gate.enter();
+            entered.countDown();
+            gate.exit();
+        });
+        committer.start();
+
+        assertThat(entered.await(100, TimeUnit.MILLISECONDS)).isFalse();
+        gate.open();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        committer.join();
+    }
+
+    @Test
+    void close_gives_up_and_reopens_when_a_commit_never_finishes() {
+        gate.enter();
+
+        assertThat(gate.close(Duration.ofMillis(20))).isFalse();
+
+        // 闸门已经重新打开，其他提交不会被卡住
+        gate.enter();
+        gate.exit();
+        gate.exit();
+        assertThat(gate.close(Duration.ofMillis(20))).isTrue();
+        gate.open();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.employee.service;
+
+import com.example.employee.client.DepartmentClient;
+import com.example.employee.client.DepartmentClientFallback;
+import com.example.employee.dto.DepartmentDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class DepartmentLookupServiceTest {
+
+    @Mock
+    DepartmentClient departmentClient;
+
+    DepartmentLookupService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DepartmentLookupService(departmentClient, new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void second_lookup_is_served_from_near_cache() {
+        when(departmentClient.getDepartment(1L)).thenReturn(dept(1L, "ENG"));
+
+        service.getDepartment(1L);
+        var out = service.getDepartment(1L);
+
+        assertThat(out.getCode()).isEqualTo("ENG");
+        verify(departmentClient, times(1)).getDepartment(1L);
+    }
+
+    @Test
+    void batch_lookup_only_fetches_cache_misses() {
+        when(departmentClient.getDepartment(1L)).thenReturn(dept(1L, "ENG"));
+        when(departmentClient.getDepartments(List.of(2L))).thenReturn(List.of(dept(2L, "HR")));
+        service.getDepartment(1L);
+
+        var out = service.getDepartments(List.of(1L, 2L, 1L));
+
+        assertThat(out).containsOnlyKeys(1L, 2L);
+        verify(departmentClient).getDepartments(List.of(2L));
+    }
+
+    @Test
+    void fallback_placeholder_is_not_cached() {
+        when(departmentClient.getDepartment(1L)).thenReturn(dept(1L, DepartmentClientFallback.SERVICE_DOWN_CODE));
+
+        service.getDepartment(1L);
+        service.getDepartment(1L);
+
+        verify(departmentClient, times(2)).getDepartment(1L);
+    }
+
+    @Test
+    void department_events_refresh_and_evict_entries() {
+        service.refresh(dept(1L, "NEW"));
+        assertThat(service.getDepartment(1L).getCode()).isEqualTo("NEW");
+        verifyNoInteractions(departmentClient);
+
+        service.evict(1L);
+        when(departmentClient.getDepartment(1L)).thenReturn(dept(1L, "ENG"));
+        assertThat(service.getDepartment(1L).getCode()).isEqualTo("ENG");
+    }
+
+    private static DepartmentDTO dept(Long id, String code) {
+        DepartmentDTO dto = new DepartmentDTO();
+        dto.setId(id);
+        dto.setCode(code);
+        return dto;
+    }
+}
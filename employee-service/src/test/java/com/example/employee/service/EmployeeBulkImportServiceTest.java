@@ -0,0 +1,104 @@
+package com.example.employee.service;
+
+import com.example.employee.domain.Employee;
+import com.example.employee.dto.BulkImportResultDTO;
+import com.example.employee.dto.BulkImportResultDTO.Status;
+import com.example.employee.repo.EmployeeJdbcRepository;
+import com.example.employee.repo.EmployeeRepository;
+import com.example.employee.search.EmployeeSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class EmployeeBulkImportServiceTest {
+
+    @Mock
+    EmployeeRepository repository;
+    @Mock
+    EmployeeJdbcRepository employeeJdbcRepository;
+    @Mock
+    KafkaProducerService kafkaProducerService;
+    @Mock
+    EmployeeSearchIndex searchIndex;
+    @Mock
+    EmployeeStatistics statistics;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    EmployeeBulkImportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new EmployeeBulkImportService(repository, employeeJdbcRepository, kafkaProducerService, searchIndex, statistics,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), transactionManager, 2);
+    }
+
+    @Test
+    void ndjson_rows_are_checked_inserted_in_chunks_and_reported_per_row() throws Exception {
+        String ndjson = """
+                {"firstName":"Ann","lastName":"Lee","email":"ann@company.com","departmentId":1}
+                {"firstName":"Bob","lastName":"Ma","email":"taken@company.com"}
+                {"firstName":"Cat","lastName":"Wu","email":"not-an-email"}
+                {"firstName":"Dan","lastName":"Xu","email":"dan@company.com"}
+                {"firstName":"Dan","lastName":"Xu","email":"DAN@company.com"}
+                """;
+        when(repository.findExistingEmails(anyCollection())).thenAnswer(inv -> {
+            var emails = inv.<Collection<String>>getArgument(0);
+            return emails.contains("taken@company.com") ? List.of("TAKEN@company.com") : List.of();
+        });
+        long[] nextId = {100};
+        doAnswer(inv -> {
+            inv.<List<Employee>>getArgument(0).forEach(e -> e.setId(nextId[0]++));
+            return null;
+        }).when(employeeJdbcRepository).insertAll(anyList());
+
+        BulkImportResultDTO result = service.importEmployees(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getRows()).extracting(BulkImportResultDTO.RowResult::getStatus)
+                .containsExactly(Status.CREATED, Status.DUPLICATE, Status.INVALID, Status.CREATED, Status.DUPLICATE);
+        assertThat(result.getRows().get(0).getId()).isEqualTo(100L);
+        assertThat(result.getRows().get(3).getId()).isEqualTo(101L);
+        // chunk-size=2 的有效行：[Ann, Bob] [Dan, DAN]
+        verify(repository, times(2)).findExistingEmails(anyCollection());
+        verify(kafkaProducerService, times(2)).sendEmployeeEvents(argThat(events -> events.size() == 1));
+        verify(searchIndex, times(2)).putAll(argThat(employees -> employees.size() == 1));
+    }
+
+    @Test
+    void json_array_body_is_accepted() throws Exception {
+        String json = """
+                [{"firstName":"Ann","lastName":"Lee","email":"ann@company.com"}]
+                """;
+        when(repository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        doAnswer(inv -> {
+            inv.<List<Employee>>getArgument(0).forEach(e -> e.setId(1L));
+            return null;
+        }).when(employeeJdbcRepository).insertAll(anyList());
+
+        BulkImportResultDTO result = service.importEmployees(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getCreated()).isEqualTo(1);
+        verify(kafkaProducerService).sendNotificationEvents(argThat(n -> n.size() == 1));
+    }
+}
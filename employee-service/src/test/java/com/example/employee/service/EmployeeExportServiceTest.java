@@ -0,0 +1,84 @@
+package com.example.employee.service;
+
+import com.example.employee.domain.Employee;
+import com.example.employee.exception.InvalidRequestParameterException;
+import com.example.employee.repo.EmployeeJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class EmployeeExportServiceTest {
+
+    @Mock
+    EmployeeJdbcRepository employeeJdbcRepository;
+
+    EmployeeExportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new EmployeeExportService(employeeJdbcRepository, new ObjectMapper());
+    }
+
+    @Test
+    void csv_escapes_commas_and_quotes() throws Exception {
+        stream(new Employee(1L, "Ann", "Lee, Jr.", "ann@company.com", 3L),
+                new Employee(2L, "Bob \"B\"", "Ma", "bob@company.com", null));
+
+        String csv = export(EmployeeExportService.Format.CSV);
+
+        assertThat(csv).isEqualTo(
+                "id,firstName,lastName,email,departmentId\n"
+                        + "1,Ann,\"Lee, Jr.\",ann@company.com,3\n"
+                        + "2,\"Bob \"\"B\"\"\",Ma,bob@company.com,\n");
+    }
+
+    @Test
+    void ndjson_writes_one_object_per_line() throws Exception {
+        stream(new Employee(1L, "Ann", "Lee", "ann@company.com", null));
+
+        String ndjson = export(EmployeeExportService.Format.NDJSON);
+
+        assertThat(ndjson).isEqualTo(
+                "{\"id\":1,\"firstName\":\"Ann\",\"lastName\":\"Lee\",\"email\":\"ann@company.com\",\"departmentId\":null}\n");
+    }
+
+    @Test
+    void unknown_format_is_rejected() {
+        assertThatThrownBy(() -> EmployeeExportService.Format.of("xml"))
+                .isInstanceOf(InvalidRequestParameterException.class);
+        assertThat(EmployeeExportService.Format.of("Csv")).isEqualTo(EmployeeExportService.Format.CSV);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stream(Employee... employees) {
+        doAnswer(inv -> {
+            Consumer<Employee> action = inv.getArgument(0);
+            for (Employee e : employees) {
+                action.accept(e);
+            }
+            return null;
+        }).when(employeeJdbcRepository).forEach(any(Consumer.class));
+    }
+
+    private String export(EmployeeExportService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
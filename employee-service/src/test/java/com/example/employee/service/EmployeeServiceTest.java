@@ -1,21 +1,39 @@
 package com.example.employee.service;
 
-import com.example.employee.client.DepartmentClient;
 import com.example.employee.domain.Employee;
+import com.example.employee.dto.DepartmentDTO;
 import com.example.employee.dto.EmployeeDTO;
 import com.example.employee.exception.DuplicateEmailException;
+import com.example.employee.exception.IdempotencyConflictException;
+import com.example.employee.idempotency.IdempotencyStore;
+import com.example.employee.repo.EmployeeFilter;
 import com.example.employee.repo.EmployeeRepository;
+import com.example.employee.search.EmployeeSearchIndex;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,7 +42,15 @@ public class EmployeeServiceTest {
     @Mock
     EmployeeRepository repository;
     @Mock
-    DepartmentClient departmentClient;
+    DepartmentLookupService departmentLookupService;
+    @Mock
+    KafkaProducerService kafkaProducerService;
+    @Mock
+    IdempotencyStore idempotencyStore;
+    @Mock
+    EmployeeSearchIndex searchIndex;
+    @Mock
+    EmployeeStatistics statistics;
 
     @InjectMocks
     EmployeeService service;
@@ -56,4 +82,78 @@ public class EmployeeServiceTest {
         }
     }
 
+    @Test
+    @DisplayName("getAll(includeDepartment=true): one batched department lookup per page")
+    void getAll_with_department_uses_one_batch_call() {
+        Pageable pageable = PageRequest.of(0, 10);
+        var page = new PageImpl<>(List.of(
+                Employee.builder().id(1L).firstName("A").lastName("A").email("a@example.com").departmentId(1L).build(),
+                Employee.builder().id(2L).firstName("B").lastName("B").email("b@example.com").departmentId(1L).build(),
+                Employee.builder().id(3L).firstName("C").lastName("C").email("c@example.com").departmentId(2L).build(),
+                Employee.builder().id(4L).firstName("D").lastName("D").email("d@example.com").build()
+        ), pageable, 4);
+        when(repository.findAll(ArgumentMatchers.<Specification<Employee>>any(), eq(pageable))).thenReturn(page);
+
+        var eng = new DepartmentDTO();
+        eng.setId(1L);
+        eng.setCode("ENG");
+        when(departmentLookupService.getDepartments(Set.of(1L, 2L))).thenReturn(Map.of(1L, eng));
+
+        var out = service.getAll(EmployeeFilter.NONE, pageable, true, true);
+
+        assertThat(out.getContent()).extracting(dto -> dto.getDepartment() == null ? null : dto.getDepartment().getCode())
+                .containsExactly("ENG", "ENG", null, null);
+        verify(departmentLookupService, times(1)).getDepartments(anyCollection());
+        verify(departmentLookupService, never()).getDepartment(any());
+    }
+
+    @Test
+    @DisplayName("getAll(count=false): one slice query, no COUNT")
+    void getAll_without_count_skips_count_query() {
+        Pageable pageable = PageRequest.of(3, 2);
+        var slice = new SliceImpl<>(List.of(
+                Employee.builder().id(7L).firstName("A").lastName("Li").email("a@example.com").build()
+        ), pageable, true);
+        when(repository.findSlice(ArgumentMatchers.<Specification<Employee>>any(), eq(pageable))).thenReturn(slice);
+
+        var filter = new EmployeeFilter(null, "Li", EmployeeFilter.LastNameMatch.PREFIX, 2L);
+        var out = service.getAll(filter, pageable, false, false);
+
+        assertThat(out).isNotInstanceOf(Page.class);
+        assertThat(out.hasNext()).isTrue();
+        assertThat(out.getContent()).extracting(EmployeeDTO::getId).containsExactly(7L);
+        verify(repository, never()).findAll(ArgumentMatchers.<Specification<Employee>>any(), any(Pageable.class));
+        verifyNoInteractions(departmentLookupService);
+    }
+
+    @Test
+    @DisplayName("EmployeeFilter: lastName keeps substring matching unless prefix is requested")
+    void lastName_filter_defaults_to_contains() {
+        assertThat(new EmployeeFilter(null, "son", null, null).lastNameMatch()).isEqualTo(EmployeeFilter.LastNameMatch.CONTAINS);
+        assertThat(EmployeeFilter.LastNameMatch.of("prefix")).isEqualTo(EmployeeFilter.LastNameMatch.PREFIX);
+    }
+
+    @Test
+    @DisplayName("create(): a replayed Idempotency-Key returns the stored result without touching the database")
+    void create_replay_returns_stored_result() {
+        var stored = EmployeeDTO.builder().id(7L).firstName("X").lastName("Y").email("x@example.com").build();
+        when(idempotencyStore.find("key-1")).thenReturn(Optional.of(stored));
+
+        var out = service.create(EmployeeDTO.builder().firstName("X").lastName("Y").email("x@example.com").build(), "key-1");
+
+        assertThat(out).isSameAs(stored);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("create(): a concurrent request holding the same key yields 409 instead of a second insert")
+    void create_in_flight_key_conflicts() {
+        when(idempotencyStore.find("key-1")).thenReturn(Optional.empty());
+        when(idempotencyStore.tryAcquire("key-1")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.create(EmployeeDTO.builder()
+                .firstName("X").lastName("Y").email("x@example.com").build(), "key-1"))
+                .isInstanceOf(IdempotencyConflictException.class);
+        verifyNoInteractions(repository);
+    }
 }
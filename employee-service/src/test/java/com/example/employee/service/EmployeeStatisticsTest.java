@@ -0,0 +1,112 @@
+package com.example.employee.service;
+
+import com.example.employee.domain.Employee;
+import com.example.employee.repo.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class EmployeeStatisticsTest {
+
+    @Mock
+    EmployeeRepository repository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    EmployeeStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new EmployeeStatistics(repository, transactionManager);
+        when(repository.countEmployeesByDepartment()).thenReturn(List.<Object[]>of(new Object[]{1L, 2L}, new Object[]{2L, 1L}));
+        when(repository.countEmployeesWithoutDepartment()).thenReturn(1L);
+    }
+
+    @Test
+    void loads_once_then_serves_from_memory() {
+        var first = statistics.snapshot();
+        var second = statistics.snapshot();
+
+        assertThat(first.getTotalEmployees()).isEqualTo(4);
+        assertThat(second.getEmployeesByDepartment()).isEqualTo(Map.of(1L, 2L, 2L, 1L));
+        verify(repository, times(1)).countEmployeesByDepartment();
+        verify(repository, times(1)).countEmployeesWithoutDepartment();
+    }
+
+    @Test
+    void writes_update_counters_incrementally() {
+        statistics.snapshot();
+
+        statistics.created(3L);
+        statistics.moved(2L, 1L);          // 部门 2 清空，不再出现
+        statistics.moved(null, 3L);
+        statistics.deleted(1L);
+        statistics.createdAll(List.of(
+                Employee.builder().departmentId(3L).build(),
+                Employee.builder().build()));
+
+        var stats = statistics.snapshot();
+        assertThat(stats.getEmployeesByDepartment()).isEqualTo(Map.of(1L, 2L, 3L, 3L));
+        assertThat(stats.getEmployeesWithoutDepartment()).isEqualTo(1);
+        assertThat(stats.getTotalEmployees()).isEqualTo(6);
+        verify(repository, times(1)).countEmployeesByDepartment();
+    }
+
+    @Test
+    void reconciliation_replaces_drifted_counters() {
+        statistics.snapshot();
+        statistics.created(1L);
+
+        statistics.scheduledReconcile();
+
+        assertThat(statistics.snapshot().getEmployeesByDepartment()).isEqualTo(Map.of(1L, 2L, 2L, 1L));
+        verify(repository, times(2)).countEmployeesByDepartment();
+    }
+
+    @Test
+    void writes_committed_during_reconciliation_are_replayed_onto_the_fresh_counters() throws Exception {
+        statistics.snapshot();
+        // 对账查询期间另一个线程提交了一个新员工：要等查询结束才能完成，结果不在查询里，必须重放
+        AtomicReference<Thread> writer = new AtomicReference<>();
+        when(repository.countEmployeesWithoutDepartment()).thenAnswer(invocation -> {
+            Thread thread = new Thread(() -> statistics.created(3L));
+            thread.start();
+            writer.set(thread);
+            return 1L;
+        });
+
+        statistics.scheduledReconcile();
+        writer.get().join(5_000);
+
+        var stats = statistics.snapshot();
+        assertThat(stats.getEmployeesByDepartment()).isEqualTo(Map.of(1L, 2L, 2L, 1L, 3L, 1L));
+        assertThat(stats.getTotalEmployees()).isEqualTo(5);
+    }
+
+    @Test
+    void writes_already_applied_before_reconciliation_are_not_counted_twice() {
+        statistics.snapshot();
+        statistics.created(3L);
+        // 对账查询已经包含这次提交
+        when(repository.countEmployeesByDepartment())
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 2L}, new Object[]{2L, 1L}, new Object[]{3L, 1L}));
+
+        statistics.scheduledReconcile();
+
+        assertThat(statistics.snapshot().getEmployeesByDepartment()).isEqualTo(Map.of(1L, 2L, 2L, 1L, 3L, 1L));
+    }
+}
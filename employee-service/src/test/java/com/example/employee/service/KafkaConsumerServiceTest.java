@@ -0,0 +1,88 @@
+package com.example.employee.service;
+
+import com.example.employee.config.EventCodecProperties;
+import com.example.employee.event.DepartmentDeletedEvent;
+import com.example.employee.event.DepartmentUpdatedEvent;
+import com.example.employee.event.codec.BinaryEventCodec;
+import com.example.employee.event.codec.EventCodec;
+import com.example.employee.event.codec.EventCodecs;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class KafkaConsumerServiceTest {
+
+    @Mock
+    DepartmentLookupService departmentLookupService;
+    @Mock
+    Acknowledgment ack;
+
+    SimpleMeterRegistry meterRegistry;
+    EventCodecs eventCodecs;
+    KafkaConsumerService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        eventCodecs = new EventCodecs(new ObjectMapper(), new EventCodecProperties());
+        service = new KafkaConsumerService(departmentLookupService, eventCodecs, meterRegistry);
+    }
+
+    @Test
+    void batch_is_processed_in_order_and_acknowledged_once() {
+        var records = List.of(
+                record(0, new DepartmentUpdatedEvent(1L, "Eng", "ENG", null, 1L)),
+                new ConsumerRecord<String, byte[]>("department-events", 0, 1, "DEPARTMENT_UPDATED",
+                        "not json".getBytes(StandardCharsets.UTF_8)),
+                record(2, new DepartmentDeletedEvent(2L, "HR", "HR", null, 2L)));
+
+        service.handleDepartmentEvents(records, ack);
+
+        verify(departmentLookupService).refresh(argThat(d -> d.getId() == 1L && "ENG".equals(d.getCode())));
+        verify(departmentLookupService).evict(2L);
+        verify(ack, times(1)).acknowledge();
+        assertThat(meterRegistry.get("kafka.consumer.records.failed").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("kafka.consumer.batch").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void processing_failure_is_handed_to_the_error_handler_without_acknowledging() {
+        doThrow(new IllegalStateException("redis down")).when(departmentLookupService).evict(2L);
+        var records = List.of(
+                record(0, new DepartmentUpdatedEvent(1L, "Eng", "ENG", null, 1L)),
+                record(1, new DepartmentDeletedEvent(2L, "HR", "HR", null, 2L)),
+                record(2, new DepartmentDeletedEvent(3L, "Ops", "OPS", null, 3L)));
+
+        assertThatThrownBy(() -> service.handleDepartmentEvents(records, ack))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> assertThat(e.getIndex()).isEqualTo(1));
+
+        verify(departmentLookupService, never()).evict(3L);
+        verify(ack, never()).acknowledge();
+    }
+
+    private ConsumerRecord<String, byte[]> record(long offset, Object event) {
+        EventCodec binary = eventCodecs.forContentType(BinaryEventCodec.CONTENT_TYPE);
+        var record = new ConsumerRecord<String, byte[]>("department-events", 0, offset, "key", binary.encode(event));
+        record.headers().add(EventCodec.CONTENT_TYPE_HEADER, binary.contentType().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.employee.service;
+
+import com.example.employee.domain.OutboxEvent;
+import com.example.employee.repo.OutboxEventRepository;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class OutboxRelayTest {
+
+    @Mock
+    OutboxEventRepository outboxEventRepository;
+    @Mock
+    KafkaTemplate<String, byte[]> kafkaTemplate;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxEventRepository, kafkaTemplate, transactionManager,
+                10, 5, Duration.ofMillis(200));
+    }
+
+    @Test
+    void only_acknowledged_events_are_deleted() {
+        when(outboxEventRepository.lockNextBatch(10)).thenReturn(List.of(event(1L, "1"), event(2L, "2")));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(acknowledged(), failed());
+
+        relay.relay();
+
+        verify(kafkaTemplate).flush();
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void acknowledged_events_after_a_failure_are_kept_for_the_next_run() {
+        when(outboxEventRepository.lockNextBatch(10)).thenReturn(List.of(
+                event(1L, "1"), event(2L, "1"), event(3L, "1")));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(acknowledged(), failed(), acknowledged());
+
+        relay.relay();
+
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void unacknowledged_events_stop_the_batch_at_the_send_timeout() {
+        when(outboxEventRepository.lockNextBatch(10)).thenReturn(List.of(event(1L, "1"), event(2L, "2")));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(acknowledged(), new CompletableFuture<>());
+
+        relay.relay();
+
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void records_are_keyed_by_the_stored_aggregate_id() {
+        when(outboxEventRepository.lockNextBatch(10)).thenReturn(List.of(event(1L, "42")));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(acknowledged());
+
+        relay.relay();
+
+        verify(kafkaTemplate).send(argThat((ProducerRecord<String, byte[]> r) -> r != null && "42".equals(r.key())));
+    }
+
+    @Test
+    void empty_outbox_sends_nothing() {
+        when(outboxEventRepository.lockNextBatch(10)).thenReturn(List.of());
+
+        relay.relay();
+
+        verifyNoInteractions(kafkaTemplate);
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<SendResult<String, byte[]>> acknowledged() {
+        return CompletableFuture.completedFuture(mock(SendResult.class));
+    }
+
+    private static CompletableFuture<SendResult<String, byte[]>> failed() {
+        return CompletableFuture.failedFuture(new RuntimeException("broker down"));
+    }
+
+    private static OutboxEvent event(Long id, String key) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("employee-events")
+                .eventKey(key)
+                .contentType("application/json")
+                .payload(("{\"eventType\":\"EMPLOYEE_UPDATED\",\"employeeId\":" + key + "}").getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+}
@@ -262,7 +262,7 @@ public class EmployeeControllerTest {
 
             // 创建真实的Page对象
             Page<EmployeeDTO> page = new org.springframework.data.domain.PageImpl<>(employees);
-            when(service.search(eq("john"), any(Pageable.class))).thenReturn(page);
+            when(service.search(eq("john"), any(Pageable.class), eq(false))).thenReturn(page);
 
             mvc.perform(get("/api/v1/employees/search")
                             .param("query", "john")
@@ -281,7 +281,7 @@ public class EmployeeControllerTest {
 
             // 创建真实的Page对象
             Page<EmployeeDTO> page = new org.springframework.data.domain.PageImpl<>(employees);
-            when(service.search(eq("example.com"), any(Pageable.class))).thenReturn(page);
+            when(service.search(eq("example.com"), any(Pageable.class), eq(false))).thenReturn(page);
 
             mvc.perform(get("/api/v1/employees/search")
                             .param("query", "example.com")
@@ -300,7 +300,7 @@ public class EmployeeControllerTest {
 
             // 创建真实的Page对象
             Page<EmployeeDTO> page = new org.springframework.data.domain.PageImpl<>(employees);
-            when(service.search(eq("JOHN"), any(Pageable.class))).thenReturn(page);
+            when(service.search(eq("JOHN"), any(Pageable.class), eq(false))).thenReturn(page);
 
             mvc.perform(get("/api/v1/employees/search")
                             .param("query", "JOHN")
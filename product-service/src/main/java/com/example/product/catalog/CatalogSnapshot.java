@@ -0,0 +1,119 @@
+package com.example.product.catalog;
+
+import com.example.product.domain.Product;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 某一时刻的完整产品目录，构建后不再修改，可以被任意多个线程无锁读取
+ * 刷新时整体构建一个新的快照再替换引用，读者要么看到旧快照，要么看到新快照
+ * 构建时同时建好二级索引：id -> 产品、分类 -> 产品列表、价格排序索引（见 PriceIndex）
+ */
+public final class CatalogSnapshot {
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(List.of(), null, Instant.EPOCH);
+
+    private final List<Product> products;
+    private final Map<Long, Product> byId;
+    private final Map<String, List<Product>> byCategory;
+    private final List<String> categories;
+    private final PriceIndex byPrice;
+    private final String etag;
+    private final Instant loadedAt;
+
+    CatalogSnapshot(List<Product> products, String etag, Instant loadedAt) {
+        this.products = List.copyOf(products);
+        Map<Long, Product> ids = new HashMap<>();
+        Map<String, List<Product>> grouped = new LinkedHashMap<>();
+        for (Product product : this.products) {
+            if (product.getId() != null) {
+                ids.put(product.getId(), product);
+            }
+            if (product.getCategory() != null) {
+                grouped.computeIfAbsent(product.getCategory(), c -> new ArrayList<>()).add(product);
+            }
+        }
+        this.byId = Map.copyOf(ids);
+        Map<String, List<Product>> byCategory = new HashMap<>();
+        grouped.forEach((category, members) -> byCategory.put(category, List.copyOf(members)));
+        this.byCategory = Map.copyOf(byCategory);
+        this.categories = List.copyOf(grouped.keySet());
+        this.byPrice = PriceIndex.of(this.products);
+        this.etag = etag;
+        this.loadedAt = loadedAt;
+    }
+
+    // 目录内容没变，只更新 etag / 加载时间，复用已建好的索引
+    private CatalogSnapshot(CatalogSnapshot source, String etag, Instant loadedAt) {
+        this.products = source.products;
+        this.byId = source.byId;
+        this.byCategory = source.byCategory;
+        this.categories = source.categories;
+        this.byPrice = source.byPrice;
+        this.etag = etag;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * 上游返回的顺序（与 GET /products 一致）
+     */
+    public List<Product> products() {
+        return products;
+    }
+
+    public Product byId(Long id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    /**
+     * 某个分类下的产品（目录顺序），分类名需完全一致
+     */
+    public List<Product> byCategory(String category) {
+        return category == null ? List.of() : byCategory.getOrDefault(category, List.of());
+    }
+
+    /**
+     * min <= price <= max 的产品（目录顺序），min / max 为 null 表示不限
+     */
+    public List<Product> priceRange(Double min, Double max) {
+        return byPrice.range(min, max);
+    }
+
+    /**
+     * 按首次出现的顺序去重
+     */
+    public List<String> categories() {
+        return categories;
+    }
+
+    public boolean isEmpty() {
+        return products.isEmpty();
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    String etag() {
+        return etag;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    // 上游不支持 ETag 时，内容没变就不替换快照
+    boolean sameContent(List<Product> other) {
+        return Objects.equals(products, other);
+    }
+
+    CatalogSnapshot withEtag(String etag, Instant loadedAt) {
+        return new CatalogSnapshot(this, etag, loadedAt);
+    }
+}
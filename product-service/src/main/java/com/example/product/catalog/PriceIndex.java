@@ -0,0 +1,89 @@
+package com.example.product.catalog;
+
+import com.example.product.domain.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 按价格排序的二级索引：prices 升序，positions[i] 是 prices[i] 对应产品在目录中的位置
+ * 价格区间查询 = 两次二分查找 + 命中部分按目录顺序输出，不再逐个比较全部产品
+ * 没有价格的产品不进索引（与原来的过滤逻辑一致，任何区间都不会返回它们）
+ */
+public final class PriceIndex {
+
+    private final List<Product> products;
+    private final double[] prices;
+    private final int[] positions;
+
+    private PriceIndex(List<Product> products, double[] prices, int[] positions) {
+        this.products = products;
+        this.prices = prices;
+        this.positions = positions;
+    }
+
+    public static PriceIndex of(List<Product> products) {
+        int[] positions = IntStream.range(0, products.size())
+                .filter(i -> products.get(i).getPrice() != null)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> products.get(i).getPrice()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        double[] prices = new double[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            prices[i] = products.get(positions[i]).getPrice();
+        }
+        return new PriceIndex(products, prices, positions);
+    }
+
+    /**
+     * min <= price <= max 的产品，按目录顺序返回；min / max 为 null 表示不限
+     */
+    public List<Product> range(Double min, Double max) {
+        int from = min == null ? 0 : firstAtLeast(min);
+        int to = max == null ? prices.length : firstAbove(max);
+        if (from >= to) {
+            return List.of();
+        }
+        int[] hits = Arrays.copyOfRange(positions, from, to);
+        Arrays.sort(hits);
+        List<Product> result = new ArrayList<>(hits.length);
+        for (int position : hits) {
+            result.add(products.get(position));
+        }
+        return result;
+    }
+
+    // 第一个 price >= value 的下标
+    private int firstAtLeast(double value) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // 第一个 price > value 的下标
+    private int firstAbove(double value) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.product.catalog;
+
+import com.example.product.client.CatalogFetch;
+import com.example.product.client.FakeStoreApiClient;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 进程内的产品目录快照，替代每个请求都从 FakeStore 下载全量产品
+ * 读取策略是 stale-while-revalidate：读操作总是立即拿到当前快照（只读一次 volatile 引用，不加锁）；
+ * 快照超过 product.catalog.stale-after 时由读操作触发一次后台刷新，同一时刻最多一个刷新请求。
+ * 刷新用带 If-None-Match 的条件请求（目录没变时上游只返回 304），成功后原子替换快照；
+ * 刷新失败（包括熔断器打开）保留旧快照继续服务，并在 retry-after 之后才再次尝试
+ */
+@Slf4j
+@Component
+public class ProductCatalog {
+
+    private final FakeStoreApiClient fakeStoreApiClient;
+    private final Duration staleAfter;
+    private final Duration retryAfter;
+    private final Timer updated;
+    private final Timer notModified;
+    private final Timer failed;
+
+    // null 表示还没有加载过
+    private volatile CatalogSnapshot snapshot;
+    // 失败后的下一次允许刷新的时间（System.nanoTime），避免上游故障期间每个读请求都去试一次
+    private volatile long retryNotBefore = System.nanoTime();
+    private final AtomicReference<Mono<CatalogSnapshot>> firstLoad = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public ProductCatalog(FakeStoreApiClient fakeStoreApiClient,
+                          MeterRegistry meterRegistry,
+                          @Value("${product.catalog.stale-after:60s}") Duration staleAfter,
+                          @Value("${product.catalog.retry-after:10s}") Duration retryAfter) {
+        this.fakeStoreApiClient = fakeStoreApiClient;
+        this.staleAfter = staleAfter;
+        this.retryAfter = retryAfter;
+        this.updated = Timer.builder("product.catalog.refresh").tag("result", "updated").register(meterRegistry);
+        this.notModified = Timer.builder("product.catalog.refresh").tag("result", "not_modified").register(meterRegistry);
+        this.failed = Timer.builder("product.catalog.refresh").tag("result", "failed").register(meterRegistry);
+        Gauge.builder("product.catalog.products", this, c -> c.snapshot == null ? 0 : c.snapshot.size())
+                .register(meterRegistry);
+        Gauge.builder("product.catalog.age.seconds", this,
+                        c -> c.snapshot == null ? Double.NaN : Duration.between(c.snapshot.loadedAt(), Instant.now()).toSeconds())
+                .register(meterRegistry);
+    }
+
+    /**
+     * 当前快照，过期时也立即返回（同时在后台刷新）；只有第一次加载完成前的请求会等待
+     * 首次加载失败时返回空目录（与原来上游出错时的行为一致），之后的读请求会触发重试，请求不再逐个等待上游超时
+     */
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            return firstLoad().block();
+        }
+        revalidateIfStale(current);
+        return current;
+    }
+
+    /**
+     * 响应式版本：快照就绪后立即返回；首次加载期间不占用调用线程
+     */
+    public Mono<CatalogSnapshot> snapshotAsync() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            return firstLoad();
+        }
+        revalidateIfStale(current);
+        return Mono.just(current);
+    }
+
+    // 阻塞和响应式调用方共用同一次首次加载
+    private Mono<CatalogSnapshot> firstLoad() {
+        Mono<CatalogSnapshot> load = firstLoad.get();
+        if (load != null) {
+            return load;
+        }
+        Mono<CatalogSnapshot> fresh = Mono.defer(() -> {
+            long start = System.nanoTime();
+            return fakeStoreApiClient.catalog(null)
+                    .map(fetch -> install(fetch, start))
+                    .onErrorResume(e -> Mono.just(failed(e, start)));
+        }).cache();
+        load = firstLoad.compareAndExchange(null, fresh);
+        return load != null ? load : fresh;
+    }
+
+    private void revalidateIfStale(CatalogSnapshot current) {
+        if (Duration.between(current.loadedAt(), Instant.now()).compareTo(staleAfter) < 0
+                || System.nanoTime() - retryNotBefore < 0) {
+            return;
+        }
+        Mono<CatalogSnapshot> refresh = startRefresh();
+        if (refresh != null) {
+            refresh.subscribe();
+        }
+    }
+
+    // 读请求很少时也保持快照不过期太久
+    @Scheduled(fixedDelayString = "${product.catalog.refresh-interval-ms:300000}",
+            initialDelayString = "${product.catalog.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * 从上游刷新一次并等待结果；已有刷新在进行时直接跳过，同一时刻只有一个刷新请求
+     */
+    public void refresh() {
+        Mono<CatalogSnapshot> refresh = startRefresh();
+        if (refresh != null) {
+            refresh.block();
+        }
+    }
+
+    // 抢到 refreshing 标记才返回刷新请求（调用方负责订阅），否则返回 null；结束时（包括取消）释放标记
+    private Mono<CatalogSnapshot> startRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return null;
+        }
+        return Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    CatalogSnapshot current = snapshot;
+                    return fakeStoreApiClient.catalog(current == null ? null : current.etag())
+                            .map(fetch -> install(fetch, start))
+                            .onErrorResume(e -> Mono.just(failed(e, start)));
+                })
+                .doFinally(signal -> refreshing.set(false));
+    }
+
+    // 只在替换引用时加锁，上游请求期间不持有锁
+    private synchronized CatalogSnapshot install(CatalogFetch fetch, long start) {
+        CatalogSnapshot current = snapshot;
+        Instant now = Instant.now();
+        if (current != null && (fetch.notModified() || current.sameContent(fetch.products()))) {
+            snapshot = current.withEtag(fetch.etag(), now);
+            notModified.record(Duration.ofNanos(System.nanoTime() - start));
+            return snapshot;
+        }
+        snapshot = new CatalogSnapshot(fetch.products(), fetch.etag(), now);
+        updated.record(Duration.ofNanos(System.nanoTime() - start));
+        log.info("Product catalog refreshed: {} products", snapshot.size());
+        return snapshot;
+    }
+
+    private synchronized CatalogSnapshot failed(Throwable e, long start) {
+        failed.record(Duration.ofNanos(System.nanoTime() - start));
+        retryNotBefore = System.nanoTime() + retryAfter.toNanos();
+        CatalogSnapshot current = snapshot;
+        log.warn("Product catalog refresh failed, keeping {}: {}",
+                current == null ? "empty catalog" : current.size() + " products from " + current.loadedAt(), e.getMessage());
+        if (current == null) {
+            snapshot = CatalogSnapshot.EMPTY;
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.product.client;
+
+import com.example.product.domain.Product;
+
+import java.util.List;
+
+/**
+ * 条件刷新的结果：notModified 时 products 为 null，沿用当前快照
+ * etag 为空表示上游没有返回 ETag，下次刷新只能无条件请求
+ */
+public record CatalogFetch(boolean notModified, List<Product> products, String etag) {
+
+    static CatalogFetch notModified(String etag) {
+        return new CatalogFetch(true, null, etag);
+    }
+
+    static CatalogFetch modified(List<Product> products, String etag) {
+        return new CatalogFetch(false, products, etag);
+    }
+}
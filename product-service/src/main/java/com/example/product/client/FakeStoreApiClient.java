@@ -1,144 +1,121 @@
 package com.example.product.client;
 
+import com.example.product.config.FakeStoreClientProperties;
 import com.example.product.domain.Product;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
-import java.time.Duration;
-import java.util.Collections;
-import java.util.List;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * FakeStore API 客户端
+ * 只有 ProductCatalog 用到的条件全量请求，返回 Mono，不阻塞调用线程
+ * 连接池、超时、重试见 FakeStoreClientProperties；所有请求都是幂等的 GET，可以安全重试
+ * 外层是熔断器（resilience4j.circuitbreaker.instances.fakestore）：上游持续出错或变慢时直接快速失败，
+ * 调用方（ProductCatalog）继续用上一次成功的数据
+ */
 @Service
 @Slf4j
 public class FakeStoreApiClient {
 
     private final WebClient webClient;
-    private final String baseUrl = "https://fakestoreapi.com";
+    private final FakeStoreClientProperties properties;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter retries;
 
-    public FakeStoreApiClient() {
-        this.webClient = WebClient.builder()
-                .baseUrl(baseUrl)
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024)) // 1MB
-                .build();
+    public FakeStoreApiClient(WebClient fakeStoreWebClient,
+                              FakeStoreClientProperties properties,
+                              CircuitBreakerRegistry circuitBreakerRegistry,
+                              MeterRegistry meterRegistry) {
+        this.webClient = fakeStoreWebClient;
+        this.properties = properties;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("fakestore");
+        this.retries = Counter.builder("fakestore.client.retries").register(meterRegistry);
     }
 
     /**
-     * 获取所有产品
+     * 条件请求全量产品（If-None-Match），供 ProductCatalog 刷新使用
+     * 失败时直接抛出异常：刷新失败要保留旧快照，不能当成空目录
      */
-    public List<Product> getAllProducts() {
-        try {
-            log.info("Fetching all products from FakeStore API");
-            return webClient.get()
-                    .uri("/products")
-                    .retrieve()
-                    .bodyToFlux(Product.class)
-                    .collectList()
-                    .timeout(Duration.ofSeconds(10))
-                    .onErrorReturn(Collections.emptyList())
-                    .block();
-        } catch (WebClientResponseException e) {
-            log.error("Error fetching all products: {}", e.getMessage());
-            return Collections.emptyList();
-        } catch (Exception e) {
-            log.error("Unexpected error fetching all products: {}", e.getMessage());
-            return Collections.emptyList();
-        }
+    public Mono<CatalogFetch> catalog(String etag) {
+        return webClient.get()
+                .uri("/products")
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                        return Mono.just(CatalogFetch.notModified(etag));
+                    }
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.createException().flatMap(Mono::error);
+                    }
+                    String newEtag = response.headers().asHttpHeaders().getETag();
+                    return response.bodyToFlux(Product.class)
+                            .collectList()
+                            .map(products -> CatalogFetch.modified(products, newEtag));
+                })
+                .transform(this::resilient)
+                .doOnSubscribe(s -> log.debug("Refreshing product catalog from FakeStore API (etag: {})", etag));
     }
 
-    /**
-     * 根据ID获取产品
-     */
-    public Product getProductById(Long id) {
-        try {
-            log.info("Fetching product with id: {} from FakeStore API", id);
-            return webClient.get()
-                    .uri("/products/{id}", id)
-                    .retrieve()
-                    .bodyToMono(Product.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .onErrorReturn(null)
-                    .block();
-        } catch (WebClientResponseException.NotFound e) {
-            log.warn("Product with id {} not found", id);
-            return null;
-        } catch (WebClientResponseException e) {
-            log.error("Error fetching product with id {}: {}", id, e.getMessage());
-            return null;
-        } catch (Exception e) {
-            log.error("Unexpected error fetching product with id {}: {}", id, e.getMessage());
-            return null;
-        }
+    // 每次尝试单独超时；可重试的失败按指数退避 + 抖动重试，重试用尽后抛出最后一次的异常
+    // 熔断器包在重试外面：一次调用（含重试）算一次结果；熔断打开时抛出 CallNotPermittedException，不发请求
+    private <T> Mono<T> resilient(Mono<T> request) {
+        return withRetry(request.timeout(properties.getTimeout()))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
     }
 
-    /**
-     * 获取所有产品分类
-     */
-    public List<String> getCategories() {
-        try {
-            log.info("Fetching categories from FakeStore API");
-            return webClient.get()
-                    .uri("/products/categories")
-                    .retrieve()
-                    .bodyToFlux(String.class)
-                    .collectList()
-                    .timeout(Duration.ofSeconds(10))
-                    .onErrorReturn(Collections.emptyList())
-                    .block();
-        } catch (WebClientResponseException e) {
-            log.error("Error fetching categories: {}", e.getMessage());
-            return Collections.emptyList();
-        } catch (Exception e) {
-            log.error("Unexpected error fetching categories: {}", e.getMessage());
-            return Collections.emptyList();
+    private <T> Mono<T> withRetry(Mono<T> attempt) {
+        FakeStoreClientProperties.Retry retry = properties.getRetry();
+        if (retry.getMaxRetries() <= 0) {
+            return attempt;
         }
+        return attempt.retryWhen(Retry.backoff(retry.getMaxRetries(), retry.getInitialBackoff())
+                .maxBackoff(retry.getMaxBackoff())
+                .jitter(retry.getJitter())
+                .filter(FakeStoreApiClient::isRetryable)
+                .doBeforeRetry(signal -> {
+                    retries.increment();
+                    log.warn("Retrying FakeStore request (attempt {}): {}",
+                            signal.totalRetries() + 2, signal.failure().toString());
+                })
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
     }
 
-    /**
-     * 根据分类获取产品
-     */
-    public List<Product> getProductsByCategory(String category) {
-        try {
-            log.info("Fetching products for category: {} from FakeStore API", category);
-            return webClient.get()
-                    .uri("/products/category/{category}", category)
-                    .retrieve()
-                    .bodyToFlux(Product.class)
-                    .collectList()
-                    .timeout(Duration.ofSeconds(10))
-                    .onErrorReturn(Collections.emptyList())
-                    .block();
-        } catch (WebClientResponseException e) {
-            log.error("Error fetching products for category {}: {}", category, e.getMessage());
-            return Collections.emptyList();
-        } catch (Exception e) {
-            log.error("Unexpected error fetching products for category {}: {}", category, e.getMessage());
-            return Collections.emptyList();
+    private static boolean isRetryable(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == HttpStatus.TOO_MANY_REQUESTS.value() || status >= 500;
+        }
+        // 等待连接的队列已满说明本地已经过载，重试只会更糟
+        if (e instanceof WebClientRequestException && isPendingAcquireLimit(e.getCause())) {
+            return false;
         }
+        return e instanceof WebClientRequestException || e instanceof TimeoutException;
     }
 
-    /**
-     * 限制产品数量（用于分页）
-     */
-    public List<Product> getProductsWithLimit(int limit) {
-        try {
-            log.info("Fetching {} products from FakeStore API", limit);
-            return webClient.get()
-                    .uri("/products?limit={limit}", limit)
-                    .retrieve()
-                    .bodyToFlux(Product.class)
-                    .collectList()
-                    .timeout(Duration.ofSeconds(10))
-                    .onErrorReturn(Collections.emptyList())
-                    .block();
-        } catch (WebClientResponseException e) {
-            log.error("Error fetching products with limit {}: {}", limit, e.getMessage());
-            return Collections.emptyList();
-        } catch (Exception e) {
-            log.error("Unexpected error fetching products with limit {}: {}", limit, e.getMessage());
-            return Collections.emptyList();
+    // reactor-pool 的 PoolAcquirePendingLimitException 在 reactor-netty 里是 internal.shaded 包下的类，
+    // 不保证兼容，所以按类名判断，不直接引用
+    private static boolean isPendingAcquireLimit(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if ("PoolAcquirePendingLimitException".equals(t.getClass().getSimpleName())) {
+                return true;
+            }
         }
+        return false;
     }
 }
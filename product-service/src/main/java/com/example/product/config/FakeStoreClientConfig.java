@@ -0,0 +1,55 @@
+package com.example.product.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+@EnableConfigurationProperties(FakeStoreClientProperties.class)
+public class FakeStoreClientConfig {
+
+    // 独立的连接池；metrics(true) 发布 reactor.netty.connection.provider.*{name=fakestore}（总连接、活跃、空闲、等待获取）
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider fakeStoreConnectionProvider(FakeStoreClientProperties properties) {
+        FakeStoreClientProperties.Pool pool = properties.getPool();
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("fakestore")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .metrics(true);
+        if (!pool.getEvictInBackground().isZero()) {
+            builder.evictInBackground(pool.getEvictInBackground());
+        }
+        return builder.build();
+    }
+
+    // 使用 Boot 提供的 WebClient.Builder，请求耗时记录在 http.client.requests（uri 为模板，不带具体 ID）
+    @Bean
+    public WebClient fakeStoreWebClient(WebClient.Builder builder,
+                                        ConnectionProvider fakeStoreConnectionProvider,
+                                        FakeStoreClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(fakeStoreConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, properties.isKeepAlive())
+                .keepAlive(properties.isKeepAlive())
+                .responseTimeout(properties.getReadTimeout())
+                .compress(properties.isCompression())
+                .protocol(properties.isHttp2()
+                        ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11});
+        return builder
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(configurer -> configurer.defaultCodecs()
+                        .maxInMemorySize((int) properties.getMaxInMemorySize().toBytes()))
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.product.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * FakeStoreApiClient 的 HTTP 客户端配置（fakestore.client.*，见 config-repo/product-service.yml）
+ * 默认值与原来硬编码的行为一致：fakestoreapi.com、1MB 响应体上限、10s 超时
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "fakestore.client")
+public class FakeStoreClientProperties {
+
+    private String baseUrl = "https://fakestoreapi.com";
+
+    // 单个响应体在内存中的最大大小
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(1);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    // 发出请求后等待响应的时间（Reactor Netty responseTimeout）
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    // 单次尝试的整体超时（包括读取响应体），重试时每次尝试单独计时
+    private Duration timeout = Duration.ofSeconds(10);
+
+    private boolean keepAlive = true;
+
+    // 通过 ALPN 协商 HTTP/2，上游不支持时回退 HTTP/1.1
+    private boolean http2 = false;
+
+    // 请求 gzip 压缩响应
+    private boolean compression = true;
+
+    private Pool pool = new Pool();
+
+    private Retry retry = new Retry();
+
+    @Getter
+    @Setter
+    public static class Pool {
+
+        private int maxConnections = 50;
+
+        // 等待空闲连接的请求队列上限，超过直接失败
+        private int pendingAcquireMaxCount = 500;
+
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        // 后台清理过期连接的间隔，0 表示只在获取连接时检查
+        private Duration evictInBackground = Duration.ofSeconds(30);
+    }
+
+    /**
+     * GET 请求的有限次重试（指数退避 + 随机抖动）；只重试连接错误、超时、429 和 5xx
+     */
+    @Getter
+    @Setter
+    public static class Retry {
+
+        // 首次请求之外的最多重试次数，0 表示不重试
+        private int maxRetries = 2;
+
+        private Duration initialBackoff = Duration.ofMillis(100);
+
+        private Duration maxBackoff = Duration.ofSeconds(1);
+
+        // 0 ~ 1，退避时间的随机抖动比例
+        private double jitter = 0.5;
+    }
+}
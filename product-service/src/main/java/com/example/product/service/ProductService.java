@@ -1,6 +1,7 @@
 package com.example.product.service;
 
-import com.example.product.client.FakeStoreApiClient;
+import com.example.product.catalog.CatalogSnapshot;
+import com.example.product.catalog.ProductCatalog;
 import com.example.product.domain.Product;
 import com.example.product.dto.ProductDTO;
 import com.example.product.dto.ProductStatsDTO;
@@ -16,25 +17,35 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductService {
 
-    private final FakeStoreApiClient fakeStoreApiClient;
+    // 查询都读本地目录快照，不再每次请求上游（见 ProductCatalog）
+    // 每个查询有一个接收快照的包内重载：ReactiveProductService 把异步拿到的同一个快照传进来，不再读第二次
+    private final ProductCatalog productCatalog;
 
     /**
      * 获取所有产品
      */
     public List<ProductDTO> getAllProducts() {
+        return getAllProducts(productCatalog.snapshot());
+    }
+
+    List<ProductDTO> getAllProducts(CatalogSnapshot snapshot) {
         log.info("Getting all products");
-        List<Product> products = fakeStoreApiClient.getAllProducts();
+        List<Product> products = snapshot.products();
         return products.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     /**
-     * 根据ID获取产品
+     * 根据ID获取产品（上游新增的产品在下一次目录刷新后可见）
      */
     public ProductDTO getProductById(Long id) {
+        return getProductById(productCatalog.snapshot(), id);
+    }
+
+    ProductDTO getProductById(CatalogSnapshot snapshot, Long id) {
         log.info("Getting product with id: {}", id);
-        Product product = fakeStoreApiClient.getProductById(id);
+        Product product = snapshot.byId(id);
         if (product == null) {
             return null;
         }
@@ -45,16 +56,24 @@ public class ProductService {
      * 获取所有产品分类
      */
     public List<String> getCategories() {
+        return getCategories(productCatalog.snapshot());
+    }
+
+    List<String> getCategories(CatalogSnapshot snapshot) {
         log.info("Getting all categories");
-        return fakeStoreApiClient.getCategories();
+        return snapshot.categories();
     }
 
     /**
      * 根据分类获取产品
      */
     public List<ProductDTO> getProductsByCategory(String category) {
+        return getProductsByCategory(productCatalog.snapshot(), category);
+    }
+
+    List<ProductDTO> getProductsByCategory(CatalogSnapshot snapshot, String category) {
         log.info("Getting products for category: {}", category);
-        List<Product> products = fakeStoreApiClient.getProductsByCategory(category);
+        List<Product> products = snapshot.byCategory(category);
         return products.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -64,9 +83,14 @@ public class ProductService {
      * 限制产品数量（用于分页）
      */
     public List<ProductDTO> getProductsWithLimit(int limit) {
+        return getProductsWithLimit(productCatalog.snapshot(), limit);
+    }
+
+    List<ProductDTO> getProductsWithLimit(CatalogSnapshot snapshot, int limit) {
         log.info("Getting products with limit: {}", limit);
-        List<Product> products = fakeStoreApiClient.getProductsWithLimit(limit);
+        List<Product> products = snapshot.products();
         return products.stream()
+                .limit(limit)
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -75,8 +99,12 @@ public class ProductService {
      * 搜索产品（按标题或描述）
      */
     public List<ProductDTO> searchProducts(String query) {
+        return searchProducts(productCatalog.snapshot(), query);
+    }
+
+    List<ProductDTO> searchProducts(CatalogSnapshot snapshot, String query) {
         log.info("Searching products with query: {}", query);
-        List<Product> allProducts = fakeStoreApiClient.getAllProducts();
+        List<Product> allProducts = snapshot.products();
 
         if (query == null || query.trim().isEmpty()) {
             return allProducts.stream()
@@ -99,8 +127,12 @@ public class ProductService {
      * 获取产品统计信息
      */
     public ProductStatsDTO getProductStats() {
+        return getProductStats(productCatalog.snapshot());
+    }
+
+    ProductStatsDTO getProductStats(CatalogSnapshot snapshot) {
         log.info("Getting product statistics");
-        List<Product> products = fakeStoreApiClient.getAllProducts();
+        List<Product> products = snapshot.products();
 
         if (products.isEmpty()) {
             return ProductStatsDTO.builder()
@@ -154,27 +186,28 @@ public class ProductService {
      * 获取价格范围的产品
      */
     public List<ProductDTO> getProductsByPriceRange(Double minPrice, Double maxPrice) {
-        log.info("Getting products with price range: {} - {}", minPrice, maxPrice);
-        List<Product> allProducts = fakeStoreApiClient.getAllProducts();
-
-        return allProducts.stream()
-                .filter(product -> {
-                    Double price = product.getPrice();
-                    if (price == null) return false;
-
-                    boolean minCheck = minPrice == null || price >= minPrice;
-                    boolean maxCheck = maxPrice == null || price <= maxPrice;
+        return getProductsByPriceRange(productCatalog.snapshot(), minPrice, maxPrice);
+    }
 
-                    return minCheck && maxCheck;
-                })
+    List<ProductDTO> getProductsByPriceRange(CatalogSnapshot snapshot, Double minPrice, Double maxPrice) {
+        log.info("Getting products with price range: {} - {}", minPrice, maxPrice);
+        // 价格排序索引上二分查找，不再扫描全部产品
+        return snapshot.priceRange(minPrice, maxPrice).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 立即从上游刷新目录快照
+     */
+    public void refreshCatalog() {
+        productCatalog.refresh();
+    }
+
     /**
      * 转换Product到ProductDTO
      */
-    private ProductDTO convertToDTO(Product product) {
+    ProductDTO convertToDTO(Product product) {
         return ProductDTO.builder()
                 .id(product.getId())
                 .title(product.getTitle())
@@ -0,0 +1,55 @@
+package com.example.product.service;
+
+import com.example.product.catalog.ProductCatalog;
+import com.example.product.dto.ProductDTO;
+import com.example.product.dto.ProductStatsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * ProductService 的响应式版本（/api/v3/products）
+ * 先非阻塞地等目录快照就绪（通常已就绪，直接返回），再在这同一个快照上做内存查询，不会阻塞，也不会读到两个不同的快照
+ * 结果与 ProductService 完全一致：快照里没有的 ID（上游在两次刷新之间新增的产品）同样为空，下一次刷新后可见
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveProductService {
+
+    private final ProductService productService;
+    private final ProductCatalog productCatalog;
+
+    public Mono<List<ProductDTO>> getAllProducts() {
+        return productCatalog.snapshotAsync().map(productService::getAllProducts);
+    }
+
+    public Mono<ProductDTO> getProductById(Long id) {
+        return productCatalog.snapshotAsync().mapNotNull(snapshot -> productService.getProductById(snapshot, id));
+    }
+
+    public Mono<List<String>> getCategories() {
+        return productCatalog.snapshotAsync().map(productService::getCategories);
+    }
+
+    public Mono<List<ProductDTO>> getProductsByCategory(String category) {
+        return productCatalog.snapshotAsync().map(snapshot -> productService.getProductsByCategory(snapshot, category));
+    }
+
+    public Mono<List<ProductDTO>> getProductsWithLimit(int limit) {
+        return productCatalog.snapshotAsync().map(snapshot -> productService.getProductsWithLimit(snapshot, limit));
+    }
+
+    public Mono<List<ProductDTO>> searchProducts(String query) {
+        return productCatalog.snapshotAsync().map(snapshot -> productService.searchProducts(snapshot, query));
+    }
+
+    public Mono<ProductStatsDTO> getProductStats() {
+        return productCatalog.snapshotAsync().map(productService::getProductStats);
+    }
+
+    public Mono<List<ProductDTO>> getProductsByPriceRange(Double minPrice, Double maxPrice) {
+        return productCatalog.snapshotAsync().map(snapshot -> productService.getProductsByPriceRange(snapshot, minPrice, maxPrice));
+    }
+}
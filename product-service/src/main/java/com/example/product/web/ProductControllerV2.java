@@ -5,8 +5,7 @@ import com.example.product.dto.ProductStatsDTO;
 import com.example.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +18,7 @@ import java.util.List;
 @Slf4j
 public class ProductControllerV2 {
 
+    // 查询都读 ProductService 的目录快照（见 ProductCatalog）
     private final ProductService productService;
 
     /**
@@ -26,7 +26,6 @@ public class ProductControllerV2 {
      * GET /api/v2/products
      */
     @GetMapping
-    @Cacheable(value = "products", key = "'all'", unless = "#result == null || #result.isEmpty()")
     public ResponseEntity<List<ProductDTO>> getAllProducts() {
         log.info("Getting all products");
         List<ProductDTO> products = productService.getAllProducts();
@@ -36,9 +35,9 @@ public class ProductControllerV2 {
     /**
      * 根据ID获取产品
      * GET /api/v2/products/{id}
+     * 只查目录快照，与 /api/v3 一致：上游新增、快照里还没有的 ID 返回 404，下一次目录刷新后可见
      */
     @GetMapping("/{id}")
-    @Cacheable(value = "products", key = "#id", unless = "#result == null")
     public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
         log.info("Getting product with id: {}", id);
         ProductDTO product = productService.getProductById(id);
@@ -53,7 +52,6 @@ public class ProductControllerV2 {
      * GET /api/v2/products/categories
      */
     @GetMapping("/categories")
-    @Cacheable(value = "categories", key = "'all'", unless = "#result == null || #result.isEmpty()")
     public ResponseEntity<List<String>> getCategories() {
         log.info("Getting all categories");
         List<String> categories = productService.getCategories();
@@ -65,7 +63,6 @@ public class ProductControllerV2 {
      * GET /api/v2/products/category/{category}
      */
     @GetMapping("/category/{category}")
-    @Cacheable(value = "products", key = "'category:' + #category", unless = "#result == null || #result.isEmpty()")
     public ResponseEntity<List<ProductDTO>> getProductsByCategory(@PathVariable String category) {
         log.info("Getting products for category: {}", category);
         List<ProductDTO> products = productService.getProductsByCategory(category);
@@ -77,7 +74,6 @@ public class ProductControllerV2 {
      * GET /api/v2/products?limit={limit}
      */
     @GetMapping(params = "limit")
-    @Cacheable(value = "products", key = "'limit:' + #limit", unless = "#result == null || #result.isEmpty()")
     public ResponseEntity<List<ProductDTO>> getProductsWithLimit(@RequestParam int limit) {
         log.info("Getting products with limit: {}", limit);
         if (limit <= 0 || limit > 100) {
@@ -92,7 +88,6 @@ public class ProductControllerV2 {
      * GET /api/v2/products/search?q={query}
      */
     @GetMapping("/search")
-    @Cacheable(value = "products", key = "'search:' + #query", unless = "#result == null || #result.isEmpty()")
     public ResponseEntity<List<ProductDTO>> searchProducts(@RequestParam String q) {
         log.info("Searching products with query: {}", q);
         List<ProductDTO> products = productService.searchProducts(q);
@@ -104,7 +99,6 @@ public class ProductControllerV2 {
      * GET /api/v2/products/stats
      */
     @GetMapping("/stats")
-    @Cacheable(value = "productStats", key = "'all'", unless = "#result == null")
     public ResponseEntity<ProductStatsDTO> getProductStats() {
         log.info("Getting product statistics");
         ProductStatsDTO stats = productService.getProductStats();
@@ -116,7 +110,6 @@ public class ProductControllerV2 {
      * GET /api/v2/products/price-range?min={minPrice}&max={maxPrice}
      */
     @GetMapping("/price-range")
-    @Cacheable(value = "products", key = "'price-range:' + #minPrice + ':' + #maxPrice", unless = "#result == null || #result.isEmpty()")
     public ResponseEntity<List<ProductDTO>> getProductsByPriceRange(
             @RequestParam(required = false) Double min,
             @RequestParam(required = false) Double max) {
@@ -126,24 +119,28 @@ public class ProductControllerV2 {
     }
 
     /**
-     * 清除所有缓存
-     * POST /api/v2/products/cache/clear
+     * 立即从上游刷新产品目录快照（查询不再经过 Spring Cache，没有其他缓存需要清除）
+     * POST /api/v2/products/catalog/refresh，旧路径 /cache/clear 保留给已有调用方
      */
-    @PostMapping("/cache/clear")
+    @PostMapping({"/catalog/refresh", "/cache/clear"})
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    @CacheEvict(value = {"products", "categories", "productStats"}, allEntries = true)
-    public void clearCache() {
-        log.info("Clearing all product caches");
+    public void refreshCatalog() {
+        log.info("Refreshing product catalog");
+        productService.refreshCatalog();
     }
 
     /**
-     * 清除特定产品缓存
+     * 已废弃：查询都读目录快照，不存在按 ID 的产品缓存，这个接口不会清除任何东西
+     * 只为已有调用方保留，返回 204 并带 Deprecation 响应头，每次调用记 warn 日志；要刷新数据请用 POST /catalog/refresh
      * DELETE /api/v2/products/{id}/cache
      */
+    @Deprecated
     @DeleteMapping("/{id}/cache")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    @CacheEvict(value = "products", key = "#id")
-    public void clearProductCache(@PathVariable Long id) {
-        log.info("Clearing cache for product with id: {}", id);
+    public ResponseEntity<Void> clearProductCache(@PathVariable Long id) {
+        log.warn("Deprecated DELETE /api/v2/products/{}/cache called; it clears nothing, use POST /api/v2/products/catalog/refresh", id);
+        return ResponseEntity.noContent()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "</api/v2/products/catalog/refresh>; rel=\"alternate\"")
+                .build();
     }
 }
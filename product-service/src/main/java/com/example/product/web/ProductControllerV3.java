@@ -0,0 +1,113 @@
+package com.example.product.web;
+
+import com.example.product.dto.ProductDTO;
+import com.example.product.dto.ProductStatsDTO;
+import com.example.product.service.ReactiveProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 与 /api/v2/products 相同的接口，全部返回 Mono
+ * Spring MVC 对 Mono 返回值走异步请求处理：等待上游期间不占用 servlet 线程，并发不再受 Tomcat 线程池限制
+ */
+@RestController
+@RequestMapping("/api/v3/products")
+@RequiredArgsConstructor
+@Slf4j
+public class ProductControllerV3 {
+
+    private final ReactiveProductService productService;
+
+    /**
+     * 获取所有产品
+     * GET /api/v3/products
+     */
+    @GetMapping
+    public Mono<List<ProductDTO>> getAllProducts() {
+        log.info("Getting all products");
+        return productService.getAllProducts();
+    }
+
+    /**
+     * 根据ID获取产品
+     * GET /api/v3/products/{id}
+     * 只查目录快照，与 /api/v2 一致：上游新增、快照里还没有的 ID 返回 404，下一次目录刷新后可见
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductDTO>> getProductById(@PathVariable Long id) {
+        log.info("Getting product with id: {}", id);
+        return productService.getProductById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 获取所有产品分类
+     * GET /api/v3/products/categories
+     */
+    @GetMapping("/categories")
+    public Mono<List<String>> getCategories() {
+        log.info("Getting all categories");
+        return productService.getCategories();
+    }
+
+    /**
+     * 根据分类获取产品
+     * GET /api/v3/products/category/{category}
+     */
+    @GetMapping("/category/{category}")
+    public Mono<List<ProductDTO>> getProductsByCategory(@PathVariable String category) {
+        log.info("Getting products for category: {}", category);
+        return productService.getProductsByCategory(category);
+    }
+
+    /**
+     * 限制产品数量（用于分页）
+     * GET /api/v3/products?limit={limit}
+     */
+    @GetMapping(params = "limit")
+    public Mono<ResponseEntity<List<ProductDTO>>> getProductsWithLimit(@RequestParam int limit) {
+        log.info("Getting products with limit: {}", limit);
+        if (limit <= 0 || limit > 100) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return productService.getProductsWithLimit(limit).map(ResponseEntity::ok);
+    }
+
+    /**
+     * 搜索产品
+     * GET /api/v3/products/search?q={query}
+     */
+    @GetMapping("/search")
+    public Mono<List<ProductDTO>> searchProducts(@RequestParam String q) {
+        log.info("Searching products with query: {}", q);
+        return productService.searchProducts(q);
+    }
+
+    /**
+     * 获取产品统计信息
+     * GET /api/v3/products/stats
+     */
+    @GetMapping("/stats")
+    public Mono<ProductStatsDTO> getProductStats() {
+        log.info("Getting product statistics");
+        return productService.getProductStats();
+    }
+
+    /**
+     * 根据价格范围获取产品
+     * GET /api/v3/products/price-range?min={minPrice}&max={maxPrice}
+     */
+    @GetMapping("/price-range")
+    public Mono<List<ProductDTO>> getProductsByPriceRange(
+            @RequestParam(required = false) Double min,
+            @RequestParam(required = false) Double max) {
+        log.info("Getting products with price range: {} - {}", min, max);
+        return productService.getProductsByPriceRange(min, max);
+    }
+}
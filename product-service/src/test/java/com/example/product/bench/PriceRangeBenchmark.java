@@ -0,0 +1,88 @@
+package com.example.product.bench;
+
+import com.example.product.catalog.PriceIndex;
+import com.example.product.domain.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 价格区间查询：原来的全量线性过滤 vs 价格排序索引（二分查找）
+ * 合成目录：价格均匀分布在 [1, 1000)，每次查询随机取一个覆盖约 1% 价格范围的区间
+ * 运行：在 IDE 中执行 main，或
+ * mvn -pl product-service test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.product.bench.PriceRangeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceRangeBenchmark {
+
+    private static final String[] CATEGORIES = {"electronics", "jewelery", "men's clothing", "women's clothing"};
+    private static final int QUERIES = 1024;
+    private static final double WIDTH = 10.0;
+
+    @Param({"10000", "100000", "1000000"})
+    public int products;
+
+    private List<Product> catalog;
+    private PriceIndex index;
+    private double[] lows;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        catalog = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            catalog.add(Product.builder()
+                    .id((long) i + 1)
+                    .title("Product " + i)
+                    .price(Math.round(random.nextDouble(1, 1000) * 100) / 100.0)
+                    .category(CATEGORIES[i % CATEGORIES.length])
+                    .build());
+        }
+        index = PriceIndex.of(catalog);
+        lows = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            lows[i] = random.nextDouble(1, 1000 - WIDTH);
+        }
+    }
+
+    @Benchmark
+    public List<Product> linearScan() {
+        double min = nextLow();
+        double max = min + WIDTH;
+        return catalog.stream()
+                .filter(product -> {
+                    Double price = product.getPrice();
+                    return price != null && price >= min && price <= max;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Product> priceIndex() {
+        double min = nextLow();
+        return index.range(min, min + WIDTH);
+    }
+
+    private double nextLow() {
+        return lows[next++ & (QUERIES - 1)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PriceRangeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.product.catalog;
+
+import com.example.product.domain.Product;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CatalogSnapshotTest {
+
+    private static final Instant LOADED_AT = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final List<Product> catalog = List.of(
+            product(1L, "jewelery", 30.0),
+            product(2L, "electronics", 10.0),
+            product(3L, "jewelery", 20.0),
+            product(null, "electronics", 5.0),
+            product(5L, null, 15.0));
+    private final CatalogSnapshot snapshot = new CatalogSnapshot(catalog, "\"v1\"", LOADED_AT);
+
+    @Test
+    void products_keep_the_upstream_order() {
+        assertThat(snapshot.products()).containsExactlyElementsOf(catalog);
+        assertThat(snapshot.size()).isEqualTo(5);
+        assertThat(snapshot.isEmpty()).isFalse();
+    }
+
+    @Test
+    void looks_up_products_by_id() {
+        assertThat(snapshot.byId(3L)).isSameAs(catalog.get(2));
+        assertThat(snapshot.byId(99L)).isNull();
+        assertThat(snapshot.byId(null)).isNull();
+    }
+
+    @Test
+    void groups_by_exact_category_in_catalog_order() {
+        assertThat(snapshot.byCategory("jewelery")).extracting(Product::getId).containsExactly(1L, 3L);
+        assertThat(snapshot.byCategory("Jewelery")).isEmpty();
+        assertThat(snapshot.byCategory(null)).isEmpty();
+    }
+
+    @Test
+    void categories_are_distinct_in_first_seen_order() {
+        assertThat(snapshot.categories()).containsExactly("jewelery", "electronics");
+    }
+
+    @Test
+    void price_range_goes_through_the_price_index() {
+        assertThat(snapshot.priceRange(10.0, 20.0)).extracting(Product::getId).containsExactly(2L, 3L, 5L);
+    }
+
+    @Test
+    void later_changes_to_the_source_list_do_not_leak_in() {
+        List<Product> source = new ArrayList<>(catalog);
+        CatalogSnapshot copy = new CatalogSnapshot(source, null, LOADED_AT);
+
+        source.clear();
+
+        assertThat(copy.size()).isEqualTo(5);
+        assertThatThrownBy(() -> copy.products().add(product(6L, "books", 1.0)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void with_etag_keeps_the_content_and_only_moves_etag_and_load_time() {
+        Instant later = LOADED_AT.plusSeconds(60);
+
+        CatalogSnapshot revalidated = snapshot.withEtag("\"v2\"", later);
+
+        assertThat(revalidated.etag()).isEqualTo("\"v2\"");
+        assertThat(revalidated.loadedAt()).isEqualTo(later);
+        assertThat(revalidated.products()).isSameAs(snapshot.products());
+        assertThat(revalidated.byCategory("jewelery")).isSameAs(snapshot.byCategory("jewelery"));
+    }
+
+    @Test
+    void same_content_compares_products_by_value() {
+        List<Product> equalCopy = catalog.stream()
+                .map(p -> product(p.getId(), p.getCategory(), p.getPrice()))
+                .toList();
+
+        assertThat(snapshot.sameContent(equalCopy)).isTrue();
+        assertThat(snapshot.sameContent(catalog.subList(0, 4))).isFalse();
+    }
+
+    @Test
+    void the_empty_snapshot_answers_every_query_with_nothing() {
+        assertThat(CatalogSnapshot.EMPTY.isEmpty()).isTrue();
+        assertThat(CatalogSnapshot.EMPTY.categories()).isEmpty();
+        assertThat(CatalogSnapshot.EMPTY.priceRange(null, null)).isEmpty();
+        assertThat(CatalogSnapshot.EMPTY.byId(1L)).isNull();
+    }
+
+    private static Product product(Long id, String category, Double price) {
+        return Product.builder().id(id).title("Product " + id).category(category).price(price).build();
+    }
+}
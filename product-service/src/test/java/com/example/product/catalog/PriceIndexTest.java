@@ -0,0 +1,69 @@
+package com.example.product.catalog;
+
+import com.example.product.domain.Product;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class PriceIndexTest {
+
+    // 目录顺序与价格顺序故意不同，id 为 4 的产品没有价格
+    private final List<Product> catalog = List.of(
+            product(1L, 30.0),
+            product(2L, 10.0),
+            product(3L, 20.0),
+            product(4L, null),
+            product(5L, 10.0),
+            product(6L, 40.0));
+    private final PriceIndex index = PriceIndex.of(catalog);
+
+    @Test
+    void both_bounds_are_inclusive() {
+        assertThat(ids(index.range(10.0, 30.0))).containsExactly(1L, 2L, 3L, 5L);
+        assertThat(ids(index.range(20.0, 20.0))).containsExactly(3L);
+    }
+
+    @Test
+    void results_come_back_in_catalog_order_not_price_order() {
+        assertThat(ids(index.range(0.0, 100.0))).containsExactly(1L, 2L, 3L, 5L, 6L);
+    }
+
+    @Test
+    void null_bounds_are_open() {
+        assertThat(ids(index.range(null, 10.0))).containsExactly(2L, 5L);
+        assertThat(ids(index.range(30.0, null))).containsExactly(1L, 6L);
+        assertThat(ids(index.range(null, null))).containsExactly(1L, 2L, 3L, 5L, 6L);
+    }
+
+    @Test
+    void products_without_a_price_never_match() {
+        assertThat(ids(index.range(null, null))).doesNotContain(4L);
+        assertThat(ids(index.range(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY))).doesNotContain(4L);
+    }
+
+    @Test
+    void ranges_outside_the_prices_or_inverted_are_empty() {
+        assertThat(index.range(41.0, 50.0)).isEmpty();
+        assertThat(index.range(0.0, 9.99)).isEmpty();
+        assertThat(index.range(30.0, 10.0)).isEmpty();
+        assertThat(index.range(10.5, 19.5)).isEmpty();
+    }
+
+    @Test
+    void an_empty_catalog_has_no_matches() {
+        assertThat(PriceIndex.of(List.of()).range(null, null)).isEmpty();
+    }
+
+    private static Product product(Long id, Double price) {
+        return Product.builder().id(id).title("Product " + id).price(price).category("electronics").build();
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.product.catalog;
+
+import com.example.product.client.CatalogFetch;
+import com.example.product.client.FakeStoreApiClient;
+import com.example.product.domain.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ProductCatalogTest {
+
+    private static final List<Product> V1 = List.of(product(1L, 10.0), product(2L, 20.0));
+    private static final List<Product> V2 = List.of(product(1L, 10.0), product(2L, 25.0), product(3L, 30.0));
+
+    private final FakeStoreApiClient client = mock(FakeStoreApiClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void first_read_loads_the_catalog_once_and_later_reads_use_the_snapshot() {
+        when(client.catalog(null)).thenReturn(Mono.just(new CatalogFetch(false, V1, "\"v1\"")));
+        ProductCatalog catalog = catalog(Duration.ofMinutes(1));
+
+        CatalogSnapshot first = catalog.snapshot();
+        CatalogSnapshot second = catalog.snapshotAsync().block();
+
+        assertThat(first.products()).isEqualTo(V1);
+        assertThat(second).isSameAs(first);
+        verify(client, times(1)).catalog(any());
+    }
+
+    @Test
+    void refresh_sends_the_current_etag_and_keeps_the_content_on_not_modified() {
+        when(client.catalog(null)).thenReturn(Mono.just(new CatalogFetch(false, V1, "\"v1\"")));
+        when(client.catalog("\"v1\"")).thenReturn(Mono.just(new CatalogFetch(true, null, "\"v1\"")));
+        ProductCatalog catalog = catalog(Duration.ofMinutes(1));
+        CatalogSnapshot loaded = catalog.snapshot();
+
+        catalog.refresh();
+
+        CatalogSnapshot current = catalog.snapshot();
+        assertThat(current.products()).isSameAs(loaded.products());
+        assertThat(current.loadedAt()).isAfterOrEqualTo(loaded.loadedAt());
+        assertThat(meterRegistry.get("product.catalog.refresh").tag("result", "not_modified").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void refresh_with_new_content_replaces_the_snapshot() {
+        when(client.catalog(null)).thenReturn(Mono.just(new CatalogFetch(false, V1, null)));
+        ProductCatalog catalog = catalog(Duration.ofMinutes(1));
+        catalog.snapshot();
+        when(client.catalog(null)).thenReturn(Mono.just(new CatalogFetch(false, V2, null)));
+
+        catalog.refresh();
+
+        assertThat(catalog.snapshot().products()).isEqualTo(V2);
+        assertThat(catalog.snapshot().priceRange(25.0, 30.0)).extracting(Product::getId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void a_stale_read_returns_the_current_snapshot_and_revalidates_in_the_background() {
+        when(client.catalog(null)).thenReturn(Mono.just(new CatalogFetch(false, V1, "\"v1\"")));
+        ProductCatalog catalog = catalog(Duration.ZERO);
+        CatalogSnapshot loaded = catalog.snapshot();
+        when(client.catalog("\"v1\"")).thenReturn(Mono.just(new CatalogFetch(false, V2, "\"v2\"")));
+        when(client.catalog("\"v2\"")).thenReturn(Mono.just(new CatalogFetch(true, null, "\"v2\"")));
+
+        CatalogSnapshot stale = catalog.snapshot();
+
+        assertThat(stale.products()).isEqualTo(V1);
+        verify(client, timeout(5000)).catalog("\"v1\"");
+        await(() -> catalog.snapshot().products().equals(V2));
+        assertThat(loaded.products()).isEqualTo(V1);
+    }
+
+    private ProductCatalog catalog(Duration staleAfter) {
+        return new ProductCatalog(client, meterRegistry, staleAfter, Duration.ofSeconds(10));
+    }
+
+    static Product product(Long id, Double price) {
+        return Product.builder().id(id).title("Product " + id).price(price).category("electronics").build();
+    }
+
+    static void await(java.util.function.BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.product.service;
+
+import com.example.product.catalog.ProductCatalog;
+import com.example.product.client.CatalogFetch;
+import com.example.product.client.FakeStoreApiClient;
+import com.example.product.domain.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ReactiveProductServiceTest {
+
+    private final FakeStoreApiClient client = mock(FakeStoreApiClient.class);
+    private ProductCatalog productCatalog;
+    private ReactiveProductService reactiveProductService;
+
+    @BeforeEach
+    void setUp() {
+        when(client.catalog(null)).thenReturn(Mono.just(new CatalogFetch(false, List.of(
+                Product.builder().id(1L).title("Product 1").category("jewelery").price(30.0).build()), "\"v1\"")));
+        productCatalog = spy(new ProductCatalog(client, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), Duration.ofSeconds(10)));
+        reactiveProductService = new ReactiveProductService(new ProductService(productCatalog), productCatalog);
+    }
+
+    @Test
+    void queries_read_the_catalog_snapshot_once() {
+        assertThat(reactiveProductService.getAllProducts().block()).extracting("id").containsExactly(1L);
+        assertThat(reactiveProductService.getCategories().block()).containsExactly("jewelery");
+
+        verify(productCatalog, times(2)).snapshotAsync();
+        verify(productCatalog, never()).snapshot();
+    }
+
+    @Test
+    void unknown_id_completes_empty() {
+        assertThat(reactiveProductService.getProductById(1L).block()).isNotNull();
+        assertThat(reactiveProductService.getProductById(99L).blockOptional()).isEmpty();
+
+        verify(productCatalog, never()).snapshot();
+    }
+}